@@ -0,0 +1,42 @@
+package myfood.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+// US2: criação e consultas de empresa
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BenchEmpresa {
+
+    @Benchmark
+    public int criarEmpresa(DadosSinteticos dados, Sessao sessao) throws Exception {
+        // Dono sorteado, nome novo (nome repetido de outro dono dá erro)
+        return dados.facade.criarEmpresa("restaurante", dados.qualquer(dados.donos), sessao.unico("Empresa"), "Rua X", "cozinha0");
+    }
+
+    @Benchmark
+    public String getEmpresasDoUsuario(DadosSinteticos dados) throws Exception {
+        return dados.facade.getEmpresasDoUsuario(dados.qualquer(dados.donos));
+    }
+
+    @Benchmark
+    public String getAtributoEmpresa(DadosSinteticos dados) throws Exception {
+        return dados.facade.getAtributoEmpresa(dados.qualquer(dados.empresas), "tipoCozinha");
+    }
+
+    @Benchmark
+    public int getIdEmpresa(DadosSinteticos dados) throws Exception {
+        int i = dados.indiceQualquer(dados.donos.length);
+        return dados.facade.getIdEmpresa(dados.donos[i], "Empresa " + i, 0);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,125 @@
+package myfood.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// US4: pedidos.
+// Algumas operações só podem rodar uma vez por pedido (fechar, remover o que foi
+// adicionado), então elas são medidas em par com a operação que prepara o terreno:
+// criarEFecharPedido - criarPedido dá o custo do fecharPedido, e o mesmo vale pro remover.
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BenchPedido {
+
+    // Cada thread tem um cliente "novo" que vai abrindo pedido em todas as empresas.
+    // Quando passa por todas, cria outro cliente (custo diluído entre muitos pedidos).
+    // E tem um pedido aberto só dela, pra adicionar/remover produtos sem esbarrar em ninguém.
+    @State(Scope.Thread)
+    public static class Cliente {
+        int cliente;
+        int proximaEmpresa;
+        int pedidoAberto;
+        int indiceEmpresaDoPedido;
+        int proximoItem;
+
+        @Setup(Level.Trial)
+        public void preparar(DadosSinteticos dados, Sessao sessao) throws Exception {
+            novoCliente(dados, sessao);
+            this.indiceEmpresaDoPedido = dados.indiceQualquer(dados.empresas.length);
+            this.pedidoAberto = dados.facade.criarPedido(this.cliente, dados.empresas[this.indiceEmpresaDoPedido]);
+            this.proximaEmpresa = 0;
+            novoCliente(dados, sessao);
+        }
+
+        void novoCliente(DadosSinteticos dados, Sessao sessao) throws Exception {
+            String email = sessao.unico("bench").replace(' ', '.') + "@bench";
+            dados.facade.criarUsuario("Cliente Bench", email, "senha", "Rua X");
+            this.cliente = dados.facade.login(email, "senha");
+        }
+
+        // Pode trocar o cliente: chame antes de ler "cliente"
+        int proximaEmpresa(DadosSinteticos dados, Sessao sessao) throws Exception {
+            if (this.proximaEmpresa == dados.empresas.length) {
+                novoCliente(dados, sessao);
+                this.proximaEmpresa = 0;
+            }
+            return dados.empresas[this.proximaEmpresa++];
+        }
+
+        int proximoProduto(DadosSinteticos dados) {
+            return dados.produtos[dados.produtoDaEmpresa(this.indiceEmpresaDoPedido, this.proximoItem++)];
+        }
+    }
+
+    @Benchmark
+    public int criarPedido(DadosSinteticos dados, Sessao sessao, Cliente c) throws Exception {
+        int empresa = c.proximaEmpresa(dados, sessao);
+        return dados.facade.criarPedido(c.cliente, empresa);
+    }
+
+    @Benchmark
+    public void criarEFecharPedido(DadosSinteticos dados, Sessao sessao, Cliente c) throws Exception {
+        int empresa = c.proximaEmpresa(dados, sessao);
+        int numero = dados.facade.criarPedido(c.cliente, empresa);
+        dados.facade.fecharPedido(numero);
+    }
+
+    // Pedido do começo ao fim: criar, fechar, liberar, despachar e entregar
+    @Benchmark
+    public void cicloCompletoPedido(DadosSinteticos dados, Sessao sessao, Cliente c) throws Exception {
+        int empresa = c.proximaEmpresa(dados, sessao);
+        int numero = dados.facade.criarPedido(c.cliente, empresa);
+        dados.facade.fecharPedido(numero);
+        dados.facade.liberarPedido(numero);
+        dados.facade.despacharPedido(numero);
+        dados.facade.entregarPedido(numero);
+    }
+
+    @Benchmark
+    public void adicionarProduto(DadosSinteticos dados, Cliente c) throws Exception {
+        dados.facade.adicionarProduto(c.pedidoAberto, c.proximoProduto(dados));
+    }
+
+    @Benchmark
+    public void adicionarERemoverProduto(DadosSinteticos dados, Cliente c) throws Exception {
+        int i = dados.produtoDaEmpresa(c.indiceEmpresaDoPedido, c.proximoItem++);
+        dados.facade.adicionarProduto(c.pedidoAberto, dados.produtos[i]);
+        dados.facade.removerProduto(c.pedidoAberto, dados.nomesProdutos[i]);
+    }
+
+    @Benchmark
+    public String getPedidosValor(DadosSinteticos dados) throws Exception {
+        return dados.facade.getPedidos(dados.qualquer(dados.pedidos), "valor");
+    }
+
+    @Benchmark
+    public String getPedidosProdutos(DadosSinteticos dados) throws Exception {
+        return dados.facade.getPedidos(dados.qualquer(dados.pedidos), "produtos");
+    }
+
+    @Benchmark
+    public int getNumeroPedido(DadosSinteticos dados) throws Exception {
+        // O cliente i tem um pedido na empresa i % empresas (ver DadosSinteticos)
+        int i = dados.indiceQualquer(dados.clientes.length);
+        return dados.facade.getNumeroPedido(dados.clientes[i], dados.empresas[i % dados.empresas.length], 0);
+    }
+
+    @Benchmark
+    public String getPedidosPorEstado(DadosSinteticos dados) throws Exception {
+        return dados.facade.getPedidosPorEstado(dados.qualquer(dados.empresas), "preparando");
+    }
+}
\ No newline at end of file
@@ -0,0 +1,33 @@
+package myfood.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import myfood.Facade;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Salvar (encerrarSistema) e carregar (construtor da Facade) a base inteira.
+// Cada chamada leva de milissegundos a minutos, então mede uma chamada por iteração.
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BenchPersistencia {
+
+    @Benchmark
+    public void encerrarSistema(DadosSinteticos dados) {
+        dados.facade.encerrarSistema();
+    }
+
+    // Lê os saves que o DadosSinteticos deixou (journal vazio)
+    @Benchmark
+    public Facade carregarSistema(DadosSinteticos dados) {
+        return new Facade(dados.diretorio);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,43 @@
+package myfood.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+// US3: cardápio (criar, editar, buscar e listar produtos)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BenchProduto {
+
+    @Benchmark
+    public int criarProduto(DadosSinteticos dados, Sessao sessao) throws Exception {
+        return dados.facade.criarProduto(dados.qualquer(dados.empresas), sessao.unico("Produto"), 9.90f, "categoria0");
+    }
+
+    @Benchmark
+    public void editarProduto(DadosSinteticos dados) throws Exception {
+        // Mesmo nome, preço novo: exercita o ajuste dos pedidos abertos
+        int i = dados.indiceQualquer(dados.produtos.length);
+        dados.facade.editarProduto(dados.produtos[i], dados.nomesProdutos[i], 1 + dados.indiceQualquer(50), "categoria" + (i % 20));
+    }
+
+    @Benchmark
+    public String getProduto(DadosSinteticos dados) throws Exception {
+        int i = dados.indiceQualquer(dados.produtos.length);
+        return dados.facade.getProduto(dados.nomesProdutos[i], dados.empresaDoProduto(i), "valor");
+    }
+
+    @Benchmark
+    public String listarProdutos(DadosSinteticos dados) throws Exception {
+        return dados.facade.listarProdutos(dados.qualquer(dados.empresas));
+    }
+}
\ No newline at end of file
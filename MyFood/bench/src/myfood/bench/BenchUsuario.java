@@ -0,0 +1,42 @@
+package myfood.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+// US1: criação de usuário, login e leitura de atributo
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BenchUsuario {
+
+    @Benchmark
+    public void criarCliente(DadosSinteticos dados, Sessao sessao) throws Exception {
+        String email = sessao.unico("novo").replace(' ', '.') + "@bench";
+        dados.facade.criarUsuario("Novo", email, "senha", "Rua X");
+    }
+
+    @Benchmark
+    public void criarDono(DadosSinteticos dados, Sessao sessao) throws Exception {
+        String email = sessao.unico("dono").replace(' ', '.') + "@bench";
+        dados.facade.criarUsuario("Novo Dono", email, "senha", "Rua X", "123.456.789-00");
+    }
+
+    @Benchmark
+    public int login(DadosSinteticos dados) throws Exception {
+        return dados.facade.login(dados.emailsClientes[dados.indiceQualquer(dados.emailsClientes.length)], "senha");
+    }
+
+    @Benchmark
+    public String getAtributoUsuario(DadosSinteticos dados) throws Exception {
+        return dados.facade.getAtributoUsuario(dados.qualquer(dados.clientes), "endereco");
+    }
+}
\ No newline at end of file
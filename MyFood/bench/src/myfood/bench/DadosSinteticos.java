@@ -0,0 +1,122 @@
+package myfood.bench;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.ThreadLocalRandom;
+
+import myfood.Facade;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+// Base de dados falsa que todos os benchmarks usam.
+// "tamanho" é quantos clientes, produtos e pedidos a base tem; empresas (e donos)
+// são tamanho/100, então cada cardápio tem uns 100 produtos.
+// Cada pedido tem 3 itens, e metade dos pedidos já está fechada.
+//
+// Cada trial salva numa pasta temporária só dele (apagada no fim), não na pasta atual.
+// Com 10M a base passa de alguns GB: use -Xmx grande (ex: -jvmArgsAppend -Xmx24g).
+@State(Scope.Benchmark)
+public class DadosSinteticos {
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int tamanho;
+
+    public Facade facade;
+    public String diretorio; // Diretório de dados da Facade
+
+    // IDs/nomes gerados, pra sortear entidades que existem de verdade
+    public int[] clientes;
+    public String[] emailsClientes;
+    public int[] donos;
+    public int[] empresas;
+    public int[] produtos;
+    public String[] nomesProdutos;
+    public int[] pedidos;
+
+    @Setup(Level.Trial)
+    public void popular() throws Exception {
+        this.diretorio = Files.createTempDirectory("myfood_bench_").toString();
+        this.facade = new Facade(this.diretorio);
+        this.facade.zerarSistema();
+
+        int quantidadeEmpresas = Math.max(1, this.tamanho / 100);
+
+        this.donos = new int[quantidadeEmpresas];
+        this.empresas = new int[quantidadeEmpresas];
+        for (int i = 0; i < quantidadeEmpresas; i++) {
+            String email = "dono" + i + "@bench";
+            this.facade.criarUsuario("Dono " + i, email, "senha", "Rua " + i, "123.456.789-00");
+            this.donos[i] = this.facade.login(email, "senha");
+            this.empresas[i] = this.facade.criarEmpresa("restaurante", this.donos[i], "Empresa " + i, "Rua " + i, "cozinha" + (i % 10));
+        }
+
+        this.produtos = new int[this.tamanho];
+        this.nomesProdutos = new String[this.tamanho];
+        for (int i = 0; i < this.tamanho; i++) {
+            this.nomesProdutos[i] = "Produto " + i;
+            this.produtos[i] = this.facade.criarProduto(empresaDoProduto(i), this.nomesProdutos[i], 1 + (i % 50), "categoria" + (i % 20));
+        }
+
+        this.clientes = new int[this.tamanho];
+        this.emailsClientes = new String[this.tamanho];
+        this.pedidos = new int[this.tamanho];
+        for (int i = 0; i < this.tamanho; i++) {
+            this.emailsClientes[i] = "cliente" + i + "@bench";
+            this.facade.criarUsuario("Cliente " + i, this.emailsClientes[i], "senha", "Rua " + i);
+            this.clientes[i] = this.facade.login(this.emailsClientes[i], "senha");
+
+            // Pedido do cliente i na empresa i, com 3 produtos daquele cardápio
+            int e = i % quantidadeEmpresas;
+            int numero = this.facade.criarPedido(this.clientes[i], this.empresas[e]);
+            for (int j = 0; j < 3; j++) {
+                this.facade.adicionarProduto(numero, this.produtos[produtoDaEmpresa(e, i + j)]);
+            }
+            if (i % 2 == 0) {
+                this.facade.fecharPedido(numero);
+            }
+            this.pedidos[i] = numero;
+        }
+
+        // Começa a medição com tudo salvo e o journal vazio
+        this.facade.encerrarSistema();
+    }
+
+    @TearDown(Level.Trial)
+    public void limpar() throws IOException {
+        this.facade.zerarSistema();
+        File[] sobras = new File(this.diretorio).listFiles(); // O journal (vazio) fica
+        if (sobras != null) {
+            for (File f : sobras) {
+                Files.deleteIfExists(f.toPath());
+            }
+        }
+        Files.deleteIfExists(new File(this.diretorio).toPath());
+    }
+
+    // --- Sorteios ---
+
+    public int qualquer(int[] ids) {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+
+    public int indiceQualquer(int tamanhoArray) {
+        return ThreadLocalRandom.current().nextInt(tamanhoArray);
+    }
+
+    // O produto i fica na empresa i % quantidade de empresas
+    public int empresaDoProduto(int i) {
+        return this.empresas[i % this.empresas.length];
+    }
+
+    // Índice (em "produtos") de um produto do cardápio da empresa de índice "e"
+    public int produtoDaEmpresa(int e, int k) {
+        int porEmpresa = Math.max(1, this.tamanho / this.empresas.length);
+        int i = e + (k % porEmpresa) * this.empresas.length;
+        return i < this.tamanho ? i : e % this.tamanho;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,30 @@
+package myfood.bench;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+// Roda os benchmarks pela IDE (precisa do processamento de anotações ligado
+// no módulo MyFood-bench, pro JMH gerar as classes dele).
+//
+// Exemplos de argumento:
+//   (nada)                      -> tudo, com todos os tamanhos
+//   BenchPedido                 -> só os de pedido
+//   BenchProduto 1000,100000    -> só produto, só nesses tamanhos
+// Pela linha de comando dá pra usar direto o org.openjdk.jmh.Main com as opções do JMH.
+public class ExecutarBenchmarks {
+
+    public static void main(String[] args) throws Exception {
+        OptionsBuilder opcoes = new OptionsBuilder();
+        opcoes.include(args.length > 0 ? args[0] : "myfood.bench.Bench.*");
+        if (args.length > 1) {
+            opcoes.param("tamanho", args[1].split(","));
+        }
+        opcoes.resultFormat(ResultFormatType.JSON);
+        opcoes.result("bench_output.json");
+
+        Options construidas = opcoes.build();
+        new Runner(construidas).run();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,21 @@
+package myfood.bench;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+// Estado de cada thread do benchmark: um prefixo só dela e um contador,
+// pra gerar emails/nomes que nunca repetem entre threads (senão a validação barra).
+@State(Scope.Thread)
+public class Sessao {
+
+    private static final AtomicInteger PROXIMA_THREAD = new AtomicInteger();
+
+    public final String prefixo = "t" + PROXIMA_THREAD.getAndIncrement() + "-";
+    private int contador;
+
+    public String unico(String base) {
+        return base + " " + this.prefixo + (this.contador++);
+    }
+}
\ No newline at end of file
@@ -23,5 +23,24 @@ public class Main {
         //EasyAccept.main(new String[]{facade, "tests/us7_2.txt"});
         //EasyAccept.main(new String[]{facade, "tests/us8_1.txt"});
         //EasyAccept.main(new String[]{facade, "tests/us8_2.txt"});
+
+        //Regressoes
+        EasyAccept.main(new String[]{facade, "tests/us9_1.txt"});
+        EasyAccept.main(new String[]{facade, "tests/us9_2.txt"});
+        EasyAccept.main(new String[]{facade, "tests/us10_1.txt"});
+        EasyAccept.main(new String[]{facade, "tests/us10_2.txt"});
+        EasyAccept.main(new String[]{facade, "tests/us11_1.txt"});
+        EasyAccept.main(new String[]{facade, "tests/us11_2.txt"});
+        EasyAccept.main(new String[]{facade, "tests/us12_1.txt"});
+        EasyAccept.main(new String[]{facade, "tests/us12_2.txt"});
+        EasyAccept.main(new String[]{facade, "tests/us13_1.txt"});
+        EasyAccept.main(new String[]{facade, "tests/us13_2.txt"});
+        EasyAccept.main(new String[]{facade, "tests/us14_1.txt"});
+        EasyAccept.main(new String[]{facade, "tests/us14_2.txt"});
+        EasyAccept.main(new String[]{facade, "tests/us15_1.txt"});
+        EasyAccept.main(new String[]{facade, "tests/us15_2.txt"});
+        EasyAccept.main(new String[]{facade, "tests/us16_1.txt"});
+        EasyAccept.main(new String[]{facade, "tests/us16_2.txt"});
+        EasyAccept.main(new String[]{facade, "tests/us16_3.txt"});
     }
 }
\ No newline at end of file
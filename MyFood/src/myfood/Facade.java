@@ -4,9 +4,33 @@ import myfood.controllers.ControladorUsuario;
 import myfood.controllers.ControladorEmpresa;
 import myfood.controllers.ControladorProduto;
 import myfood.controllers.ControladorPedido;
+import java.io.File;
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import myfood.importacao.Importador;
+import myfood.metricas.RegistroMetricas;
+import myfood.persistencia.Journal;
+import myfood.persistencia.RegistroJournal;
+import myfood.sequenciador.SequenciadorDeEscritas;
 
 // A Facade é o ponto de entrada, ela só repassa as chamadas
 // pros controladores certos.
+// Pode ser chamada por várias threads ao mesmo tempo (os controladores se protegem sozinhos).
+// Cada instância só mexe nos arquivos do seu diretório de dados (saves + journal), então dá pra
+// ter várias no mesmo processo (um diretório por cliente/inquilino, ou por script de teste).
+// Duas instâncias no mesmo diretório ao mesmo tempo, não: uma sobrescreveria o save da outra.
+// Por isso abrir uma Facade num diretório fecha a que estava aberta nele (ela não salva mais nada).
 
 public class Facade {
 
@@ -15,113 +39,621 @@ public class Facade {
     private ControladorProduto controladorProduto;
     private ControladorPedido controladorPedido;
 
+    // Onde ficam os saves e o journal. Sem diretório no construtor, usa -Dmyfood.dirDados
+    // (padrão: a pasta atual, como sempre foi)
+    private final File diretorioDados;
+
+    // Journal com as mutações feitas depois do último save
+    private static final String ARQUIVO_JOURNAL = "myfood_journal.log";
+    // Quantos registros o journal pode ter antes de virar um save novo (compactação)
+    private static final long LIMITE_JOURNAL = 50_000;
+    private volatile Journal journal;
+
+    // Facade aberta em cada diretório (caminho canônico), pra uma nova fechar a anterior
+    private static final Map<String, Facade> ABERTAS = new HashMap<>();
+    private volatile boolean substituida;
+
+    // As escritas pegam a parte compartilhada (várias ao mesmo tempo); o checkpoint
+    // pega a parte exclusiva só pra tirar o retrato (consistente com a seq do journal).
+    private final ReentrantReadWriteLock barreiraCheckpoint = new ReentrantReadWriteLock();
+    // Um checkpoint de cada vez (e nenhum durante o zerarSistema)
+    private final ReentrantLock travaCheckpoint = new ReentrantLock();
+
+    // Checkpoint em segundo plano: a cada -Dmyfood.intervaloCheckpoint segundos (0 desliga)
+    // e quando o journal passa do limite. Uma thread só pra todas as Facades do processo.
+    private static final long INTERVALO_CHECKPOINT = Long.getLong("myfood.intervaloCheckpoint", 60);
+    private static final ScheduledExecutorService AGENDADOR = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "checkpoint");
+        t.setDaemon(true); // Não segura o processo aberto
+        return t;
+    });
+    private ScheduledFuture<?> checkpointPeriodico;
+    private final AtomicBoolean checkpointPendente = new AtomicBoolean();
+
+    // Latência, sucessos e erros de cada método daqui, mais os tamanhos dos mapas
+    private final RegistroMetricas metricas = new RegistroMetricas();
+
+    // Modo escritor único (opcional): todas as escritas vão pra uma fila e uma thread só
+    // aplica, em lote. Null no modo normal, onde cada thread escreve direto.
+    // Liga com -Dmyfood.escritorUnico=true ou new Facade(true).
+    private static final int CAPACIDADE_FILA_ESCRITAS = 16 * 1024;
+    private volatile SequenciadorDeEscritas sequenciador;
+
+    // Uma escrita que pode dar erro de validação
+    private interface Escrita<T> {
+        T executar() throws Exception;
+    }
+
     public Facade() {
+        this(Boolean.getBoolean("myfood.escritorUnico"));
+    }
+
+    public Facade(boolean escritorUnico) {
+        this(System.getProperty("myfood.dirDados", "."), escritorUnico);
+    }
+
+    public Facade(String diretorioDados) {
+        this(diretorioDados, Boolean.getBoolean("myfood.escritorUnico"));
+    }
+
+    public Facade(String diretorioDados, boolean escritorUnico) {
+        this.diretorioDados = new File(diretorioDados);
+        if (!this.diretorioDados.isDirectory() && !this.diretorioDados.mkdirs()) {
+            // Segue sem: os saves vão dar erro (e avisar), mas o sistema funciona em memória
+            System.err.println("Erro ao criar o diretorio de dados: " + diretorioDados);
+        }
+        // Antes de carregar: a anterior grava o journal pendente pra esta reaplicar
+        this.substituirAnterior();
+
         // Inicializa os "cérebros" do sistema
-        this.controladorUsuario = new ControladorUsuario();
-        this.controladorEmpresa = new ControladorEmpresa(this.controladorUsuario);
-        this.controladorProduto = new ControladorProduto(this.controladorEmpresa);
-        this.controladorPedido = new ControladorPedido(this.controladorUsuario, this.controladorEmpresa, this.controladorProduto);
+        this.controladorUsuario = new ControladorUsuario(this.diretorioDados);
+        this.controladorEmpresa = new ControladorEmpresa(this.diretorioDados, this.controladorUsuario);
+        this.controladorProduto = new ControladorProduto(this.diretorioDados, this.controladorEmpresa);
+        this.controladorPedido = new ControladorPedido(this.diretorioDados,
+                this.controladorUsuario, this.controladorEmpresa, this.controladorProduto);
+
+        // Carrega os saves e depois reaplica o que ficou no journal desde o último save
+        this.carregarDados();
+        this.recuperarJournal();
+
+        if (escritorUnico) {
+            // A thread escritora segura a barreira (parte compartilhada) uma vez por lote
+            this.sequenciador = new SequenciadorDeEscritas(CAPACIDADE_FILA_ESCRITAS, this.barreiraCheckpoint.readLock());
+        }
+        this.registrarMedidores();
+        this.agendarCheckpoint();
+    }
+
+    private void substituirAnterior() {
+        Facade anterior;
+        synchronized (ABERTAS) {
+            anterior = ABERTAS.put(this.chaveDoDiretorio(), this);
+        }
+        if (anterior != null) {
+            anterior.substituida = true;
+            anterior.liberarRecursos();
+        }
+    }
+
+    private String chaveDoDiretorio() {
+        try {
+            return this.diretorioDados.getCanonicalPath();
+        } catch (IOException e) {
+            return this.diretorioDados.getAbsolutePath();
+        }
+    }
+
+    // Para o checkpoint periódico e o escritor único e fecha o journal (e as threads deles). Depois disso a Facade
+    // continua funcionando em memória e só salva no encerrarSistema, igual a quando o journal não abre.
+    private void liberarRecursos() {
+        if (this.checkpointPeriodico != null) {
+            this.checkpointPeriodico.cancel(false);
+        }
+        SequenciadorDeEscritas s = this.sequenciador;
+        if (s != null) {
+            // Antes da barreira: o escritor precisa dela pra terminar o que está na fila
+            this.sequenciador = null;
+            s.parar();
+        }
+        this.travaCheckpoint.lock();
+        this.barreiraCheckpoint.writeLock().lock();
+        try {
+            Journal j = this.journal;
+            if (j == null) {
+                return;
+            }
+            this.journal = null;
+            this.controladorUsuario.setJournal(null);
+            this.controladorEmpresa.setJournal(null);
+            this.controladorProduto.setJournal(null);
+            this.controladorPedido.setJournal(null);
+            try {
+                j.fechar();
+            } catch (IOException e) {
+                System.err.println("Erro ao fechar journal: " + e.getMessage());
+            }
+        } finally {
+            this.barreiraCheckpoint.writeLock().unlock();
+            this.travaCheckpoint.unlock();
+        }
+    }
+
+    // A tarefa só guarda uma referência fraca: Facade esquecida sem encerrarSistema
+    // (um script de teste que não encerra, por exemplo) some no GC e a tarefa se cancela.
+    private void agendarCheckpoint() {
+        if (INTERVALO_CHECKPOINT <= 0) {
+            return;
+        }
+        WeakReference<Facade> ref = new WeakReference<>(this);
+        ScheduledFuture<?>[] tarefa = new ScheduledFuture<?>[1];
+        // A primeira execução é só daqui a um intervalo, então tarefa[0] já está preenchida
+        tarefa[0] = AGENDADOR.scheduleWithFixedDelay(() -> {
+            Facade facade = ref.get();
+            if (facade != null) {
+                facade.checkpointEmSegundoPlano();
+            } else {
+                tarefa[0].cancel(false);
+            }
+        }, INTERVALO_CHECKPOINT, INTERVALO_CHECKPOINT, TimeUnit.SECONDS);
+        this.checkpointPeriodico = tarefa[0];
+    }
+
+    // Os medidores chamam os controladores só na hora do relatório
+    private void registrarMedidores() {
+        this.metricas.registrarMedidor("usuarios", this.controladorUsuario::getQuantidadeUsuarios);
+        this.metricas.registrarMedidor("empresas", this.controladorEmpresa::getQuantidadeEmpresas);
+        this.metricas.registrarMedidor("produtos", this.controladorProduto::getQuantidadeProdutos);
+        this.metricas.registrarMedidor("pedidos", this.controladorPedido::getQuantidadePedidos);
+        this.metricas.registrarMedidor("pedidosAbertos", this.controladorPedido::getQuantidadePedidosAbertos);
+        this.metricas.registrarMedidor("pedidosArquivadosBytes", this.controladorPedido::getBytesPedidosArquivados);
+        this.metricas.registrarMedidor("journalPendente",
+                () -> {
+                    Journal journal = this.journal;
+                    return journal != null ? journal.getRegistrosDesdeCheckpoint() : 0;
+                });
+        this.metricas.registrarMedidor("cacheCardapio", () -> this.controladorProduto.getCacheCardapio().getTamanho());
+        this.metricas.registrarMedidor("cachePorDono", () -> this.controladorEmpresa.getCachePorDono().getTamanho());
+        this.metricas.registrarMedidor("cacheProdutosPedido", () -> this.controladorPedido.getCacheProdutos().getTamanho());
+        if (this.sequenciador != null) {
+            this.metricas.registrarMedidor("filaEscritas", this.sequenciador::getPendentes);
+        }
+    }
+
+    // Os quatro arquivos são independentes, então carregam em paralelo.
+    // Só os pedidos precisam dos produtos prontos pra ligar os itens no final.
+    // Save ilegível: o arquivo fica como está e a Facade não sobe (nem agora, nem no próximo start).
+    private void carregarDados() {
+        try {
+            CompletableFuture.allOf(
+                    CompletableFuture.runAsync(this.controladorUsuario::carregarDados),
+                    CompletableFuture.runAsync(this.controladorEmpresa::carregarDados),
+                    CompletableFuture.runAsync(this.controladorProduto::carregarDados),
+                    CompletableFuture.runAsync(this.controladorPedido::carregarDados)
+            ).join();
+        } catch (CompletionException e) {
+            synchronized (ABERTAS) {
+                ABERTAS.remove(this.chaveDoDiretorio(), this);
+            }
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+        this.controladorPedido.ligarProdutos();
+    }
+
+    // --- Journal ---
+
+    private void recuperarJournal() {
+        try {
+            this.journal = new Journal(new File(this.diretorioDados, ARQUIVO_JOURNAL).getPath());
+            this.journal.recuperar(this::reaplicar);
+
+            long maiorSeq = Math.max(
+                    Math.max(this.controladorUsuario.getSeqSnapshot(), this.controladorEmpresa.getSeqSnapshot()),
+                    Math.max(this.controladorProduto.getSeqSnapshot(), this.controladorPedido.getSeqSnapshot()));
+            this.journal.garantirSeqMinima(maiorSeq + 1);
+        } catch (Exception e) {
+            // Sem journal o sistema ainda funciona, só volta a salvar apenas no encerrarSistema
+            System.err.println("Erro ao abrir journal: " + e.getMessage());
+            this.journal = null;
+        }
+
+        // Só liga o journal nos controladores depois de reaplicar, senão registraria tudo de novo
+        this.controladorUsuario.setJournal(this.journal);
+        this.controladorEmpresa.setJournal(this.journal);
+        this.controladorProduto.setJournal(this.journal);
+        this.controladorPedido.setJournal(this.journal);
+    }
+
+    // Manda cada registro pro controlador dono da operação
+    private void reaplicar(RegistroJournal r) {
+        try {
+            switch (r.getOperacao()) {
+                case "criarCliente":
+                case "criarDono":
+                    this.controladorUsuario.reaplicar(r);
+                    break;
+                case "criarEmpresa":
+                    this.controladorEmpresa.reaplicar(r);
+                    break;
+                case "criarProduto":
+                case "editarProduto":
+                    this.controladorProduto.reaplicar(r);
+                    break;
+                default:
+                    this.controladorPedido.reaplicar(r);
+            }
+        } catch (Exception e) {
+            System.err.println("Erro ao reaplicar journal (seq " + r.getSeq() + "): " + e.getMessage());
+        }
+    }
+
+    // Salva e descarta o journal que já ficou coberto pelos saves. Em três passos:
+    //  1. Com as escritas paradas (barreira exclusiva): pega a seq e tira o retrato de cada
+    //     controlador. O retrato é O(1): só marca até onde vão os IDs e a versão das mudanças.
+    //  2. Com as escritas andando: cada controlador grava o estado do retrato. Quem mexe num produto
+    //     ou pedido que já estava no retrato guarda antes uma cópia dele (copy-on-write), e usuários
+    //     e empresas não mudam nem somem, então basta cortar pelo ID.
+    //  3. Trunca o journal até a seq (o que entrou depois do retrato fica nele), só se os quatro salvaram.
+    // Controlador sem mudança desde o último save não regrava o arquivo: o save velho fica com
+    // uma seq menor, mas o journal não tem nada dele depois dela, então truncar até aqui é seguro.
+    private void checkpoint() {
+        long inicio = System.nanoTime();
+        this.travaCheckpoint.lock();
+        try {
+            if (this.substituida) {
+                System.err.println("Facade substituida por outra no mesmo diretorio, nada foi salvo");
+                return;
+            }
+            Journal journal = this.journal; // Só muda com a travaCheckpoint
+            long seq;
+            this.barreiraCheckpoint.writeLock().lock();
+            try {
+                seq = journal != null ? journal.getUltimaSeq() : 0;
+                this.controladorUsuario.tirarRetrato();
+                this.controladorEmpresa.tirarRetrato();
+                this.controladorProduto.tirarRetrato();
+                this.controladorPedido.tirarRetrato();
+            } finally {
+                this.barreiraCheckpoint.writeLock().unlock();
+                this.metricas.registrar("checkpointPausa", System.nanoTime() - inicio);
+            }
+
+            // Tenta os quatro mesmo se um falhar (o que salvou já adianta o próximo boot)
+            boolean salvouTudo = this.controladorUsuario.salvarDados(seq);
+            salvouTudo &= this.controladorEmpresa.salvarDados(seq);
+            salvouTudo &= this.controladorProduto.salvarDados(seq);
+            salvouTudo &= this.controladorPedido.salvarDados(seq);
+
+            if (!salvouTudo) {
+                // O save que falhou ficou com a seq antiga: o journal ainda é o único lugar com essas mudanças
+                System.err.println("Checkpoint incompleto, journal mantido");
+            } else if (journal != null) {
+                try {
+                    journal.truncar(seq);
+                } catch (Exception e) {
+                    System.err.println("Erro ao truncar journal: " + e.getMessage());
+                }
+            }
+        } finally {
+            this.travaCheckpoint.unlock();
+            this.metricas.registrar("checkpoint", System.nanoTime() - inicio);
+        }
+    }
+
+    // Roda na thread do agendador: não tem quem receba a exceção, então só avisa
+    private void checkpointEmSegundoPlano() {
+        this.checkpointPendente.set(false);
+        try {
+            Journal journal = this.journal;
+            if (journal == null || journal.getRegistrosDesdeCheckpoint() > 0) {
+                this.checkpoint();
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Erro no checkpoint em segundo plano: " + e.getMessage());
+        }
+    }
+
+    // Roda uma escrita e, se o journal cresceu demais, pede um save novo.
+    // O save roda na thread do checkpoint, então não entra na latência da escrita.
+    // No modo escritor único a escrita vai pra fila e esta thread só espera o resultado.
+    private <T> T escrever(String operacao, Escrita<T> escrita) throws Exception {
+        return this.metricas.medir(operacao, () -> {
+            T resultado = this.aplicar(escrita);
+            this.checkpointSeNecessario();
+            return resultado;
+        });
+    }
+
+    // A escrita em si: com a barreira do checkpoint ou pela fila do escritor único
+    private <T> T aplicar(Escrita<T> escrita) throws Exception {
+        SequenciadorDeEscritas s = this.sequenciador;
+        if (s != null) {
+            return s.executar(escrita::executar);
+        }
+        this.barreiraCheckpoint.readLock().lock();
+        try {
+            return escrita.executar();
+        } finally {
+            this.barreiraCheckpoint.readLock().unlock();
+        }
+    }
+
+    // Só um pedido na fila por vez: as escritas que chegarem enquanto isso não empilham checkpoints
+    private void checkpointSeNecessario() {
+        Journal journal = this.journal;
+        if (journal != null && journal.getRegistrosDesdeCheckpoint() >= LIMITE_JOURNAL
+                && this.checkpointPendente.compareAndSet(false, true)) {
+            AGENDADOR.execute(this::checkpointEmSegundoPlano);
+        }
     }
 
     // --- Comandos do Sistema ---
 
     // Zera tudo, limpa os mapas e apaga os arquivos de save.
     public void zerarSistema() {
-        this.controladorUsuario.zerar();
-        this.controladorEmpresa.zerar();
-        this.controladorProduto.zerar();
-        this.controladorPedido.zerar();
+        long inicio = System.nanoTime();
+        this.travaCheckpoint.lock();
+        this.barreiraCheckpoint.writeLock().lock();
+        try {
+            if (this.substituida) {
+                // Os arquivos agora são da outra Facade
+                System.err.println("Facade substituida por outra no mesmo diretorio, nada foi apagado");
+                return;
+            }
+            this.controladorUsuario.zerar();
+            this.controladorEmpresa.zerar();
+            this.controladorProduto.zerar();
+            this.controladorPedido.zerar();
+
+            if (this.journal != null) {
+                try {
+                    this.journal.zerar();
+                } catch (Exception e) {
+                    System.err.println("Erro ao zerar journal: " + e.getMessage());
+                }
+            } else {
+                // Journal já fechado (depois do encerrarSistema): apaga o arquivo, senão o próximo boot reaplicaria ele
+                new File(this.diretorioDados, ARQUIVO_JOURNAL).delete();
+            }
+        } finally {
+            this.barreiraCheckpoint.writeLock().unlock();
+            this.travaCheckpoint.unlock();
+            this.metricas.registrar("zerarSistema", System.nanoTime() - inicio);
+        }
     }
 
-    // Salva o estado atual em arquivos.
+    // Salva o estado atual em arquivos (e compacta o journal), aqui mesmo na thread de quem chamou,
+    // e solta o journal e as threads. Desliga o checkpoint periódico: outra Facade pode abrir o mesmo
+    // diretório depois (os scripts de teste fazem isso), e um save atrasado desta sobrescreveria o dela.
+    // Se a Facade continuar sendo usada, ela fica só em memória até o próximo encerrarSistema.
     public void encerrarSistema() {
-        this.controladorUsuario.salvarDados();
-        this.controladorEmpresa.salvarDados();
-        this.controladorProduto.salvarDados();
-        this.controladorPedido.salvarDados();
+        this.checkpoint();
+        this.liberarRecursos();
+        synchronized (ABERTAS) {
+            ABERTAS.remove(this.chaveDoDiretorio(), this);
+        }
+    }
+
+    // Acertos/faltas dos caches das listagens, pra conferir se a leitura está vindo do cache
+    public String getEstatisticasCache() {
+        return "listarProdutos: " + this.controladorProduto.getCacheCardapio()
+                + "; getEmpresasDoUsuario: " + this.controladorEmpresa.getCachePorDono()
+                + "; getPedidos(produtos): " + this.controladorPedido.getCacheProdutos()
+                + "; usuarios: " + this.controladorUsuario.getRepositorio()
+                + "; empresas: " + this.controladorEmpresa.getRepositorio();
+    }
+
+    public String getDiretorioDados() {
+        return this.diretorioDados.getPath();
+    }
+
+    // --- Métricas ---
+
+    // Registro pra ler direto no processo (ex.: getOperacoes().get("criarPedido"))
+    public RegistroMetricas getMetricas() {
+        return this.metricas;
+    }
+
+    public String getRelatorioMetricas() {
+        return this.metricas.relatorio();
+    }
+
+    public void gravarMetricas(String arquivo) throws Exception {
+        this.metricas.gravar(arquivo);
+    }
+
+    // Serve o relatório em http://127.0.0.1:<porta>/metricas; retorna a porta (0 = qualquer livre)
+    public int servirMetricas(int porta) throws Exception {
+        return this.metricas.servir(porta);
+    }
+
+    public void pararMetricas() {
+        this.metricas.pararServidor();
     }
 
     // --- Comandos de Usuário ---
 
     // Cria um Cliente (sem CPF)
     public void criarUsuario(String nome, String email, String senha, String endereco) throws Exception {
-        this.controladorUsuario.criarCliente(nome, email, senha, endereco);
+        this.escrever("criarUsuario", () -> {
+            this.controladorUsuario.criarCliente(nome, email, senha, endereco);
+            return null;
+        });
     }
 
     // Cria um Dono (com CPF)
     public void criarUsuario(String nome, String email, String senha, String endereco, String cpf) throws Exception {
-        this.controladorUsuario.criarDono(nome, email, senha, endereco, cpf);
+        this.escrever("criarUsuario", () -> {
+            this.controladorUsuario.criarDono(nome, email, senha, endereco, cpf);
+            return null;
+        });
     }
 
     // Faz o login e retorna o ID do usuário.
     public int login(String email, String senha) throws Exception {
-        return this.controladorUsuario.login(email, senha);
+        return this.metricas.medir("login", () -> this.controladorUsuario.login(email, senha));
     }
 
     // Pega um dado específico do usuário.
     public String getAtributoUsuario(int id, String atributo) throws Exception {
-        return this.controladorUsuario.getAtributoUsuario(id, atributo);
+        return this.metricas.medir("getAtributoUsuario", () -> this.controladorUsuario.getAtributoUsuario(id, atributo));
     }
 
     // --- Comandos de Empresa ---
 
     public int criarEmpresa(String tipoEmpresa, int dono, String nome, String endereco, String tipoCozinha) throws Exception {
-        return this.controladorEmpresa.criarEmpresa(tipoEmpresa, dono, nome, endereco, tipoCozinha);
+        return this.escrever("criarEmpresa", () -> this.controladorEmpresa.criarEmpresa(tipoEmpresa, dono, nome, endereco, tipoCozinha));
     }
 
     public String getEmpresasDoUsuario(int idDono) throws Exception {
-        return this.controladorEmpresa.getEmpresasDoUsuario(idDono);
+        return this.metricas.medir("getEmpresasDoUsuario", () -> this.controladorEmpresa.getEmpresasDoUsuario(idDono));
     }
 
     public String getAtributoEmpresa(int empresa, String atributo) throws Exception {
-        return this.controladorEmpresa.getAtributoEmpresa(empresa, atributo);
+        return this.metricas.medir("getAtributoEmpresa", () -> this.controladorEmpresa.getAtributoEmpresa(empresa, atributo));
     }
 
     public int getIdEmpresa(int idDono, String nome, int indice) throws Exception {
-        return this.controladorEmpresa.getIdEmpresa(idDono, nome, indice);
+        return this.metricas.medir("getIdEmpresa", () -> this.controladorEmpresa.getIdEmpresa(idDono, nome, indice));
+    }
+
+    // Empresas por tipo de cozinha e/ou endereço (filtro vazio não filtra)
+    public String buscarEmpresas(String tipoCozinha, String endereco, int pagina, int tamanhoPagina) throws Exception {
+        return this.metricas.medir("buscarEmpresas",
+                () -> this.controladorEmpresa.buscarEmpresas(tipoCozinha, endereco, pagina, tamanhoPagina));
     }
 
     // --- Comandos de Produto ---
 
     public int criarProduto(int empresa, String nome, float valor, String categoria) throws Exception {
-        return this.controladorProduto.criarProduto(empresa, nome, valor, categoria);
+        return this.escrever("criarProduto", () -> this.controladorProduto.criarProduto(empresa, nome, valor, categoria));
     }
 
     public void editarProduto(int produto, String nome, float valor, String categoria) throws Exception {
-        this.controladorProduto.editarProduto(produto, nome, valor, categoria);
+        this.escrever("editarProduto", () -> {
+            this.controladorProduto.editarProduto(produto, nome, valor, categoria);
+            return null;
+        });
     }
 
     public String getProduto(String nome, int empresa, String atributo) throws Exception {
-        return this.controladorProduto.getProduto(nome, empresa, atributo);
+        return this.metricas.medir("getProduto", () -> this.controladorProduto.getProduto(nome, empresa, atributo));
     }
 
     public String listarProdutos(int empresa) throws Exception {
-        return this.controladorProduto.listarProdutos(empresa);
+        return this.metricas.medir("listarProdutos", () -> this.controladorProduto.listarProdutos(empresa));
+    }
+
+    // Busca em todas as empresas (filtro vazio não filtra, preço negativo não limita)
+    public String buscarProdutos(String termo, String categoria, String tipoCozinha, float precoMinimo, float precoMaximo,
+                                 String ordem, int pagina, int tamanhoPagina) throws Exception {
+        return this.metricas.medir("buscarProdutos", () -> this.controladorProduto.buscarProdutos(termo, categoria,
+                tipoCozinha, precoMinimo, precoMaximo, ordem, pagina, tamanhoPagina));
     }
 
     // --- Comandos de Pedido ---
 
     public int criarPedido(int cliente, int empresa) throws Exception {
-        return this.controladorPedido.criarPedido(cliente, empresa);
+        return this.escrever("criarPedido", () -> this.controladorPedido.criarPedido(cliente, empresa));
+    }
+
+    // Pedido já com o carrinho inteiro: produtos = "produto[:quantidade], ..." (ex.: "3:2, 7")
+    public int criarPedidoComProdutos(int cliente, int empresa, String produtos) throws Exception {
+        return this.escrever("criarPedidoComProdutos", () -> this.controladorPedido.criarPedidoComProdutos(cliente, empresa, produtos));
+    }
+
+    // Vários itens num pedido aberto, tudo ou nada
+    public void adicionarProdutos(int numero, String produtos) throws Exception {
+        this.escrever("adicionarProdutos", () -> {
+            this.controladorPedido.adicionarProdutos(numero, produtos);
+            return null;
+        });
     }
 
     public int getNumeroPedido(int cliente, int empresa, int indice) throws Exception {
-        return this.controladorPedido.getNumeroPedido(cliente, empresa, indice);
+        return this.metricas.medir("getNumeroPedido", () -> this.controladorPedido.getNumeroPedido(cliente, empresa, indice));
     }
 
     public void adicionarProduto(int numero, int produto) throws Exception {
-        this.controladorPedido.adicionarProduto(numero, produto);
+        this.escrever("adicionarProduto", () -> {
+            this.controladorPedido.adicionarProduto(numero, produto);
+            return null;
+        });
     }
 
     public String getPedidos(int pedido, String atributo) throws Exception {
-        return this.controladorPedido.getPedidos(pedido, atributo);
+        return this.metricas.medir("getPedidos", () -> this.controladorPedido.getPedidos(pedido, atributo));
     }
 
     public void fecharPedido(int numero) throws Exception {
-        this.controladorPedido.fecharPedido(numero);
+        this.escrever("fecharPedido", () -> {
+            this.controladorPedido.fecharPedido(numero);
+            return null;
+        });
     }
 
     public void removerProduto(int pedido, String produto) throws Exception {
-        this.controladorPedido.removerProduto(pedido, produto);
+        this.escrever("removerProduto", () -> {
+            this.controladorPedido.removerProduto(pedido, produto);
+            return null;
+        });
+    }
+
+    // preparando -> pronto
+    public void liberarPedido(int numero) throws Exception {
+        this.escrever("liberarPedido", () -> {
+            this.controladorPedido.liberarPedido(numero);
+            return null;
+        });
+    }
+
+    // pronto -> entregando
+    public void despacharPedido(int numero) throws Exception {
+        this.escrever("despacharPedido", () -> {
+            this.controladorPedido.despacharPedido(numero);
+            return null;
+        });
+    }
+
+    // entregando -> entregue
+    public void entregarPedido(int numero) throws Exception {
+        this.escrever("entregarPedido", () -> {
+            this.controladorPedido.entregarPedido(numero);
+            return null;
+        });
+    }
+
+    // Fila de pedidos de uma empresa num estado (ex.: todos "preparando" pra cozinha)
+    public String getPedidosPorEstado(int empresa, String estado) throws Exception {
+        return this.metricas.medir("getPedidosPorEstado", () -> this.controladorPedido.getPedidosPorEstado(empresa, estado));
+    }
+
+    // --- Importação em massa ---
+    // Arquivo .csv (com cabeçalho) ou .jsonl; colunas em ControladorXxx.COLUNAS_IMPORTACAO.
+    // Retorna o relatório (importados, erros por linha).
+
+    public String importarUsuarios(String arquivo) throws Exception {
+        return this.importar("importarUsuarios", arquivo, ControladorUsuario.COLUNAS_IMPORTACAO,
+                this.controladorUsuario::importarUsuarios);
+    }
+
+    public String importarEmpresas(String arquivo) throws Exception {
+        return this.importar("importarEmpresas", arquivo, ControladorEmpresa.COLUNAS_IMPORTACAO,
+                this.controladorEmpresa::importarEmpresas);
+    }
+
+    public String importarProdutos(String arquivo) throws Exception {
+        return this.importar("importarProdutos", arquivo, ControladorProduto.COLUNAS_IMPORTACAO,
+                this.controladorProduto::importarProdutos);
+    }
+
+    // Cada lote entra como uma escrita (barreira do checkpoint / escritor único), mas sem checar
+    // o limite do journal a cada lote: um save é O(tudo), e numa importação grande isso viraria
+    // um checkpoint a cada LIMITE_JOURNAL linhas. Pede no máximo um, no fim.
+    private String importar(String operacao, String arquivo, String[] colunas, Importador.AplicadorDeLote aplicador) throws Exception {
+        return this.metricas.medir(operacao, () -> {
+            String relatorio = Importador.importar(arquivo, colunas, lote -> this.aplicar(() -> aplicador.aplicar(lote))).toString();
+            this.checkpointSeNecessario();
+            return relatorio;
+        });
     }
 }
\ No newline at end of file
@@ -0,0 +1,189 @@
+package myfood;
+
+import myfood.erros.CodigoErro;
+import myfood.erros.ErroMyFood;
+import myfood.erros.Resultado;
+
+// Mesmas operações da Facade, mas o erro de negócio volta num Resultado (código + mensagem)
+// em vez de exceção. Feita pra quem chama em loop e erra muito (login de bot, cliente que
+// repete a chamada): o chamador olha resultado.isOk() / getCodigo() e segue.
+// Erro de programação (RuntimeException) continua sendo lançado.
+//
+// Uso: FacadeSemExcecoes f = new FacadeSemExcecoes(facade);
+//      Resultado<Integer> r = f.login(email, senha);
+//      if (r.getCodigo() == CodigoErro.LOGIN_INVALIDO) ...
+
+public class FacadeSemExcecoes {
+
+    private final Facade facade;
+
+    private interface Chamada<T> {
+        T executar() throws Exception;
+    }
+
+    private interface Acao {
+        void executar() throws Exception;
+    }
+
+    public FacadeSemExcecoes(Facade facade) {
+        this.facade = facade;
+    }
+
+    // A Facade de baixo (zerar/encerrar sistema, métricas)
+    public Facade getFacade() {
+        return this.facade;
+    }
+
+    // --- Comandos de Usuário ---
+
+    public Resultado<Void> criarUsuario(String nome, String email, String senha, String endereco) {
+        return fazer(() -> this.facade.criarUsuario(nome, email, senha, endereco));
+    }
+
+    public Resultado<Void> criarUsuario(String nome, String email, String senha, String endereco, String cpf) {
+        return fazer(() -> this.facade.criarUsuario(nome, email, senha, endereco, cpf));
+    }
+
+    public Resultado<Integer> login(String email, String senha) {
+        return tentar(() -> this.facade.login(email, senha));
+    }
+
+    public Resultado<String> getAtributoUsuario(int id, String atributo) {
+        return tentar(() -> this.facade.getAtributoUsuario(id, atributo));
+    }
+
+    // --- Comandos de Empresa ---
+
+    public Resultado<Integer> criarEmpresa(String tipoEmpresa, int dono, String nome, String endereco, String tipoCozinha) {
+        return tentar(() -> this.facade.criarEmpresa(tipoEmpresa, dono, nome, endereco, tipoCozinha));
+    }
+
+    public Resultado<String> getEmpresasDoUsuario(int idDono) {
+        return tentar(() -> this.facade.getEmpresasDoUsuario(idDono));
+    }
+
+    public Resultado<String> getAtributoEmpresa(int empresa, String atributo) {
+        return tentar(() -> this.facade.getAtributoEmpresa(empresa, atributo));
+    }
+
+    public Resultado<Integer> getIdEmpresa(int idDono, String nome, int indice) {
+        return tentar(() -> this.facade.getIdEmpresa(idDono, nome, indice));
+    }
+
+    public Resultado<String> buscarEmpresas(String tipoCozinha, String endereco, int pagina, int tamanhoPagina) {
+        return tentar(() -> this.facade.buscarEmpresas(tipoCozinha, endereco, pagina, tamanhoPagina));
+    }
+
+    // --- Comandos de Produto ---
+
+    public Resultado<Integer> criarProduto(int empresa, String nome, float valor, String categoria) {
+        return tentar(() -> this.facade.criarProduto(empresa, nome, valor, categoria));
+    }
+
+    public Resultado<Void> editarProduto(int produto, String nome, float valor, String categoria) {
+        return fazer(() -> this.facade.editarProduto(produto, nome, valor, categoria));
+    }
+
+    public Resultado<String> getProduto(String nome, int empresa, String atributo) {
+        return tentar(() -> this.facade.getProduto(nome, empresa, atributo));
+    }
+
+    public Resultado<String> listarProdutos(int empresa) {
+        return tentar(() -> this.facade.listarProdutos(empresa));
+    }
+
+    public Resultado<String> buscarProdutos(String termo, String categoria, String tipoCozinha, float precoMinimo, float precoMaximo,
+                                            String ordem, int pagina, int tamanhoPagina) {
+        return tentar(() -> this.facade.buscarProdutos(termo, categoria, tipoCozinha, precoMinimo, precoMaximo,
+                ordem, pagina, tamanhoPagina));
+    }
+
+    // --- Comandos de Pedido ---
+
+    public Resultado<Integer> criarPedido(int cliente, int empresa) {
+        return tentar(() -> this.facade.criarPedido(cliente, empresa));
+    }
+
+    public Resultado<Integer> criarPedidoComProdutos(int cliente, int empresa, String produtos) {
+        return tentar(() -> this.facade.criarPedidoComProdutos(cliente, empresa, produtos));
+    }
+
+    public Resultado<Void> adicionarProdutos(int numero, String produtos) {
+        return fazer(() -> this.facade.adicionarProdutos(numero, produtos));
+    }
+
+    public Resultado<Integer> getNumeroPedido(int cliente, int empresa, int indice) {
+        return tentar(() -> this.facade.getNumeroPedido(cliente, empresa, indice));
+    }
+
+    public Resultado<Void> adicionarProduto(int numero, int produto) {
+        return fazer(() -> this.facade.adicionarProduto(numero, produto));
+    }
+
+    public Resultado<String> getPedidos(int pedido, String atributo) {
+        return tentar(() -> this.facade.getPedidos(pedido, atributo));
+    }
+
+    public Resultado<Void> fecharPedido(int numero) {
+        return fazer(() -> this.facade.fecharPedido(numero));
+    }
+
+    public Resultado<Void> removerProduto(int pedido, String produto) {
+        return fazer(() -> this.facade.removerProduto(pedido, produto));
+    }
+
+    public Resultado<Void> liberarPedido(int numero) {
+        return fazer(() -> this.facade.liberarPedido(numero));
+    }
+
+    public Resultado<Void> despacharPedido(int numero) {
+        return fazer(() -> this.facade.despacharPedido(numero));
+    }
+
+    public Resultado<Void> entregarPedido(int numero) {
+        return fazer(() -> this.facade.entregarPedido(numero));
+    }
+
+    public Resultado<String> getPedidosPorEstado(int empresa, String estado) {
+        return tentar(() -> this.facade.getPedidosPorEstado(empresa, estado));
+    }
+
+    // --- Importação em massa ---
+
+    public Resultado<String> importarUsuarios(String arquivo) {
+        return tentar(() -> this.facade.importarUsuarios(arquivo));
+    }
+
+    public Resultado<String> importarEmpresas(String arquivo) {
+        return tentar(() -> this.facade.importarEmpresas(arquivo));
+    }
+
+    public Resultado<String> importarProdutos(String arquivo) {
+        return tentar(() -> this.facade.importarProdutos(arquivo));
+    }
+
+    // --- Helpers ---
+
+    // O catch é barato: os erros de negócio não montam stack trace (ver ErroMyFood)
+    private static <T> Resultado<T> tentar(Chamada<T> chamada) {
+        try {
+            return Resultado.ok(chamada.executar());
+        } catch (ErroMyFood e) {
+            return Resultado.erro(e);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            // Erro que não é de negócio mas é esperado (ex.: IOException lendo a importação)
+            return Resultado.erro(CodigoErro.INTERNO, e.getMessage());
+        }
+    }
+
+    // Operação sem retorno: no caso de sucesso devolve sempre o mesmo Resultado.ok()
+    private static Resultado<Void> fazer(Acao acao) {
+        Resultado<Void> r = tentar(() -> {
+            acao.executar();
+            return null;
+        });
+        return r.isOk() ? Resultado.ok() : r;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,138 @@
+package myfood.carga;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Uma linha de script na gramática do EasyAccept, já quebrada em partes:
+//   [var=]comando chave=valor chave="valor com espaco" chave=${variavel}
+//   expect <esperado> comando ...
+//   expectError "mensagem" comando ...
+// Os valores ficam como texto; o ${...} só é trocado na hora de executar.
+public class ComandoScript {
+
+    public enum Tipo { NORMAL, EXPECT, EXPECT_ERROR }
+
+    private final Tipo tipo;
+    private final String esperado;  // null se NORMAL
+    private final String variavel;  // null se não guarda o resultado
+    private final String nome;
+    private final List<String> argumentos;
+    private final int linha;
+
+    private ComandoScript(Tipo tipo, String esperado, String variavel, String nome, List<String> argumentos, int linha) {
+        this.tipo = tipo;
+        this.esperado = esperado;
+        this.variavel = variavel;
+        this.nome = nome;
+        this.argumentos = argumentos;
+        this.linha = linha;
+    }
+
+    // --- Getters ---
+    public Tipo getTipo() { return this.tipo; }
+    public String getEsperado() { return this.esperado; }
+    public String getVariavel() { return this.variavel; }
+    public String getNome() { return this.nome; }
+    public List<String> getArgumentos() { return this.argumentos; }
+    public int getLinha() { return this.linha; }
+
+    // Retorna null pra linha vazia ou comentário
+    public static ComandoScript ler(String texto, int linha) {
+        List<String> partes = quebrar(texto);
+        if (partes.isEmpty() || partes.get(0).startsWith("#")) {
+            return null;
+        }
+
+        Tipo tipo = Tipo.NORMAL;
+        String esperado = null;
+        int i = 0;
+        if (partes.get(0).equals("expect") || partes.get(0).equals("expectError")) {
+            if (partes.size() < 3) {
+                throw new IllegalArgumentException("Linha " + linha + ": expect sem comando");
+            }
+            tipo = partes.get(0).equals("expect") ? Tipo.EXPECT : Tipo.EXPECT_ERROR;
+            esperado = tirarAspas(partes.get(1));
+            i = 2;
+        }
+
+        // "id1=login" guarda o resultado na variável id1
+        String variavel = null;
+        String nome = partes.get(i);
+        int igual = nome.indexOf('=');
+        if (igual > 0) {
+            variavel = nome.substring(0, igual);
+            nome = nome.substring(igual + 1);
+        }
+
+        List<String> argumentos = new ArrayList<>();
+        for (int j = i + 1; j < partes.size(); j++) {
+            // O nome do parâmetro não importa, só a ordem (igual ao EasyAccept).
+            // Como no EasyAccept, "chave=" sem nada é null e "chave=\"\"" é string vazia.
+            String parte = partes.get(j);
+            String valor = parte.substring(parte.indexOf('=') + 1);
+            argumentos.add(valor.isEmpty() ? null : tirarAspas(valor));
+        }
+        return new ComandoScript(tipo, esperado, variavel, nome, argumentos, linha);
+    }
+
+    // Troca ${var} pelo valor guardado
+    public static String resolver(String valor, Map<String, String> variaveis) {
+        if (valor == null) {
+            return null;
+        }
+        int inicio = valor.indexOf("${");
+        if (inicio < 0) {
+            return valor;
+        }
+        StringBuilder sb = new StringBuilder();
+        int pos = 0;
+        while (inicio >= 0) {
+            int fim = valor.indexOf('}', inicio);
+            if (fim < 0) {
+                break;
+            }
+            String nome = valor.substring(inicio + 2, fim);
+            String resolvido = variaveis.get(nome);
+            if (resolvido == null) {
+                throw new IllegalStateException("Variavel nao definida: " + nome);
+            }
+            sb.append(valor, pos, inicio).append(resolvido);
+            pos = fim + 1;
+            inicio = valor.indexOf("${", pos);
+        }
+        sb.append(valor.substring(pos));
+        return sb.toString();
+    }
+
+    // Separa por espaço, respeitando aspas (as aspas continuam no pedaço)
+    private static List<String> quebrar(String texto) {
+        List<String> partes = new ArrayList<>();
+        StringBuilder atual = new StringBuilder();
+        boolean dentroDeAspas = false;
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c == '"') {
+                dentroDeAspas = !dentroDeAspas;
+            } else if (Character.isWhitespace(c) && !dentroDeAspas) {
+                if (atual.length() > 0) {
+                    partes.add(atual.toString());
+                    atual.setLength(0);
+                }
+                continue;
+            }
+            atual.append(c);
+        }
+        if (atual.length() > 0) {
+            partes.add(atual.toString());
+        }
+        return partes;
+    }
+
+    private static String tirarAspas(String valor) {
+        if (valor.length() >= 2 && valor.startsWith("\"") && valor.endsWith("\"")) {
+            return valor.substring(1, valor.length() - 1);
+        }
+        return valor;
+    }
+}
\ No newline at end of file
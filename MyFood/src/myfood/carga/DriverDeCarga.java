@@ -0,0 +1,267 @@
+package myfood.carga;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+import myfood.Facade;
+import myfood.metricas.HistogramaLatencia;
+
+// Dispara scripts na gramática do EasyAccept contra a Facade e mede cada comando.
+//
+// Uso: java myfood.carga.DriverDeCarga carga_preparacao.txt carga_sessao1.txt carga_sessao2.txt ...
+// O primeiro arquivo roda sozinho (preparação); os outros rodam ao mesmo tempo,
+// uma thread por arquivo, enxergando as variáveis da preparação.
+// No fim imprime, por comando: quantidade, erros, ops/s e latência p50/p99/p999.
+//
+// Também dá pra rodar os tests/us*.txt: expect/expectError são conferidos
+// e o que não bater conta como divergência.
+public class DriverDeCarga {
+
+    private final Facade facade;
+    // Métodos da Facade por "nome/quantidade de argumentos"
+    private final Map<String, Method> metodos = new ConcurrentHashMap<>();
+
+    public DriverDeCarga(Facade facade) {
+        this.facade = facade;
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.out.println("Uso: DriverDeCarga <preparacao.txt> [sessao1.txt sessao2.txt ...]");
+            return;
+        }
+
+        List<List<ComandoScript>> scripts = new ArrayList<>();
+        for (String arquivo : args) {
+            scripts.add(lerScript(arquivo));
+        }
+
+        DriverDeCarga driver = new DriverDeCarga(new Facade());
+
+        Map<String, String> variaveisPreparacao = new HashMap<>();
+        Fase preparacao = new Fase("preparacao");
+        preparacao.executar(() -> driver.executar(scripts.get(0), variaveisPreparacao, preparacao));
+        System.out.println(preparacao.relatorio());
+
+        if (scripts.size() > 1) {
+            Fase sessoes = driver.executarSessoes(scripts.subList(1, scripts.size()), variaveisPreparacao);
+            System.out.println(sessoes.relatorio());
+        }
+    }
+
+    public static List<ComandoScript> lerScript(String arquivo) throws IOException {
+        List<ComandoScript> comandos = new ArrayList<>();
+        List<String> linhas = Files.readAllLines(Paths.get(arquivo), StandardCharsets.UTF_8);
+        for (int i = 0; i < linhas.size(); i++) {
+            ComandoScript c = ComandoScript.ler(linhas.get(i), i + 1);
+            if (c != null) {
+                comandos.add(c);
+            }
+        }
+        return comandos;
+    }
+
+    // Uma thread por script, todas começando do mesmo mapa de variáveis (só leitura)
+    public Fase executarSessoes(List<List<ComandoScript>> sessoes, Map<String, String> variaveisBase) throws Exception {
+        Fase fase = new Fase("sessoes (" + sessoes.size() + " threads)");
+        ExecutorService executor = Executors.newFixedThreadPool(sessoes.size());
+        try {
+            fase.executar(() -> {
+                List<Future<?>> futuros = new ArrayList<>();
+                for (List<ComandoScript> sessao : sessoes) {
+                    futuros.add(executor.submit(() -> executar(sessao, new HashMap<>(variaveisBase), fase)));
+                }
+                for (Future<?> f : futuros) {
+                    try {
+                        f.get();
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+            });
+        } finally {
+            executor.shutdown();
+        }
+        return fase;
+    }
+
+    // Roda um script do começo ao fim (ou até o "quit")
+    public void executar(List<ComandoScript> comandos, Map<String, String> variaveis, Fase fase) {
+        for (ComandoScript c : comandos) {
+            if (c.getNome().equals("quit")) {
+                return;
+            }
+            Estatistica est = fase.estatistica(c.getNome());
+
+            Object[] argumentos;
+            Method metodo;
+            try {
+                metodo = metodo(c.getNome(), c.getArgumentos().size());
+                argumentos = converter(metodo, c.getArgumentos(), variaveis);
+            } catch (Exception e) {
+                // Variável que não existe (o comando que criava ela falhou) ou comando desconhecido
+                est.erros.increment();
+                continue;
+            }
+
+            Object resultado = null;
+            String erro = null;
+            long inicio = System.nanoTime();
+            try {
+                resultado = metodo.invoke(this.facade, argumentos);
+            } catch (InvocationTargetException e) {
+                erro = String.valueOf(e.getCause().getMessage());
+            } catch (IllegalAccessException e) {
+                erro = e.getMessage();
+            }
+            est.latencia.registrar(System.nanoTime() - inicio);
+
+            switch (c.getTipo()) {
+                case EXPECT:
+                    String esperado = resolverSeDer(c.getEsperado(), variaveis);
+                    if (erro != null || !esperado.equals(String.valueOf(resultado))) {
+                        est.divergencias.increment();
+                    }
+                    break;
+                case EXPECT_ERROR:
+                    if (!c.getEsperado().equals(erro)) {
+                        est.divergencias.increment();
+                    }
+                    break;
+                default:
+                    if (erro != null) {
+                        est.erros.increment();
+                    }
+            }
+
+            if (c.getVariavel() != null && erro == null) {
+                variaveis.put(c.getVariavel(), String.valueOf(resultado));
+            }
+        }
+    }
+
+    // O esperado também pode ter ${var}; se a variável não existe, compara o texto mesmo
+    private static String resolverSeDer(String valor, Map<String, String> variaveis) {
+        try {
+            return ComandoScript.resolver(valor, variaveis);
+        } catch (IllegalStateException e) {
+            return valor;
+        }
+    }
+
+    // --- Reflexão ---
+
+    private Method metodo(String nome, int quantidadeArgumentos) throws NoSuchMethodException {
+        String chave = nome + "/" + quantidadeArgumentos;
+        Method m = this.metodos.get(chave);
+        if (m == null) {
+            for (Method candidato : Facade.class.getMethods()) {
+                if (candidato.getName().equals(nome) && candidato.getParameterCount() == quantidadeArgumentos) {
+                    m = candidato;
+                    break;
+                }
+            }
+            if (m == null) {
+                throw new NoSuchMethodException(chave);
+            }
+            this.metodos.put(chave, m);
+        }
+        return m;
+    }
+
+    private static Object[] converter(Method metodo, List<String> textos, Map<String, String> variaveis) {
+        Class<?>[] tipos = metodo.getParameterTypes();
+        Object[] valores = new Object[tipos.length];
+        for (int i = 0; i < tipos.length; i++) {
+            String texto = ComandoScript.resolver(textos.get(i), variaveis);
+            if (tipos[i] == int.class) {
+                valores[i] = Integer.parseInt(texto);
+            } else if (tipos[i] == float.class) {
+                valores[i] = Float.parseFloat(texto);
+            } else if (tipos[i] == double.class) {
+                valores[i] = Double.parseDouble(texto);
+            } else if (tipos[i] == boolean.class) {
+                valores[i] = Boolean.parseBoolean(texto);
+            } else {
+                valores[i] = texto;
+            }
+        }
+        return valores;
+    }
+
+    // --- Resultados ---
+
+    // Números de um comando dentro de uma fase
+    public static class Estatistica {
+        final HistogramaLatencia latencia = new HistogramaLatencia();
+        final LongAdder erros = new LongAdder();
+        final LongAdder divergencias = new LongAdder();
+
+        public HistogramaLatencia getLatencia() { return this.latencia; }
+        public long getErros() { return this.erros.sum(); }
+        public long getDivergencias() { return this.divergencias.sum(); }
+    }
+
+    // Uma etapa da execução (preparação, sessões) com o tempo total e os números por comando
+    public static class Fase {
+        private final String nome;
+        private final Map<String, Estatistica> porComando = new ConcurrentHashMap<>();
+        private long duracaoNanos;
+
+        public Fase(String nome) {
+            this.nome = nome;
+        }
+
+        Estatistica estatistica(String comando) {
+            return this.porComando.computeIfAbsent(comando, k -> new Estatistica());
+        }
+
+        void executar(Runnable corpo) {
+            long inicio = System.nanoTime();
+            corpo.run();
+            this.duracaoNanos = System.nanoTime() - inicio;
+        }
+
+        public Map<String, Estatistica> getPorComando() {
+            return this.porComando;
+        }
+
+        public String relatorio() {
+            double segundos = Math.max(this.duracaoNanos, 1) / 1e9;
+            StringBuilder sb = new StringBuilder();
+            long total = 0;
+            long erros = 0;
+            long divergencias = 0;
+            sb.append(String.format(Locale.US, "== %s: %.2fs%n", this.nome, segundos));
+            sb.append(String.format(Locale.US, "%-20s %10s %8s %8s %12s %10s %10s %10s%n",
+                    "comando", "n", "erros", "diverg", "ops/s", "p50(us)", "p99(us)", "p999(us)"));
+            for (Map.Entry<String, Estatistica> e : new TreeMap<>(this.porComando).entrySet()) {
+                Estatistica est = e.getValue();
+                HistogramaLatencia h = est.latencia;
+                sb.append(String.format(Locale.US, "%-20s %10d %8d %8d %12.0f %10.1f %10.1f %10.1f%n",
+                        e.getKey(), h.getContagem(), est.getErros(), est.getDivergencias(), h.getContagem() / segundos,
+                        h.percentil(50) / 1000.0, h.percentil(99) / 1000.0, h.percentil(99.9) / 1000.0));
+                total += h.getContagem();
+                erros += est.getErros();
+                divergencias += est.getDivergencias();
+            }
+            sb.append(String.format(Locale.US, "%-20s %10d %8d %8d %12.0f%n", "TOTAL", total, erros, divergencias, total / segundos));
+            return sb.toString();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,94 @@
+package myfood.carga;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+import myfood.sequenciador.SequenciadorDeEscritas;
+
+// Produtores disputando com o parar() do SequenciadorDeEscritas.
+// Cada rodada solta várias threads submetendo escritas e, no meio delas, para o sequenciador.
+// Toda escrita submetida tem que ser aplicada uma vez só e o futuro dela tem que completar
+// (antes, quem enfileirava depois da última drenagem do parar() esperava pra sempre).
+//
+// Uso: java myfood.carga.EstresseDaParada [rodadas] [produtores] [escritasPorProdutor]
+// Sai com código 1 se alguma rodada falhar.
+public class EstresseDaParada {
+
+    private static final long ESPERA_MAXIMA_MS = 5_000;
+
+    public static void main(String[] args) throws Exception {
+        int rodadas = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+        int produtores = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+        int escritas = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+
+        long inicio = System.nanoTime();
+        for (int r = 0; r < rodadas; r++) {
+            String erro = rodada(produtores, escritas);
+            if (erro != null) {
+                System.out.println("FALHOU na rodada " + r + ": " + erro);
+                System.exit(1);
+            }
+        }
+        System.out.println("OK: " + rodadas + " rodadas, " + produtores + " produtores x " + escritas
+                + " escritas (" + (System.nanoTime() - inicio) / 1_000_000 + " ms)");
+    }
+
+    // null se deu tudo certo
+    private static String rodada(int produtores, int escritas) throws Exception {
+        // Fila pequena, pra também ter produtor esperando espaço quando o escritor para
+        SequenciadorDeEscritas sequenciador = new SequenciadorDeEscritas(16, new ReentrantLock());
+        AtomicInteger aplicadas = new AtomicInteger();
+        List<List<CompletableFuture<Integer>>> futuros = new ArrayList<>();
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+
+        for (int t = 0; t < produtores; t++) {
+            List<CompletableFuture<Integer>> meus = new ArrayList<>();
+            futuros.add(meus);
+            Thread th = new Thread(() -> {
+                try {
+                    largada.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < escritas; i++) {
+                    meus.add(sequenciador.submeter(aplicadas::incrementAndGet));
+                }
+            });
+            th.start();
+            threads.add(th);
+        }
+
+        largada.countDown();
+        // Para no meio das escritas (um pouco depois da largada, variando de rodada pra rodada)
+        Thread.sleep(0, (int) (Math.random() * 200_000));
+        sequenciador.parar();
+
+        for (Thread th : threads) {
+            th.join(ESPERA_MAXIMA_MS);
+            if (th.isAlive()) {
+                return "produtor preso no submeter";
+            }
+        }
+        for (List<CompletableFuture<Integer>> meus : futuros) {
+            for (CompletableFuture<Integer> f : meus) {
+                try {
+                    f.get(ESPERA_MAXIMA_MS, TimeUnit.MILLISECONDS);
+                } catch (TimeoutException e) {
+                    return "escrita enfileirada depois do parar() nunca foi aplicada";
+                }
+            }
+        }
+        int esperadas = produtores * escritas;
+        if (aplicadas.get() != esperadas) {
+            return "aplicadas " + aplicadas.get() + " de " + esperadas;
+        }
+        return null;
+    }
+}
\ No newline at end of file
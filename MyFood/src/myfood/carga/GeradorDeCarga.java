@@ -0,0 +1,209 @@
+package myfood.carga;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+// Gera scripts de carga na mesma gramática dos testes do EasyAccept (tests/us*.txt).
+//
+// Saída:
+//   <saida>_preparacao.txt   -> zerarSistema, donos, empresas e cardápios
+//   <saida>_sessao<k>.txt    -> clientes e pedidos de uma sessão
+// Cada sessão só usa os próprios clientes, então as sessões podem rodar em paralelo
+// (DriverDeCarga). As variáveis das empresas/produtos (${e3}, ${p3_10}) vêm da preparação.
+//
+// Uso: java myfood.carga.GeradorDeCarga saida=carga sessoes=8 clientesPorSessao=1000 ...
+// (qualquer campo do perfil abaixo pode ser passado como chave=valor)
+public class GeradorDeCarga {
+
+    // --- Perfil da carga (valores padrão) ---
+    int donos = 10;
+    int empresasPorDono = 2;
+    int produtosPorEmpresa = 50;
+    int sessoes = 4;
+    int clientesPorSessao = 250;
+    int pedidosPorCliente = 4;
+    int itensPorPedido = 5;          // média
+    double chanceRemover = 0.1;      // depois de cada item, chance de remover um item do pedido
+    double chanceFechar = 0.8;       // o resto fica aberto
+    double chanceEntregar = 0.3;     // dos fechados, quantos vão até "entregue"
+    int leiturasPorPedido = 2;       // getPedidos/listarProdutos no meio do pedido
+    long semente = 42;
+    String saida = "carga";
+
+    public static void main(String[] args) throws IOException {
+        GeradorDeCarga gerador = new GeradorDeCarga();
+        for (String arg : args) {
+            int igual = arg.indexOf('=');
+            if (igual < 0) {
+                throw new IllegalArgumentException("Argumento deve ser chave=valor: " + arg);
+            }
+            gerador.configurar(arg.substring(0, igual), arg.substring(igual + 1));
+        }
+        List<String> arquivos = gerador.gerar();
+        System.out.println("Gerados: " + arquivos);
+    }
+
+    public void configurar(String chave, String valor) {
+        switch (chave) {
+            case "donos": this.donos = Integer.parseInt(valor); break;
+            case "empresasPorDono": this.empresasPorDono = Integer.parseInt(valor); break;
+            case "produtosPorEmpresa": this.produtosPorEmpresa = Integer.parseInt(valor); break;
+            case "sessoes": this.sessoes = Integer.parseInt(valor); break;
+            case "clientesPorSessao": this.clientesPorSessao = Integer.parseInt(valor); break;
+            case "pedidosPorCliente": this.pedidosPorCliente = Integer.parseInt(valor); break;
+            case "itensPorPedido": this.itensPorPedido = Integer.parseInt(valor); break;
+            case "chanceRemover": this.chanceRemover = Double.parseDouble(valor); break;
+            case "chanceFechar": this.chanceFechar = Double.parseDouble(valor); break;
+            case "chanceEntregar": this.chanceEntregar = Double.parseDouble(valor); break;
+            case "leiturasPorPedido": this.leiturasPorPedido = Integer.parseInt(valor); break;
+            case "semente": this.semente = Long.parseLong(valor); break;
+            case "saida": this.saida = valor; break;
+            default: throw new IllegalArgumentException("Parametro desconhecido: " + chave);
+        }
+    }
+
+    // Escreve os arquivos e retorna os nomes (preparação primeiro)
+    public List<String> gerar() throws IOException {
+        List<String> arquivos = new ArrayList<>();
+        Random aleatorio = new Random(this.semente);
+
+        String preparacao = this.saida + "_preparacao.txt";
+        try (PrintWriter out = abrir(preparacao)) {
+            gerarPreparacao(out, aleatorio);
+        }
+        arquivos.add(preparacao);
+
+        for (int k = 1; k <= this.sessoes; k++) {
+            String sessao = this.saida + "_sessao" + k + ".txt";
+            try (PrintWriter out = abrir(sessao)) {
+                gerarSessao(out, k, new Random(this.semente * 31 + k));
+            }
+            arquivos.add(sessao);
+        }
+        return arquivos;
+    }
+
+    // --- Preparação: donos, empresas e cardápios ---
+
+    private void gerarPreparacao(PrintWriter out, Random aleatorio) {
+        out.println("# Carga gerada: preparacao (" + this.donos + " donos, " + quantidadeEmpresas() + " empresas, "
+                + this.produtosPorEmpresa + " produtos por empresa)");
+        out.println("zerarSistema");
+        out.println();
+
+        int e = 0;
+        for (int d = 0; d < this.donos; d++) {
+            String email = "dono" + d + "@carga.com";
+            out.println("criarUsuario nome=\"Dono " + d + "\" email=\"" + email + "\" senha=\"123\" endereco=\"Rua " + d
+                    + "\" cpf=\"123.456.789-00\"");
+            out.println("d" + d + "=login email=\"" + email + "\" senha=\"123\"");
+
+            for (int j = 0; j < this.empresasPorDono; j++, e++) {
+                out.println("e" + e + "=criarEmpresa tipoEmpresa=\"restaurante\" dono=${d" + d + "} nome=\"Restaurante " + e
+                        + "\" endereco=\"Rua " + d + "\" tipoCozinha=\"cozinha" + (e % 8) + "\"");
+                for (int m = 0; m < this.produtosPorEmpresa; m++) {
+                    String valor = String.format(Locale.US, "%.2f", 1 + aleatorio.nextInt(5000) / 100.0);
+                    out.println(variavelProduto(e, m) + "=criarProduto empresa=${e" + e + "} nome=\"" + nomeProduto(m)
+                            + "\" valor=" + valor + " categoria=\"categoria" + (m % 6) + "\"");
+                }
+            }
+            out.println();
+        }
+    }
+
+    // --- Sessão: clientes e pedidos ---
+
+    private void gerarSessao(PrintWriter out, int k, Random aleatorio) {
+        out.println("# Carga gerada: sessao " + k + " (" + this.clientesPorSessao + " clientes)");
+
+        for (int i = 0; i < this.clientesPorSessao; i++) {
+            String email = "cliente" + k + "_" + i + "@carga.com";
+            out.println("criarUsuario nome=\"Cliente " + k + "-" + i + "\" email=\"" + email + "\" senha=\"123\" endereco=\"Rua " + i + "\"");
+            out.println("c" + i + "=login email=\"" + email + "\" senha=\"123\"");
+        }
+        out.println();
+
+        // (cliente, empresa) com pedido aberto: não pode abrir outro
+        Set<Long> abertos = new HashSet<>();
+        int empresas = quantidadeEmpresas();
+        int totalPedidos = this.clientesPorSessao * this.pedidosPorCliente;
+
+        for (int n = 0; n < totalPedidos; n++) {
+            int cliente = aleatorio.nextInt(this.clientesPorSessao);
+            int empresa = aleatorio.nextInt(empresas);
+            long chave = ((long) cliente << 32) | empresa;
+            if (!abertos.add(chave)) {
+                continue; // Já tem pedido aberto ali, sorteia o próximo
+            }
+
+            String pedido = "${n" + n + "}";
+            out.println("n" + n + "=criarPedido cliente=${c" + cliente + "} empresa=${e" + empresa + "}");
+
+            // Itens: quantidade sorteada em volta da média; às vezes remove um
+            Map<Integer, Integer> itens = new HashMap<>();
+            int quantidadeItens = 1 + aleatorio.nextInt(Math.max(1, 2 * this.itensPorPedido - 1));
+            for (int j = 0; j < quantidadeItens; j++) {
+                int m = aleatorio.nextInt(this.produtosPorEmpresa);
+                out.println("adicionarProduto numero=" + pedido + " produto=${" + variavelProduto(empresa, m) + "}");
+                itens.merge(m, 1, Integer::sum);
+
+                if (aleatorio.nextDouble() < this.chanceRemover) {
+                    int r = new ArrayList<>(itens.keySet()).get(aleatorio.nextInt(itens.size()));
+                    out.println("removerProduto pedido=" + pedido + " produto=\"" + nomeProduto(r) + "\"");
+                    if (itens.merge(r, -1, Integer::sum) == 0) {
+                        itens.remove(r);
+                    }
+                }
+            }
+
+            for (int l = 0; l < this.leiturasPorPedido; l++) {
+                if (aleatorio.nextBoolean()) {
+                    out.println("getPedidos pedido=" + pedido + " atributo=\"valor\"");
+                } else {
+                    out.println("listarProdutos empresa=${e" + empresa + "}");
+                }
+            }
+
+            if (aleatorio.nextDouble() < this.chanceFechar) {
+                out.println("fecharPedido numero=" + pedido);
+                abertos.remove(chave);
+                if (aleatorio.nextDouble() < this.chanceEntregar) {
+                    out.println("liberarPedido numero=" + pedido);
+                    out.println("despacharPedido numero=" + pedido);
+                    out.println("entregarPedido numero=" + pedido);
+                }
+            }
+        }
+    }
+
+    // --- Helpers ---
+
+    private int quantidadeEmpresas() {
+        return this.donos * this.empresasPorDono;
+    }
+
+    private static String variavelProduto(int empresa, int m) {
+        return "p" + empresa + "_" + m;
+    }
+
+    private static String nomeProduto(int m) {
+        return "Prato " + m;
+    }
+
+    private static PrintWriter abrir(String arquivo) throws IOException {
+        BufferedWriter w = Files.newBufferedWriter(Paths.get(arquivo), StandardCharsets.UTF_8);
+        return new PrintWriter(w);
+    }
+}
\ No newline at end of file
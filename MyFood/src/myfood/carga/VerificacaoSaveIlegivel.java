@@ -0,0 +1,87 @@
+package myfood.carga;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+import myfood.Facade;
+
+// Sobe o sistema duas vezes por cima de um save corrompido.
+// As duas vezes têm que recusar (IllegalStateException) sem mexer no arquivo nem criar outro
+// do lado; antes, a primeira tirava o arquivo do caminho e a segunda subia com as empresas vazias.
+// Depois de restaurar o arquivo original, o sistema sobe com tudo de volta.
+//
+// Uso: java myfood.carga.VerificacaoSaveIlegivel
+// Sai com código 1 se alguma etapa falhar.
+public class VerificacaoSaveIlegivel {
+
+    public static void main(String[] args) throws Exception {
+        Path diretorio = Files.createTempDirectory("myfood_save_ilegivel_");
+        try {
+            String erro = verificar(diretorio);
+            if (erro != null) {
+                System.out.println("FALHOU: " + erro);
+                System.exit(1);
+            }
+            System.out.println("OK: save ilegivel recusado duas vezes, sem alterar o arquivo");
+        } finally {
+            try (Stream<Path> arquivos = Files.list(diretorio)) {
+                for (Path p : (Iterable<Path>) arquivos::iterator) {
+                    Files.deleteIfExists(p);
+                }
+            }
+            Files.deleteIfExists(diretorio);
+        }
+    }
+
+    // null se deu tudo certo
+    private static String verificar(Path diretorio) throws Exception {
+        Facade facade = new Facade(diretorio.toString());
+        facade.zerarSistema();
+        facade.criarUsuario("Roberto", "roberto@ufal.com.br", "123senha", "Rua Exemplo N 321", "544.732.410-68");
+        int dono = facade.login("roberto@ufal.com.br", "123senha");
+        facade.criarEmpresa("restaurante", dono, "Sorveteria do Roberto", "Rua Segura N 987", "brasileira");
+        facade.encerrarSistema();
+
+        Path save = diretorio.resolve("empresas_data.dat");
+        byte[] original = Files.readAllBytes(save);
+        byte[] corrompido = Arrays.copyOf(original, original.length / 2); // Cortado no meio
+        Files.write(save, corrompido);
+        String[] antes = listar(diretorio);
+
+        for (int tentativa = 1; tentativa <= 2; tentativa++) {
+            try {
+                new Facade(diretorio.toString());
+                return "a tentativa " + tentativa + " subiu por cima do save corrompido";
+            } catch (IllegalStateException e) {
+                System.out.println("Tentativa " + tentativa + " recusada: " + e.getMessage());
+            }
+            if (!Arrays.equals(Files.readAllBytes(save), corrompido)) {
+                return "a tentativa " + tentativa + " alterou o save corrompido";
+            }
+            if (!Arrays.equals(listar(diretorio), antes)) {
+                return "a tentativa " + tentativa + " mexeu nos arquivos do diretorio: " + Arrays.toString(listar(diretorio));
+            }
+        }
+
+        // Restaurado o arquivo, volta tudo
+        Files.write(save, original);
+        facade = new Facade(diretorio.toString());
+        try {
+            String empresas = facade.getEmpresasDoUsuario(facade.login("roberto@ufal.com.br", "123senha"));
+            if (!empresas.equals("{[[Sorveteria do Roberto, Rua Segura N 987]]}")) {
+                return "depois de restaurar o save: " + empresas;
+            }
+        } finally {
+            facade.encerrarSistema();
+        }
+        return null;
+    }
+
+    private static String[] listar(Path diretorio) throws Exception {
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            return arquivos.map(p -> p.getFileName().toString()).sorted().toArray(String[]::new);
+        }
+    }
+}
\ No newline at end of file
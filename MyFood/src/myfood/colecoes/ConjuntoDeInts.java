@@ -0,0 +1,136 @@
+package myfood.colecoes;
+
+import java.util.Arrays;
+import java.util.List;
+
+// Conjunto de int guardado como array ordenado (lista de ocorrências de um índice invertido).
+// Como os IDs novos são sempre maiores, o caso comum (add no fim) é O(1);
+// inserir/remover no meio desloca o array, mas só acontece quando algo é editado.
+// Não é thread-safe: quem usa protege com a própria trava.
+public class ConjuntoDeInts {
+
+    private static final int[] VAZIO = new int[0];
+
+    private int[] valores;
+    private int tamanho;
+
+    public ConjuntoDeInts() {
+        this.valores = new int[4];
+    }
+
+    private ConjuntoDeInts(int[] ordenados, int tamanho) {
+        this.valores = ordenados;
+        this.tamanho = tamanho;
+    }
+
+    public boolean add(int valor) {
+        if (this.tamanho == 0 || valor > this.valores[this.tamanho - 1]) {
+            garantirEspaco();
+            this.valores[this.tamanho++] = valor;
+            return true;
+        }
+        int pos = Arrays.binarySearch(this.valores, 0, this.tamanho, valor);
+        if (pos >= 0) {
+            return false;
+        }
+        int insercao = -pos - 1;
+        garantirEspaco();
+        System.arraycopy(this.valores, insercao, this.valores, insercao + 1, this.tamanho - insercao);
+        this.valores[insercao] = valor;
+        this.tamanho++;
+        return true;
+    }
+
+    public boolean remove(int valor) {
+        int pos = Arrays.binarySearch(this.valores, 0, this.tamanho, valor);
+        if (pos < 0) {
+            return false;
+        }
+        System.arraycopy(this.valores, pos + 1, this.valores, pos, this.tamanho - pos - 1);
+        this.tamanho--;
+        return true;
+    }
+
+    public boolean contem(int valor) {
+        return Arrays.binarySearch(this.valores, 0, this.tamanho, valor) >= 0;
+    }
+
+    public int get(int indice) {
+        return this.valores[indice];
+    }
+
+    public int size() {
+        return this.tamanho;
+    }
+
+    public boolean isEmpty() {
+        return this.tamanho == 0;
+    }
+
+    public int[] toArray() {
+        return this.tamanho == 0 ? VAZIO : Arrays.copyOf(this.valores, this.tamanho);
+    }
+
+    private void garantirEspaco() {
+        if (this.tamanho == this.valores.length) {
+            this.valores = Arrays.copyOf(this.valores, Math.max(4, this.tamanho * 2));
+        }
+    }
+
+    // --- Operações entre conjuntos ---
+
+    // Interseção de todos (começa pelo menor e confere nos outros com busca binária)
+    public static ConjuntoDeInts intersecao(List<ConjuntoDeInts> conjuntos) {
+        if (conjuntos.isEmpty()) {
+            return new ConjuntoDeInts();
+        }
+        ConjuntoDeInts menor = conjuntos.get(0);
+        for (ConjuntoDeInts c : conjuntos) {
+            if (c.tamanho < menor.tamanho) {
+                menor = c;
+            }
+        }
+        int[] resultado = new int[menor.tamanho];
+        int n = 0;
+        for (int i = 0; i < menor.tamanho; i++) {
+            int v = menor.valores[i];
+            boolean emTodos = true;
+            for (ConjuntoDeInts c : conjuntos) {
+                if (c != menor && !c.contem(v)) {
+                    emTodos = false;
+                    break;
+                }
+            }
+            if (emTodos) {
+                resultado[n++] = v;
+            }
+        }
+        return new ConjuntoDeInts(resultado, n);
+    }
+
+    // União de todos, já ordenada e sem repetidos
+    public static ConjuntoDeInts uniao(List<ConjuntoDeInts> conjuntos) {
+        if (conjuntos.size() == 1) {
+            ConjuntoDeInts unico = conjuntos.get(0);
+            return new ConjuntoDeInts(unico.toArray(), unico.tamanho);
+        }
+        int total = 0;
+        for (ConjuntoDeInts c : conjuntos) {
+            total += c.tamanho;
+        }
+        int[] todos = new int[total];
+        int pos = 0;
+        for (ConjuntoDeInts c : conjuntos) {
+            System.arraycopy(c.valores, 0, todos, pos, c.tamanho);
+            pos += c.tamanho;
+        }
+        Arrays.sort(todos);
+        int n = 0;
+        for (int i = 0; i < total; i++) {
+            if (n == 0 || todos[i] != todos[n - 1]) {
+                todos[n++] = todos[i];
+            }
+        }
+        return new ConjuntoDeInts(todos, n);
+    }
+}
\ No newline at end of file
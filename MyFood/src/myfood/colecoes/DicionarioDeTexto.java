@@ -0,0 +1,60 @@
+package myfood.colecoes;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Tabela de símbolos: cada texto diferente ganha um código (0, 1, 2...) e fica guardado uma vez só.
+// Serve pros atributos que se repetem muito (categoria, tipo de cozinha, endereço):
+// o modelo guarda o int e só vira String de novo quando alguém pede.
+//
+// Códigos nunca são reaproveitados nem apagados, então um código lido uma vez vale pra sempre.
+// null é o código -1.
+public class DicionarioDeTexto {
+
+    private final ConcurrentHashMap<String, Integer> codigos = new ConcurrentHashMap<>();
+    private volatile String[] textos = new String[16];
+    private int tamanho; // Só muda dentro do synchronized
+
+    // Código do texto (cria um se for a primeira vez que aparece)
+    public int codigo(String texto) {
+        if (texto == null) {
+            return -1;
+        }
+        Integer c = this.codigos.get(texto);
+        return c != null ? c : adicionar(texto);
+    }
+
+    // Código do texto sem criar nada: -1 se o texto nunca apareceu (usado nas buscas)
+    public int procurar(String texto) {
+        if (texto == null) {
+            return -1;
+        }
+        Integer c = this.codigos.get(texto);
+        return c != null ? c : -1;
+    }
+
+    public String texto(int codigo) {
+        return codigo < 0 ? null : this.textos[codigo];
+    }
+
+    public int getTamanho() {
+        return this.codigos.size();
+    }
+
+    // O texto entra no array antes de aparecer no mapa, então quem achou o código no mapa já acha o texto
+    private synchronized int adicionar(String texto) {
+        Integer c = this.codigos.get(texto);
+        if (c != null) {
+            return c; // Outra thread adicionou enquanto esta esperava
+        }
+        String[] atual = this.textos;
+        if (this.tamanho == atual.length) {
+            atual = Arrays.copyOf(atual, atual.length * 2);
+        }
+        int codigo = this.tamanho++;
+        atual[codigo] = texto;
+        this.textos = atual;
+        this.codigos.put(texto, codigo);
+        return codigo;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,45 @@
+package myfood.colecoes;
+
+import java.util.Arrays;
+
+// Lista de int que cresce sozinha (sem Integer por elemento).
+// Não é thread-safe: quem usa protege com a própria trava.
+public class ListaDeInts {
+
+    private int[] valores;
+    private int tamanho;
+
+    public ListaDeInts() {
+        this(4);
+    }
+
+    public ListaDeInts(int capacidade) {
+        this.valores = new int[Math.max(1, capacidade)];
+    }
+
+    public void add(int valor) {
+        if (this.tamanho == this.valores.length) {
+            this.valores = Arrays.copyOf(this.valores, this.tamanho * 2);
+        }
+        this.valores[this.tamanho++] = valor;
+    }
+
+    public int get(int indice) {
+        if (indice < 0 || indice >= this.tamanho) {
+            throw new IndexOutOfBoundsException("Indice " + indice + ", tamanho " + this.tamanho);
+        }
+        return this.valores[indice];
+    }
+
+    public int size() {
+        return this.tamanho;
+    }
+
+    public boolean isEmpty() {
+        return this.tamanho == 0;
+    }
+
+    public int[] toArray() {
+        return Arrays.copyOf(this.valores, this.tamanho);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,147 @@
+package myfood.colecoes;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+// Mapa int -> objeto pra IDs que crescem de 1 em 1 (proximoId/proximoNumero).
+// Em vez de um HashMap<Integer, T> (nó + Integer por entrada), os valores ficam
+// direto em blocos de 4096 posições: o ID já é o endereço.
+//
+// Leitura não trava: o diretório de blocos é volátil e cada bloco é um AtomicReferenceArray.
+// Escritas em IDs diferentes também não se atrapalham; só criar bloco novo é sincronizado.
+// IDs <= 0 nunca existem (get retorna null, put lança erro).
+public class TabelaPorId<T> {
+
+    private static final int BITS_BLOCO = 12;
+    private static final int TAMANHO_BLOCO = 1 << BITS_BLOCO;
+    private static final int MASCARA = TAMANHO_BLOCO - 1;
+
+    private volatile AtomicReferenceArray<T>[] blocos = novoDiretorio(0);
+    private final AtomicInteger tamanho = new AtomicInteger();
+
+    // --- Leitura ---
+
+    public T get(int id) {
+        AtomicReferenceArray<T> bloco = blocoSeExiste(id);
+        return bloco == null ? null : bloco.get(id & MASCARA);
+    }
+
+    public boolean contem(int id) {
+        return get(id) != null;
+    }
+
+    public int size() {
+        return this.tamanho.get();
+    }
+
+    // Visita os valores em ordem de ID
+    public void paraCada(Consumer<T> acao) {
+        for (AtomicReferenceArray<T> bloco : this.blocos) {
+            if (bloco == null) {
+                continue;
+            }
+            for (int i = 0; i < TAMANHO_BLOCO; i++) {
+                T v = bloco.get(i);
+                if (v != null) {
+                    acao.accept(v);
+                }
+            }
+        }
+    }
+
+    // Cópia dos valores em ordem de ID (pro save)
+    public List<T> valores() {
+        List<T> lista = new ArrayList<>(size());
+        paraCada(lista::add);
+        return lista;
+    }
+
+    // --- Escrita ---
+
+    // Retorna o valor anterior (ou null)
+    public T put(int id, T valor) {
+        T anterior = blocoParaEscrever(id).getAndSet(id & MASCARA, valor);
+        if (anterior == null) {
+            this.tamanho.incrementAndGet();
+        }
+        return anterior;
+    }
+
+    // Só grava se a posição estiver vazia; retorna o que já estava lá (ou null se gravou)
+    public T putIfAbsent(int id, T valor) {
+        AtomicReferenceArray<T> bloco = blocoParaEscrever(id);
+        int i = id & MASCARA;
+        if (bloco.compareAndSet(i, null, valor)) {
+            this.tamanho.incrementAndGet();
+            return null;
+        }
+        return bloco.get(i);
+    }
+
+    // Igual ao do Map, mas "criar" pode rodar e ser descartado se outra thread ganhar a corrida
+    public T computeIfAbsent(int id, IntFunction<T> criar) {
+        T atual = get(id);
+        if (atual != null) {
+            return atual;
+        }
+        T novo = criar.apply(id);
+        T outro = putIfAbsent(id, novo);
+        return outro != null ? outro : novo;
+    }
+
+    public T remove(int id) {
+        AtomicReferenceArray<T> bloco = blocoSeExiste(id);
+        if (bloco == null) {
+            return null;
+        }
+        T anterior = bloco.getAndSet(id & MASCARA, null);
+        if (anterior != null) {
+            this.tamanho.decrementAndGet();
+        }
+        return anterior;
+    }
+
+    // --- Blocos ---
+
+    private AtomicReferenceArray<T> blocoSeExiste(int id) {
+        if (id <= 0) {
+            return null;
+        }
+        AtomicReferenceArray<T>[] diretorio = this.blocos;
+        int b = id >>> BITS_BLOCO;
+        return b < diretorio.length ? diretorio[b] : null;
+    }
+
+    private AtomicReferenceArray<T> blocoParaEscrever(int id) {
+        if (id <= 0) {
+            throw new IllegalArgumentException("ID invalido: " + id);
+        }
+        AtomicReferenceArray<T> bloco = blocoSeExiste(id);
+        return bloco != null ? bloco : criarBloco(id >>> BITS_BLOCO);
+    }
+
+    // Cria o bloco e publica uma cópia do diretório com ele (dobra o diretório se não couber).
+    // Copiar é barato: só acontece a cada 4096 IDs.
+    private synchronized AtomicReferenceArray<T> criarBloco(int b) {
+        AtomicReferenceArray<T>[] diretorio = this.blocos;
+        if (b < diretorio.length && diretorio[b] != null) {
+            return diretorio[b]; // Outra thread criou enquanto esta esperava
+        }
+        int tamanho = b < diretorio.length ? diretorio.length : Math.max(b + 1, diretorio.length * 2);
+        AtomicReferenceArray<T>[] novo = novoDiretorio(tamanho);
+        System.arraycopy(diretorio, 0, novo, 0, diretorio.length);
+        AtomicReferenceArray<T> bloco = new AtomicReferenceArray<>(TAMANHO_BLOCO);
+        novo[b] = bloco;
+        this.blocos = novo;
+        return bloco;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <T> AtomicReferenceArray<T>[] novoDiretorio(int tamanho) {
+        return (AtomicReferenceArray<T>[]) new AtomicReferenceArray[tamanho];
+    }
+}
\ No newline at end of file
@@ -0,0 +1,249 @@
+package myfood.controllers;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import myfood.models.EstadoPedido;
+
+// Pedidos fechados, fora da heap.
+// Depois do fecharPedido os itens e o total não mudam mais (só o estado anda pra frente),
+// então o pedido sai do pedidosPorNumero e vira um registro compacto aqui dentro:
+//   [cliente int][empresa int][estado byte][total long][n int][(produto int, quantidade int) x n]
+// Os registros só são acrescentados, em segmentos de 64 MB mapeados de um arquivo temporário
+// (a memória é do sistema operacional, que pode mandar pro disco o que ninguém lê).
+// O único byte que muda depois de gravado é o estado.
+//
+// O arquivo é só um "depósito": o save continua sendo o pedidos_data.dat, e o arquivo
+// é montado de novo a cada carregamento (por isso é temporário e apagado logo depois de aberto).
+// Se não der pra criar o arquivo, os segmentos ficam em arrays na heap: menos vantagem,
+// mas ainda bem menor que o Pedido com mapa de itens.
+class ArquivoDePedidosFechados {
+
+    private static final int TAMANHO_SEGMENTO = 64 << 20;
+    private static final int TAMANHO_SEGMENTO_HEAP = 1 << 20;
+
+    // Posição de cada campo dentro do registro
+    private static final int CLIENTE = 0;
+    private static final int EMPRESA = 4;
+    private static final int ESTADO = 8;
+    private static final int TOTAL = 9;
+    private static final int QUANTIDADE_ITENS = 17;
+    private static final int ITENS = 21;
+
+    private final ReentrantReadWriteLock trava = new ReentrantReadWriteLock();
+
+    private final List<ByteBuffer> segmentos = new ArrayList<>();
+    private int ocupadoNoUltimo;
+    private FileChannel canal;     // Aberto no primeiro pedido arquivado
+    private boolean semArquivo;    // Não deu pra abrir: segmentos na heap
+    private long tamanhoDoArquivo;
+
+    // Número do pedido -> ((segmento + 1) << 32 | posição no segmento); 0 = não está aqui
+    private long[] posicoes = new long[1024];
+    private int quantidade;
+    private long bytesOcupados;
+
+    // --- Escrita ---
+
+    // itens: pares (ID do produto, quantidade), na ordem do pedido
+    void arquivar(int numero, int cliente, int empresa, EstadoPedido estado, long totalCentavos, int[] itens) {
+        int tamanho = ITENS + itens.length * 4;
+        this.trava.writeLock().lock();
+        try {
+            if (this.segmentos.isEmpty() || this.ocupadoNoUltimo + tamanho > this.segmentos.get(this.segmentos.size() - 1).capacity()) {
+                this.segmentos.add(novoSegmento(tamanho));
+                this.ocupadoNoUltimo = 0;
+            }
+            ByteBuffer seg = this.segmentos.get(this.segmentos.size() - 1);
+            int pos = this.ocupadoNoUltimo;
+            seg.putInt(pos + CLIENTE, cliente);
+            seg.putInt(pos + EMPRESA, empresa);
+            seg.put(pos + ESTADO, (byte) estado.ordinal());
+            seg.putLong(pos + TOTAL, totalCentavos);
+            seg.putInt(pos + QUANTIDADE_ITENS, itens.length / 2);
+            for (int i = 0; i < itens.length; i++) {
+                seg.putInt(pos + ITENS + i * 4, itens[i]);
+            }
+            this.ocupadoNoUltimo += tamanho;
+
+            if (numero >= this.posicoes.length) {
+                this.posicoes = Arrays.copyOf(this.posicoes, Math.max(numero + 1, this.posicoes.length * 2));
+            }
+            if (this.posicoes[numero] == 0) {
+                this.quantidade++;
+            }
+            this.posicoes[numero] = ((long) this.segmentos.size() << 32) | pos;
+            this.bytesOcupados += tamanho;
+        } finally {
+            this.trava.writeLock().unlock();
+        }
+    }
+
+    // O estado é fixo no registro (1 byte), então dá pra trocar no lugar
+    void setEstado(int numero, EstadoPedido estado) {
+        this.trava.writeLock().lock();
+        try {
+            long p = posicao(numero);
+            segmento(p).put(offset(p) + ESTADO, (byte) estado.ordinal());
+        } finally {
+            this.trava.writeLock().unlock();
+        }
+    }
+
+    // Solta o arquivo (os segmentos já mapeados continuam valendo até o GC levar)
+    void fechar() {
+        this.trava.writeLock().lock();
+        try {
+            if (this.canal != null) {
+                this.canal.close();
+                this.canal = null;
+            }
+        } catch (IOException e) {
+            System.err.println("Erro ao fechar o arquivo de pedidos: " + e.getMessage());
+        } finally {
+            this.trava.writeLock().unlock();
+        }
+    }
+
+    // --- Leitura ---
+
+    boolean contem(int numero) {
+        this.trava.readLock().lock();
+        try {
+            return posicao(numero) != 0;
+        } finally {
+            this.trava.readLock().unlock();
+        }
+    }
+
+    // -1 se o pedido não está aqui
+    int getCliente(int numero) {
+        return lerInt(numero, CLIENTE);
+    }
+
+    int getEmpresa(int numero) {
+        return lerInt(numero, EMPRESA);
+    }
+
+    EstadoPedido getEstado(int numero) {
+        this.trava.readLock().lock();
+        try {
+            long p = posicao(numero);
+            return p == 0 ? null : EstadoPedido.porCodigo(segmento(p).get(offset(p) + ESTADO));
+        } finally {
+            this.trava.readLock().unlock();
+        }
+    }
+
+    long getTotalCentavos(int numero) {
+        this.trava.readLock().lock();
+        try {
+            long p = posicao(numero);
+            return p == 0 ? 0 : segmento(p).getLong(offset(p) + TOTAL);
+        } finally {
+            this.trava.readLock().unlock();
+        }
+    }
+
+    // Pares (ID do produto, quantidade)
+    int[] getItens(int numero) {
+        this.trava.readLock().lock();
+        try {
+            long p = posicao(numero);
+            if (p == 0) {
+                return new int[0];
+            }
+            ByteBuffer seg = segmento(p);
+            int pos = offset(p);
+            int[] itens = new int[seg.getInt(pos + QUANTIDADE_ITENS) * 2];
+            for (int i = 0; i < itens.length; i++) {
+                itens[i] = seg.getInt(pos + ITENS + i * 4);
+            }
+            return itens;
+        } finally {
+            this.trava.readLock().unlock();
+        }
+    }
+
+    int size() {
+        this.trava.readLock().lock();
+        try {
+            return this.quantidade;
+        } finally {
+            this.trava.readLock().unlock();
+        }
+    }
+
+    long getBytesOcupados() {
+        this.trava.readLock().lock();
+        try {
+            return this.bytesOcupados;
+        } finally {
+            this.trava.readLock().unlock();
+        }
+    }
+
+    // --- Helpers ---
+
+    private int lerInt(int numero, int campo) {
+        this.trava.readLock().lock();
+        try {
+            long p = posicao(numero);
+            return p == 0 ? -1 : segmento(p).getInt(offset(p) + campo);
+        } finally {
+            this.trava.readLock().unlock();
+        }
+    }
+
+    // posicao/segmento: chamar com a trava
+    private long posicao(int numero) {
+        return numero > 0 && numero < this.posicoes.length ? this.posicoes[numero] : 0;
+    }
+
+    private ByteBuffer segmento(long posicao) {
+        return this.segmentos.get((int) (posicao >>> 32) - 1);
+    }
+
+    private static int offset(long posicao) {
+        return (int) posicao;
+    }
+
+    // Um registro nunca fica dividido entre dois segmentos (um pedido gigante ganha um segmento do tamanho dele)
+    private ByteBuffer novoSegmento(int minimo) {
+        if (!this.semArquivo) {
+            try {
+                if (this.canal == null) {
+                    this.canal = abrirArquivoTemporario();
+                }
+                int tamanho = Math.max(TAMANHO_SEGMENTO, minimo);
+                ByteBuffer seg = this.canal.map(FileChannel.MapMode.READ_WRITE, this.tamanhoDoArquivo, tamanho);
+                this.tamanhoDoArquivo += tamanho;
+                return seg;
+            } catch (IOException e) {
+                System.err.println("Erro ao mapear o arquivo de pedidos, usando a heap: " + e.getMessage());
+                this.semArquivo = true;
+            }
+        }
+        return ByteBuffer.allocate(Math.max(TAMANHO_SEGMENTO_HEAP, minimo));
+    }
+
+    // Apaga o arquivo logo depois de abrir: o mapeamento continua valendo e nada fica
+    // pra trás se o processo cair. (No Windows não dá pra apagar aberto; aí fica pro fim.)
+    private static FileChannel abrirArquivoTemporario() throws IOException {
+        Path caminho = Files.createTempFile("myfood_pedidos_", ".arq");
+        FileChannel canal = FileChannel.open(caminho, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            Files.delete(caminho);
+        } catch (IOException e) {
+            caminho.toFile().deleteOnExit();
+        }
+        return canal;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,78 @@
+package myfood.controllers;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+// Cache das strings "{[a, b, c]}" que as listagens devolvem.
+// A gente lê cardápio/pedido muito mais do que muda, então só remonta a string
+// quando alguma mutação invalida aquela chave.
+//
+// Regra pra não guardar texto velho: quem muda os dados chama invalidar() DEPOIS
+// de mudar. A geração roda dentro do compute do mapa, então um invalidar() que
+// chega no meio espera ela terminar e apaga o resultado.
+//
+// A versão serve pra invalidar muitas chaves de uma vez (ex: renomear um produto
+// muda a string de todos os pedidos que têm ele): quem lê passa a versão atual,
+// e entrada com versão diferente conta como falta.
+public class CacheDeTexto<K> {
+
+    private final Map<K, Entrada> entradas = new ConcurrentHashMap<>();
+    private final int capacidade;
+
+    private final LongAdder acertos = new LongAdder();
+    private final LongAdder faltas = new LongAdder();
+
+    public CacheDeTexto(int capacidade) {
+        this.capacidade = capacidade;
+    }
+
+    public String obter(K chave, Supplier<String> gerar) {
+        return obter(chave, 0, gerar);
+    }
+
+    public String obter(K chave, long versao, Supplier<String> gerar) {
+        Entrada e = this.entradas.get(chave);
+        if (e != null && e.versao == versao) {
+            this.acertos.increment();
+            return e.texto;
+        }
+
+        this.faltas.increment();
+        // Jeito simples de não crescer pra sempre: encheu, começa de novo
+        if (e == null && this.entradas.size() >= this.capacidade) {
+            this.entradas.clear();
+        }
+        return this.entradas.compute(chave, (k, atual) ->
+                atual != null && atual.versao == versao ? atual : new Entrada(versao, gerar.get())).texto;
+    }
+
+    public void invalidar(K chave) {
+        this.entradas.remove(chave);
+    }
+
+    public void limpar() {
+        this.entradas.clear();
+    }
+
+    // --- Estatísticas ---
+    public long getAcertos() { return this.acertos.sum(); }
+    public long getFaltas() { return this.faltas.sum(); }
+    public int getTamanho() { return this.entradas.size(); }
+
+    @Override
+    public String toString() {
+        return "acertos=" + getAcertos() + ", faltas=" + getFaltas() + ", entradas=" + getTamanho();
+    }
+
+    private static class Entrada {
+        final long versao;
+        final String texto;
+
+        Entrada(long versao, String texto) {
+            this.versao = versao;
+            this.texto = texto;
+        }
+    }
+}
\ No newline at end of file
@@ -1,155 +1,392 @@
 package myfood.controllers;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.IntStream;
+import myfood.colecoes.TabelaPorId;
+import myfood.erros.ErroDeConflito;
+import myfood.erros.ErroDeValidacao;
+import myfood.erros.ErroNaoEncontrado;
+import myfood.erros.ErroNaoPermitido;
 import myfood.models.Cliente;
+import myfood.models.Dicionarios;
 import myfood.models.Restaurante;
 import myfood.models.Usuario;
+import myfood.persistencia.CodecDeEmpresa;
+import myfood.persistencia.ControleDeMudancas;
+import myfood.persistencia.FormatoBinario;
+import myfood.persistencia.Journal;
+import myfood.persistencia.RegistroJournal;
+import myfood.repositorio.Repositorio;
+import myfood.repositorio.Repositorios;
 
 // "Cérebro" que gerencia as Empresas/Restaurantes
+// Seguro pra várias threads: as regras de nome duplicado são checadas com
+// uma trava por nome, e as listas por dono são copy-on-write (dono tem poucas empresas).
 public class ControladorEmpresa {
 
     // Mapas pra guardar as empresas
-    private Map<Integer, Restaurante> empresasPorId;
-    private Map<String, Restaurante> empresasPorNome; // Pra checar nome duplicado global
-    private Map<Integer, List<Restaurante>> empresasPorDono; // Pra listar rápido
-    private int proximoId;
+    private Repositorio<Restaurante> empresasPorId; // Em memória ou em disco (ver Repositorios)
+    // Os mapas secundários guardam só IDs: a empresa em si pode estar no disco
+    private Map<String, Integer> idPorNome; // Pra checar nome duplicado global (primeira empresa com o nome)
+    private TabelaPorId<List<Integer>> empresasPorDono; // Pra listar rápido (ID do dono -> IDs das empresas)
+    private final AtomicInteger proximoId = new AtomicInteger(1);
+
+    // Tipo de cozinha e palavras do endereço -> empresas (pro buscarEmpresas)
+    private IndiceDeEmpresas indice;
+
+    // String do getEmpresasDoUsuario por dono (só muda quando o dono cria empresa)
+    private final CacheDeTexto<Integer> cachePorDono = new CacheDeTexto<>(4096);
+
+    // Todas as regras de duplicidade envolvem o nome, então duas criações
+    // com o mesmo nome caem na mesma trava
+    private final TravasListradas<ReentrantLock> travasPorNome = new TravasListradas<>(64, ReentrantLock::new);
+
+    private static final int TAMANHO_MAXIMO_PAGINA = 1000;
 
     private static final String ARQUIVO_DADOS_EMPRESA = "empresas_data.dat";
+    private final String arquivoDados;
+
+    private Journal journal;
+    private long seqSnapshot; // Até qual seq do journal o save já contém
+    private final ControleDeMudancas mudancas = new ControleDeMudancas(); // Sem mudança não regrava o save
+    private volatile int proximoIdNoRetrato; // Empresa não muda depois de criada: o retrato é só o próximo ID
 
     // Referência pro ControladorUsuario (pra checar se é Dono)
     private ControladorUsuario controladorUsuario;
 
-    public ControladorEmpresa(ControladorUsuario controladorUsuario) {
+    public ControladorEmpresa(File diretorio, ControladorUsuario controladorUsuario) {
+        this.arquivoDados = new File(diretorio, ARQUIVO_DADOS_EMPRESA).getPath();
         this.controladorUsuario = controladorUsuario; // Recebe a referência
-        this.carregarDados();
+        this.limparMapas();
     }
 
     // --- LÓGICA DE PERSISTÊNCIA ---
 
-    public void salvarDados() {
-        try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(ARQUIVO_DADOS_EMPRESA))) {
-            oos.writeObject(this.empresasPorId);
-            oos.writeObject(this.empresasPorNome);
-            oos.writeObject(this.empresasPorDono);
-            oos.writeObject(this.proximoId);
+    // Chamado pela Facade com as escritas paradas
+    public void tirarRetrato() {
+        this.proximoIdNoRetrato = this.proximoId.get();
+        this.mudancas.retratar();
+    }
+
+    // Cada empresa é gravada uma vez só; os mapas por nome e por dono são refeitos no carregamento.
+    // Grava as empresas do retrato (as criadas depois dele ficam de fora).
+    public boolean salvarDados(long seqJournal) {
+        if (!this.mudancas.retratoTemMudancas() && new File(this.arquivoDados).exists()) {
+            return true; // O arquivo que está lá continua valendo
+        }
+        int limite = this.proximoIdNoRetrato;
+        try {
+            FormatoBinario.gravar(this.arquivoDados, FormatoBinario.TIPO_EMPRESAS, out -> {
+                // Em ordem de ID (o repositório já devolve assim), pras listas por dono voltarem na ordem de criação.
+                // Empresas são poucas perto de usuários, então a lista cabe mesmo com o repositório no disco.
+                List<Restaurante> empresas = this.empresasPorId.valores();
+                empresas.removeIf(r -> r.getId() >= limite);
+                FormatoBinario.SecaoDicionario cozinhas = new FormatoBinario.SecaoDicionario(Dicionarios.TIPOS_COZINHA);
+                int[] tipoCozinha = new int[empresas.size()];
+                for (int i = 0; i < tipoCozinha.length; i++) {
+                    tipoCozinha[i] = cozinhas.local(empresas.get(i).getCodigoTipoCozinha());
+                }
+                out.writeLong(seqJournal);
+                out.writeInt(limite);
+                cozinhas.escrever(out);
+                out.writeInt(empresas.size());
+                for (int i = 0; i < tipoCozinha.length; i++) {
+                    Restaurante r = empresas.get(i);
+                    out.writeInt(r.getId());
+                    out.writeInt(r.getIdDono());
+                    FormatoBinario.escreverString(out, r.getNome());
+                    FormatoBinario.escreverString(out, r.getEndereco());
+                    out.writeInt(tipoCozinha[i]);
+                }
+            });
+            this.seqSnapshot = seqJournal;
+            this.mudancas.retratoSalvo();
+            return true;
         } catch (Exception e) {
             System.err.println("Erro ao salvar dados de empresas: " + e.getMessage());
+            return false;
         }
     }
 
-    @SuppressWarnings("unchecked")
-    private void carregarDados() {
-        File f = new File(ARQUIVO_DADOS_EMPRESA);
-        if (f.exists()) {
-            try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(ARQUIVO_DADOS_EMPRESA))) {
-                this.empresasPorId = (Map<Integer, Restaurante>) ois.readObject();
-                this.empresasPorNome = (Map<String, Restaurante>) ois.readObject();
-                this.empresasPorDono = (Map<Integer, List<Restaurante>>) ois.readObject();
-                this.proximoId = (int) ois.readObject();
-            } catch (Exception e) {
-                System.err.println("Erro ao carregar dados de empresas, começando do zero: " + e.getMessage());
+    public void carregarDados() {
+        try {
+            ByteBuffer buf = FormatoBinario.mapear(this.arquivoDados, FormatoBinario.TIPO_EMPRESAS);
+            if (buf == null) {
                 this.zerar();
+                return;
+            }
+
+            this.limparMapas();
+            this.seqSnapshot = buf.getLong();
+            this.proximoId.set(buf.getInt());
+            String[] cozinhas = FormatoBinario.lerDicionario(buf);
+            int quantidade = buf.getInt();
+            for (int i = 0; i < quantidade; i++) {
+                int id = buf.getInt();
+                int dono = buf.getInt();
+                String nome = FormatoBinario.lerString(buf);
+                String endereco = FormatoBinario.lerString(buf);
+                String tipoCozinha = FormatoBinario.texto(cozinhas, buf.getInt());
+                armazenar(new Restaurante(id, dono, nome, endereco, tipoCozinha));
             }
-        } else {
-            this.zerar();
+        } catch (Exception e) {
+            throw FormatoBinario.saveIlegivel(this.arquivoDados, "empresas", e);
         }
     }
 
     public void zerar() {
-        this.empresasPorId = new HashMap<>();
-        this.empresasPorNome = new HashMap<>();
-        this.empresasPorDono = new HashMap<>();
-        this.proximoId = 1;
+        this.limparMapas();
 
-        File f = new File(ARQUIVO_DADOS_EMPRESA);
+        File f = new File(this.arquivoDados);
         if (f.exists()) {
             f.delete();
         }
     }
 
+    private void limparMapas() {
+        if (this.empresasPorId != null) {
+            this.empresasPorId.fechar();
+        }
+        this.empresasPorId = Repositorios.criar("empresas", CodecDeEmpresa.INSTANCIA);
+        this.idPorNome = new ConcurrentHashMap<>();
+        this.empresasPorDono = new TabelaPorId<>();
+        this.indice = new IndiceDeEmpresas();
+        this.cachePorDono.limpar();
+        this.proximoId.set(1);
+        this.seqSnapshot = 0;
+        this.mudancas.limpar();
+    }
+
+    // --- JOURNAL ---
+
+    public void setJournal(Journal journal) {
+        this.journal = journal;
+    }
+
+    public long getSeqSnapshot() {
+        return this.seqSnapshot;
+    }
+
+    // Quantas empresas existem (medidor das métricas)
+    public int getQuantidadeEmpresas() {
+        return this.empresasPorId.size();
+    }
+
+    // Refaz uma criação de empresa que estava no journal
+    public void reaplicar(RegistroJournal r) {
+        if (r.getSeq() <= this.seqSnapshot) {
+            return;
+        }
+        this.mudancas.marcar();
+        if (r.getOperacao().equals("criarEmpresa")) {
+            armazenar(new Restaurante(r.getInt(0), r.getInt(1), r.getString(2), r.getString(3), r.getString(4)));
+        }
+    }
+
     // --- MÉTODOS DA US2 ---
 
     public int criarEmpresa(String tipoEmpresa, int dono, String nome, String endereco, String tipoCozinha) throws Exception {
         // Validação 1: O usuário é um Dono? Pede pro outro controlador.
         Usuario u = this.controladorUsuario.getUsuario(dono);
+        if (u == null) {
+            throw new ErroNaoEncontrado("Usuario nao cadastrado.");
+        }
         if (u instanceof Cliente) {
-            throw new Exception("Usuario nao pode criar uma empresa");
+            throw new ErroNaoPermitido("Usuario nao pode criar uma empresa");
         }
 
-        // Validação 2: MESMO DONO, MESMO NOME, MESMO ENDEREÇO?
-        List<Restaurante> listaDoDono = this.empresasPorDono.getOrDefault(dono, new ArrayList<>());
-        for (Restaurante r : listaDoDono) {
-            if (r.temMesmoNomeEndereco(nome, endereco)) {
-                throw new Exception("Proibido cadastrar duas empresas com o mesmo nome e local");
+        ReentrantLock trava = this.travasPorNome.trava(nome);
+        trava.lock();
+        try {
+            // Validação 2: MESMO DONO, MESMO NOME, MESMO ENDEREÇO?
+            List<Restaurante> listaDoDono = listaDoDono(dono);
+            for (Restaurante r : listaDoDono) {
+                if (r.temMesmoNomeEndereco(nome, endereco)) {
+                    throw new ErroDeConflito("Proibido cadastrar duas empresas com o mesmo nome e local");
+                }
             }
-        }
 
-        // Validação 3: NOME JÁ EXISTE EM OUTRO DONO?
-        // Se o nome existe E o dono é diferente, falha.
-        // Se o nome existe E o dono é o mesmo, o passo 2 já tratou.
-        if (this.empresasPorNome.containsKey(nome)) {
-            Restaurante empresaExistente = this.empresasPorNome.get(nome);
-            if (empresaExistente.getIdDono() != dono) {
-                throw new Exception("Empresa com esse nome ja existe");
+            // Validação 3: NOME JÁ EXISTE EM OUTRO DONO?
+            // Se o nome existe E o dono é diferente, falha.
+            // Se o nome existe E o dono é o mesmo, o passo 2 já tratou.
+            Restaurante empresaExistente = empresaComNome(nome);
+            if (empresaExistente != null && empresaExistente.getIdDono() != dono) {
+                throw new ErroDeConflito("Empresa com esse nome ja existe");
             }
-        }
 
-        // 4. Se passou em tudo, cria a empresa
-        int id = this.proximoId++;
-        Restaurante r = new Restaurante(id, dono, nome, endereco, tipoCozinha);
+            // 4. Se passou em tudo, registra no journal e cria a empresa
+            int id = this.proximoId.getAndIncrement();
+            registrarNoJournal("criarEmpresa", id, dono, nome, endereco, tipoCozinha);
+            armazenar(new Restaurante(id, dono, nome, endereco, tipoCozinha));
 
-        this.empresasPorId.put(id, r);
-        // Só bota no mapa global se for a primeira vez que esse nome aparece
-        if (!this.empresasPorNome.containsKey(nome)) {
-            this.empresasPorNome.put(nome, r);
+            return id;
+        } finally {
+            trava.unlock();
         }
+    }
 
-        listaDoDono.add(r);
-        this.empresasPorDono.put(dono, listaDoDono);
+    // --- IMPORTAÇÃO EM MASSA ---
+
+    // Colunas do arquivo de importação
+    public static final String[] COLUNAS_IMPORTACAO = {"tipoEmpresa", "dono", "nome", "endereco", "tipoCozinha"};
+
+    // Cria um lote de empresas com as mesmas regras do criarEmpresa.
+    // Retorna o erro de cada linha (null = criada), na ordem das linhas.
+    // Checar o dono roda em paralelo; as regras de nome são checadas com todas as travas de nome
+    // na mão, contra os nomes já cadastrados e os do próprio lote, e os IDs saem de um getAndAdd só.
+    public String[] importarEmpresas(List<String[]> linhas) {
+        String[] erros = new String[linhas.size()];
+        int[] donos = new int[linhas.size()];
+        IntStream.range(0, linhas.size()).parallel().forEach(i -> {
+            try {
+                donos[i] = Integer.parseInt(linhas.get(i)[1].trim());
+            } catch (NullPointerException | NumberFormatException e) {
+                erros[i] = "Dono invalido";
+                return;
+            }
+            Usuario u = this.controladorUsuario.getUsuario(donos[i]);
+            if (u == null) {
+                erros[i] = "Usuario nao cadastrado.";
+            } else if (u instanceof Cliente) {
+                erros[i] = "Usuario nao pode criar uma empresa";
+            }
+        });
+
+        List<ReentrantLock> travas = this.travasPorNome.todas();
+        travas.forEach(ReentrantLock::lock);
+        try {
+            Map<String, Integer> donoDoNomeNoLote = new HashMap<>();
+            Set<String> nomeEnderecoNoLote = new HashSet<>(); // "dono|nome|endereco"
+            int validas = 0;
+            for (int i = 0; i < erros.length; i++) {
+                if (erros[i] != null) {
+                    continue;
+                }
+                String[] c = linhas.get(i);
+                int dono = donos[i];
+                String nome = c[2];
+                String endereco = c[3];
+
+                // Mesmas duas regras do criarEmpresa, nessa ordem
+                boolean repetida = nomeEnderecoNoLote.contains(dono + "|" + nome + "|" + endereco);
+                for (Restaurante r : listaDoDono(dono)) {
+                    repetida |= r.temMesmoNomeEndereco(nome, endereco);
+                }
+                if (repetida) {
+                    erros[i] = "Proibido cadastrar duas empresas com o mesmo nome e local";
+                    continue;
+                }
+                Restaurante existente = empresaComNome(nome);
+                Integer donoNoLote = nome == null ? null : donoDoNomeNoLote.get(nome);
+                if ((existente != null && existente.getIdDono() != dono) || (donoNoLote != null && donoNoLote != dono)) {
+                    erros[i] = "Empresa com esse nome ja existe";
+                    continue;
+                }
+
+                nomeEnderecoNoLote.add(dono + "|" + nome + "|" + endereco);
+                if (nome != null) {
+                    donoDoNomeNoLote.putIfAbsent(nome, dono);
+                }
+                validas++;
+            }
+            if (validas == 0) {
+                return erros;
+            }
 
-        return id;
+            int id = this.proximoId.getAndAdd(validas);
+            String[] operacoes = new String[validas];
+            Object[][] argumentos = new Object[validas][];
+            Restaurante[] novas = new Restaurante[validas];
+            for (int i = 0, k = 0; i < erros.length; i++) {
+                if (erros[i] != null) {
+                    continue;
+                }
+                String[] c = linhas.get(i);
+                operacoes[k] = "criarEmpresa";
+                argumentos[k] = new Object[]{id, donos[i], c[2], c[3], c[4]};
+                novas[k] = new Restaurante(id, donos[i], c[2], c[3], c[4]);
+                id++;
+                k++;
+            }
+            this.mudancas.marcar();
+            if (this.journal != null) {
+                this.journal.registrarLote(operacoes, argumentos);
+            }
+            for (Restaurante r : novas) {
+                armazenar(r);
+            }
+        } finally {
+            travas.forEach(ReentrantLock::unlock);
+        }
+        return erros;
+    }
+
+    // Bota a empresa nos mapas
+    private void armazenar(Restaurante r) {
+        this.empresasPorId.put(r.getId(), r);
+        // Só bota no mapa global se for a primeira vez que esse nome aparece
+        if (r.getNome() != null) {
+            this.idPorNome.putIfAbsent(r.getNome(), r.getId());
+        }
+        this.empresasPorDono.computeIfAbsent(r.getIdDono(), k -> new CopyOnWriteArrayList<>()).add(r.getId());
+        this.indice.adicionar(r);
+        this.cachePorDono.invalidar(r.getIdDono());
+        this.proximoId.accumulateAndGet(r.getId() + 1, Math::max);
     }
 
     public String getEmpresasDoUsuario(int idDono) throws Exception {
         // Validação: O usuário é um Dono?
         Usuario u = this.controladorUsuario.getUsuario(idDono);
         if (u instanceof Cliente) {
-            throw new Exception("Usuario nao pode criar uma empresa");
+            throw new ErroNaoPermitido("Usuario nao pode criar uma empresa");
         }
 
-        List<Restaurante> lista = this.empresasPorDono.getOrDefault(idDono, new ArrayList<>());
-
-        // Formata a String do jeito que o teste espera: "{[[...], [...]]}"
-        StringBuilder sb = new StringBuilder("{[");
-        for (int i = 0; i < lista.size(); i++) {
-            Restaurante r = lista.get(i);
-            sb.append("[").append(r.getNome()).append(", ").append(r.getEndereco()).append("]");
-            if (i < lista.size() - 1) {
-                sb.append(", "); // Vírgula entre os itens
+        return this.cachePorDono.obter(idDono, () -> {
+            List<Restaurante> lista = listaDoDono(idDono);
+
+            // Formata a String do jeito que o teste espera: "{[[...], [...]]}"
+            StringBuilder sb = new StringBuilder("{[");
+            for (int i = 0; i < lista.size(); i++) {
+                Restaurante r = lista.get(i);
+                sb.append("[").append(r.getNome()).append(", ").append(r.getEndereco()).append("]");
+                if (i < lista.size() - 1) {
+                    sb.append(", "); // Vírgula entre os itens
+                }
             }
-        }
-        sb.append("]}");
-        return sb.toString();
+            sb.append("]}");
+            return sb.toString();
+        });
+    }
+
+    public CacheDeTexto<Integer> getCachePorDono() {
+        return this.cachePorDono;
+    }
+
+    public Repositorio<Restaurante> getRepositorio() {
+        return this.empresasPorId;
     }
 
     public String getAtributoEmpresa(int empresa, String atributo) throws Exception {
         Restaurante r = this.empresasPorId.get(empresa);
 
         if (r == null) {
-            throw new Exception("Empresa nao cadastrada");
+            throw new ErroNaoEncontrado("Empresa nao cadastrada");
         }
 
         // Checa se o atributo veio nulo (teste da US2)
         if (atributo == null) {
-            throw new Exception("Atributo invalido");
+            throw new ErroDeValidacao("Atributo invalido");
         }
 
         switch (atributo) {
@@ -165,18 +402,18 @@ public class ControladorEmpresa {
                 return dono.getNome();
             default:
                 validarStringNulaOuVazia(atributo, "Atributo invalido");
-                throw new Exception("Atributo invalido");
+                throw new ErroDeValidacao("Atributo invalido");
         }
     }
 
     public int getIdEmpresa(int idDono, String nome, int indice) throws Exception {
         validarStringNulaOuVazia(nome, "Nome invalido");
         if (indice < 0) {
-            throw new Exception("Indice invalido");
+            throw new ErroDeValidacao("Indice invalido");
         }
 
         // Filtra a lista do dono pra pegar só as com o nome certo
-        List<Restaurante> listaDoDono = this.empresasPorDono.getOrDefault(idDono, new ArrayList<>());
+        List<Restaurante> listaDoDono = listaDoDono(idDono);
         List<Restaurante> empresasComEsseNome = new ArrayList<>();
         for (Restaurante r : listaDoDono) {
             if (r.getNome().equals(nome)) {
@@ -186,25 +423,92 @@ public class ControladorEmpresa {
 
         // Validações de índice
         if (empresasComEsseNome.isEmpty()) {
-            throw new Exception("Nao existe empresa com esse nome");
+            throw new ErroNaoEncontrado("Nao existe empresa com esse nome");
         }
         if (indice >= empresasComEsseNome.size()) {
-            throw new Exception("Indice maior que o esperado");
+            throw new ErroDeValidacao("Indice maior que o esperado");
         }
 
         // Retorna o ID da empresa naquele índice
         return empresasComEsseNome.get(indice).getId();
     }
 
+    // Empresas do dono, na ordem de criação
+    private List<Restaurante> listaDoDono(int idDono) {
+        List<Integer> ids = this.empresasPorDono.get(idDono);
+        List<Restaurante> lista = new ArrayList<>(ids != null ? ids.size() : 0);
+        if (ids != null) {
+            for (int id : ids) {
+                lista.add(this.empresasPorId.get(id));
+            }
+        }
+        return lista;
+    }
+
+    // A primeira empresa cadastrada com esse nome (ou null)
+    private Restaurante empresaComNome(String nome) {
+        Integer id = nome == null ? null : this.idPorNome.get(nome);
+        return id == null ? null : this.empresasPorId.get(id);
+    }
+
     // Helper pro ControladorProduto poder buscar uma empresa
     public Restaurante getEmpresa(int id) {
         return this.empresasPorId.get(id); // Retorna o objeto ou null
     }
 
+    // IDs (em ordem) das empresas com esse tipo de cozinha, pra busca de produtos.
+    // Tipo que nunca apareceu não tem código, então nenhuma empresa tem ele.
+    public int[] getEmpresasComCozinha(String tipoCozinha) {
+        int codigo = Dicionarios.TIPOS_COZINHA.procurar(tipoCozinha);
+        return codigo < 0 ? new int[0] : this.indice.comCozinha(codigo);
+    }
+
+    // Descoberta de empresas por tipo de cozinha e/ou palavras do endereço: "{[[nome, endereco], ...]}"
+    // em ordem de criação. Filtro nulo/vazio não filtra. Página começa do 0.
+    public String buscarEmpresas(String tipoCozinha, String endereco, int pagina, int tamanhoPagina) throws Exception {
+        if (pagina < 0) {
+            throw new ErroDeValidacao("Pagina invalida");
+        }
+        if (tamanhoPagina <= 0 || tamanhoPagina > TAMANHO_MAXIMO_PAGINA) {
+            throw new ErroDeValidacao("Tamanho de pagina invalido");
+        }
+
+        int codigoCozinha = -1;
+        if (tipoCozinha != null && !tipoCozinha.trim().isEmpty()) {
+            codigoCozinha = Dicionarios.TIPOS_COZINHA.procurar(tipoCozinha);
+            if (codigoCozinha < 0) {
+                return "{[]}"; // Nenhuma empresa nunca teve esse tipo
+            }
+        }
+        String palavras = endereco == null || endereco.trim().isEmpty() ? null : endereco;
+        int inicio = (int) Math.min(Integer.MAX_VALUE, (long) pagina * tamanhoPagina);
+        int[] ids = this.indice.buscar(codigoCozinha, palavras, inicio, tamanhoPagina);
+
+        // Mesmo formato do getEmpresasDoUsuario
+        StringBuilder sb = new StringBuilder("{[");
+        for (int i = 0; i < ids.length; i++) {
+            Restaurante r = this.empresasPorId.get(ids[i]);
+            sb.append("[").append(r.getNome()).append(", ").append(r.getEndereco()).append("]");
+            if (i < ids.length - 1) {
+                sb.append(", ");
+            }
+        }
+        sb.append("]}");
+        return sb.toString();
+    }
+
+    // Só registra se tiver journal (durante a recuperação não tem)
+    private void registrarNoJournal(String operacao, Object... argumentos) {
+        this.mudancas.marcar();
+        if (this.journal != null) {
+            this.journal.registrar(operacao, argumentos);
+        }
+    }
+
     // Helper pra checar string nula/vazia
-    private void validarStringNulaOuVazia(String valor, String mensagemErro) throws Exception {
+    private void validarStringNulaOuVazia(String valor, String mensagemErro) throws ErroDeValidacao {
         if (valor == null || valor.trim().isEmpty()) {
-            throw new Exception(mensagemErro);
+            throw new ErroDeValidacao(mensagemErro);
         }
     }
 }
\ No newline at end of file
@@ -1,105 +1,420 @@
 package myfood.controllers;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import myfood.colecoes.ListaDeInts;
+import myfood.colecoes.TabelaPorId;
+import myfood.erros.ErroDeConflito;
+import myfood.erros.ErroDeEstado;
+import myfood.erros.ErroDeValidacao;
+import myfood.erros.ErroNaoEncontrado;
+import myfood.erros.ErroNaoPermitido;
 import myfood.models.*; // Importa todos os modelos
+import myfood.persistencia.ControleDeMudancas;
+import myfood.persistencia.FormatoBinario;
+import myfood.persistencia.Journal;
+import myfood.persistencia.RegistroJournal;
+import myfood.repositorio.Repositorio;
+import myfood.repositorio.Repositorios;
 
 // "Cérebro" que gerencia os Pedidos
+// Seguro pra várias threads: tudo que mexe nos pedidos de um cliente (a lista dele,
+// a regra de um pedido aberto por empresa, os itens de cada pedido) usa a trava
+// listrada daquele cliente. Clientes diferentes não esperam um pelo outro.
+// Quem mexe nos itens também segura a trava de leitura do cardápio da empresa
+// (sempre antes da do cliente), pra nenhum preço mudar no meio da conta.
+//
+// Só os pedidos abertos ficam na heap (pedidosPorNumero). No fecharPedido o pedido vai
+// pro ArquivoDePedidosFechados, fora da heap, e as leituras/mudanças de estado dele passam
+// a ir lá; assim a heap cresce com os pedidos ativos, não com o histórico todo.
 public class ControladorPedido {
 
-    private Map<Integer, Pedido> pedidosPorNumero;
-    private Map<Integer, List<Pedido>> pedidosPorCliente; // (idCliente -> Lista de Pedidos)
-    private int proximoNumero;
+    // Só os abertos, sempre em memória (mudam o tempo todo e os índices guardam a referência)
+    private Repositorio<Pedido> pedidosPorNumero;
+    private ArquivoDePedidosFechados arquivados;  // Os fechados (preparando em diante)
+    // Índices por (cliente, empresa), com a chave juntando os dois IDs num long:
+    // o pedido aberto (no máximo um) e os números de todos os pedidos, em ordem de criação.
+    // Assim criarPedido e getNumeroPedido não dependem do tamanho do histórico.
+    private Map<Long, Pedido> pedidoAbertoPorClienteEmpresa;
+    private Map<Long, ListaDeInts> numerosPorClienteEmpresa; // Só mexe/lê com a trava do cliente
+
+    // Índice por estado: estado -> empresa -> números dos pedidos (em ordem, o mais antigo primeiro).
+    // É a "fila de trabalho" da cozinha (preparando) e da entrega (pronto).
+    // Entregue não entra aqui: é estado final e só cresce com o histórico.
+    private Map<EstadoPedido, TabelaPorId<Set<Integer>>> pedidosPorEstado;
+    // Entregues de cada empresa, em int cru (na ordem da entrega; ordena na leitura).
+    // A lista é a própria trava, porque clientes diferentes entregam na mesma empresa ao mesmo tempo.
+    private TabelaPorId<ListaDeInts> entreguesPorEmpresa;
+    // Pedidos abertos que têm cada produto, pra corrigir os totais quando o preço muda
+    private TabelaPorId<Set<Pedido>> abertosPorProduto;
+    private final AtomicInteger proximoNumero = new AtomicInteger(1);
+
+    // String dos produtos de cada pedido. Muda quando entra/sai item, ou quando
+    // um produto da empresa é renomeado (aí a versão dos nomes sobe e a entrada vence).
+    private final CacheDeTexto<Integer> cacheProdutos = new CacheDeTexto<>(65536);
+
+    private final TravasListradas<ReentrantLock> travasPorCliente = new TravasListradas<>(256, ReentrantLock::new);
+
+    // Pares (ID do produto, quantidade) lidos do save, esperando o ControladorProduto terminar de carregar
+    private Map<Pedido, int[]> produtosPendentes;
+
+    // Limite de unidades de um produto num pedido em lote (evita total estourando)
+    private static final int MAX_QUANTIDADE_ITEM = 10_000;
 
     private static final String ARQUIVO_DADOS_PEDIDO = "pedidos_data.dat";
+    private final String arquivoDados;
+
+    private Journal journal;
+    private long seqSnapshot; // Até qual seq do journal o save já contém
+    // Sem mudança não regrava o save. Mudança de preço também conta: o total dos pedidos abertos vai no save
+    private final ControleDeMudancas mudancas = new ControleDeMudancas();
+
+    // Retrato do checkpoint (copy-on-write): quem mexe num pedido que já existia no retrato
+    // guarda antes, com a trava do cliente, o registro dele como estava (só na primeira vez).
+    // O save grava esse registro no lugar do pedido vivo.
+    private volatile int proximoNumeroNoRetrato; // 0 = nenhum retrato sendo gravado
+    private final Map<Integer, RegistroDoPedido> anterioresAoRetrato = new ConcurrentHashMap<>();
 
     // Referências para os outros controladores
     private ControladorUsuario controladorUsuario;
     private ControladorEmpresa controladorEmpresa;
     private ControladorProduto controladorProduto;
 
-    public ControladorPedido(ControladorUsuario cu, ControladorEmpresa ce, ControladorProduto cp) {
+    public ControladorPedido(File diretorio, ControladorUsuario cu, ControladorEmpresa ce, ControladorProduto cp) {
+        this.arquivoDados = new File(diretorio, ARQUIVO_DADOS_PEDIDO).getPath();
         this.controladorUsuario = cu;
         this.controladorEmpresa = ce;
         this.controladorProduto = cp;
-        this.carregarDados();
+        this.limparMapas();
+        cp.adicionarOuvinte(this::precoAlterado);
     }
 
     // --- LÓGICA DE PERSISTÊNCIA ---
 
-    public void salvarDados() {
-        try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(ARQUIVO_DADOS_PEDIDO))) {
-            oos.writeObject(this.pedidosPorNumero);
-            oos.writeObject(this.pedidosPorCliente);
-            oos.writeObject(this.proximoNumero);
+    // Chamado pela Facade com as escritas paradas. Sobra de um retrato anterior é jogada fora aqui.
+    public void tirarRetrato() {
+        this.anterioresAoRetrato.clear();
+        this.proximoNumeroNoRetrato = this.proximoNumero.get();
+        this.mudancas.retratar();
+    }
+
+    // O pedido guarda só os IDs dos produtos e as quantidades (o produto em si já está no save de produtos).
+    // Abertos e fechados vão pro mesmo arquivo, como sempre; o arquivo dos fechados não é save.
+    // Grava os pedidos como estavam no retrato, com as escritas acontecendo.
+    public boolean salvarDados(long seqJournal) {
+        try {
+            if (!this.mudancas.retratoTemMudancas() && new File(this.arquivoDados).exists()) {
+                return true; // O arquivo que está lá continua valendo
+            }
+            int ultimo = this.proximoNumeroNoRetrato;
+            FormatoBinario.gravar(this.arquivoDados, FormatoBinario.TIPO_PEDIDOS, out -> {
+                // Em ordem de número, pras listas por cliente voltarem na ordem de criação.
+                // Primeiro junta os números (um pedido pode passar da heap pro arquivo, mas nunca some)
+                ListaDeInts numeros = new ListaDeInts();
+                for (int numero = 1; numero < ultimo; numero++) {
+                    if (this.pedidosPorNumero.contem(numero) || this.arquivados.contem(numero)) {
+                        numeros.add(numero);
+                    }
+                }
+                out.writeLong(seqJournal);
+                out.writeInt(ultimo);
+                out.writeInt(numeros.size());
+                for (int i = 0; i < numeros.size(); i++) {
+                    int numero = numeros.get(i);
+                    ReentrantLock trava = this.travasPorCliente.trava(clienteDoPedido(numero));
+                    trava.lock();
+                    try {
+                        // Sem registro guardado, ninguém mexeu no pedido desde o retrato
+                        RegistroDoPedido r = this.anterioresAoRetrato.get(numero);
+                        if (r == null) {
+                            r = registroAtual(numero);
+                        }
+                        out.writeInt(numero);
+                        out.writeInt(r.cliente);
+                        out.writeInt(r.empresa);
+                        out.writeByte(r.estado.ordinal()); // O enum é o dicionário
+                        out.writeLong(r.totalCentavos);
+                        out.writeInt(r.itens.length / 2);
+                        for (int item : r.itens) {
+                            out.writeInt(item);
+                        }
+                    } finally {
+                        trava.unlock();
+                    }
+                }
+            });
+            this.seqSnapshot = seqJournal;
+            this.mudancas.retratoSalvo();
+            return true;
         } catch (Exception e) {
             System.err.println("Erro ao salvar dados de pedidos: " + e.getMessage());
+            return false;
+        } finally {
+            this.proximoNumeroNoRetrato = 0;
+            this.anterioresAoRetrato.clear();
         }
     }
 
-    @SuppressWarnings("unchecked")
-    private void carregarDados() {
-        File f = new File(ARQUIVO_DADOS_PEDIDO);
-        if (f.exists()) {
-            try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(ARQUIVO_DADOS_PEDIDO))) {
-                this.pedidosPorNumero = (Map<Integer, Pedido>) ois.readObject();
-                this.pedidosPorCliente = (Map<Integer, List<Pedido>>) ois.readObject();
-                this.proximoNumero = (int) ois.readObject();
-            } catch (Exception e) {
-                // Se der erro, zera
+    // Um pedido do jeito que vai pro save (itens em pares produto, quantidade)
+    private static final class RegistroDoPedido {
+        final int cliente;
+        final int empresa;
+        final EstadoPedido estado;
+        final long totalCentavos;
+        final int[] itens;
+
+        RegistroDoPedido(int cliente, int empresa, EstadoPedido estado, long totalCentavos, int[] itens) {
+            this.cliente = cliente;
+            this.empresa = empresa;
+            this.estado = estado;
+            this.totalCentavos = totalCentavos;
+            this.itens = itens;
+        }
+    }
+
+    // Chamar com a trava do cliente (o pedido existe)
+    private RegistroDoPedido registroAtual(int numero) {
+        Pedido p = this.pedidosPorNumero.get(numero);
+        if (p != null) {
+            return new RegistroDoPedido(p.getIdCliente(), p.getIdEmpresa(), p.getEstado(), p.getValorTotalCentavos(), itensDe(p));
+        }
+        return new RegistroDoPedido(this.arquivados.getCliente(numero), this.arquivados.getEmpresa(numero),
+                this.arquivados.getEstado(numero), this.arquivados.getTotalCentavos(numero), this.arquivados.getItens(numero));
+    }
+
+    // Chamar com a trava do cliente, antes de mexer no pedido
+    private void guardarParaRetrato(int numero) {
+        if (numero < this.proximoNumeroNoRetrato && !this.anterioresAoRetrato.containsKey(numero)) {
+            this.anterioresAoRetrato.put(numero, registroAtual(numero));
+        }
+    }
+
+    // Lê os pedidos, mas os produtos só são ligados em ligarProdutos(),
+    // porque o save de produtos pode estar sendo carregado ao mesmo tempo.
+    public void carregarDados() {
+        try {
+            ByteBuffer buf = FormatoBinario.mapear(this.arquivoDados, FormatoBinario.TIPO_PEDIDOS);
+            if (buf == null) {
+                // Se não existe, zera
                 this.zerar();
+                return;
+            }
+
+            this.limparMapas();
+            this.seqSnapshot = buf.getLong();
+            this.proximoNumero.set(buf.getInt());
+            int quantidade = buf.getInt();
+            for (int i = 0; i < quantidade; i++) {
+                int numero = buf.getInt();
+                int cliente = buf.getInt();
+                int empresa = buf.getInt();
+                EstadoPedido estado = EstadoPedido.porCodigo(buf.get());
+                long total = buf.getLong();
+                int[] itens = new int[buf.getInt() * 2];
+                for (int j = 0; j < itens.length; j++) {
+                    itens[j] = buf.getInt();
+                }
+                if (estado == EstadoPedido.ABERTO) {
+                    Pedido p = new Pedido(numero, cliente, empresa);
+                    armazenar(p);
+                    this.produtosPendentes.put(p, itens);
+                } else {
+                    // Fechado vai direto pro arquivo, com o total da hora que fechou
+                    this.arquivados.arquivar(numero, cliente, empresa, estado, total, itens);
+                    indexar(numero, cliente, empresa, estado);
+                }
             }
-        } else {
-            // Se não existe, zera
-            this.zerar();
+        } catch (Exception e) {
+            throw FormatoBinario.saveIlegivel(this.arquivoDados, "pedidos", e);
         }
     }
 
+    // Segunda fase do carregamento: troca os IDs pelos produtos de verdade.
+    // Só tem pedido aberto aqui (o fechado já foi pro arquivo com o total salvo),
+    // e ele recalcula o total com os preços atuais.
+    public void ligarProdutos() {
+        for (Map.Entry<Pedido, int[]> entrada : this.produtosPendentes.entrySet()) {
+            Pedido p = entrada.getKey();
+            int[] itens = entrada.getValue();
+            for (int i = 0; i < itens.length; i += 2) {
+                Produto prod = this.controladorProduto.getProdutoById(itens[i]);
+                if (prod != null) {
+                    p.restaurarItem(prod, itens[i + 1]);
+                    abertosCom(prod.getId()).add(p);
+                }
+            }
+        }
+        this.produtosPendentes = new HashMap<>();
+    }
+
     public void zerar() {
-        this.pedidosPorNumero = new HashMap<>();
-        this.pedidosPorCliente = new HashMap<>();
-        this.proximoNumero = 1;
+        this.limparMapas();
 
-        File f = new File(ARQUIVO_DADOS_PEDIDO);
+        File f = new File(this.arquivoDados);
         if (f.exists()) {
             f.delete();
         }
     }
 
+    private void limparMapas() {
+        this.pedidosPorNumero = Repositorios.emMemoria();
+        if (this.arquivados != null) {
+            this.arquivados.fechar();
+        }
+        this.arquivados = new ArquivoDePedidosFechados();
+        this.pedidoAbertoPorClienteEmpresa = new ConcurrentHashMap<>();
+        this.numerosPorClienteEmpresa = new ConcurrentHashMap<>();
+        this.pedidosPorEstado = new EnumMap<>(EstadoPedido.class);
+        for (EstadoPedido estado : EstadoPedido.values()) {
+            if (estado != EstadoPedido.ENTREGUE) {
+                this.pedidosPorEstado.put(estado, new TabelaPorId<>());
+            }
+        }
+        this.entreguesPorEmpresa = new TabelaPorId<>();
+        this.abertosPorProduto = new TabelaPorId<>();
+        this.cacheProdutos.limpar();
+        this.produtosPendentes = new HashMap<>();
+        this.proximoNumero.set(1);
+        this.seqSnapshot = 0;
+        this.mudancas.limpar();
+    }
+
+    // --- JOURNAL ---
+
+    public void setJournal(Journal journal) {
+        this.journal = journal;
+    }
+
+    public long getSeqSnapshot() {
+        return this.seqSnapshot;
+    }
+
+    // Medidores das métricas: todos os pedidos, só os abertos e o arquivo dos fechados
+    public int getQuantidadePedidos() {
+        return this.pedidosPorNumero.size() + this.arquivados.size();
+    }
+
+    public int getQuantidadePedidosAbertos() {
+        return this.pedidoAbertoPorClienteEmpresa.size();
+    }
+
+    public long getBytesPedidosArquivados() {
+        return this.arquivados.getBytesOcupados();
+    }
+
+    // Refaz uma operação de pedido que estava no journal
+    public void reaplicar(RegistroJournal r) throws Exception {
+        if (r.getSeq() <= this.seqSnapshot) {
+            return;
+        }
+        this.mudancas.marcar();
+        switch (r.getOperacao()) {
+            case "criarPedido":
+                armazenar(new Pedido(r.getInt(0), r.getInt(1), r.getInt(2)));
+                break;
+            case "adicionarProduto":
+                adicionarProduto(r.getInt(0), r.getInt(1));
+                break;
+            case "criarPedidoComProdutos":
+                Pedido novo = new Pedido(r.getInt(0), r.getInt(1), r.getInt(2));
+                armazenar(novo);
+                reaplicarItens(novo, r.getInts(3));
+                break;
+            case "adicionarProdutos":
+                Pedido existente = this.pedidosPorNumero.get(r.getInt(0));
+                if (existente != null) {
+                    reaplicarItens(existente, r.getInts(1));
+                }
+                break;
+            case "fecharPedido":
+                fecharPedido(r.getInt(0));
+                break;
+            case "removerProduto":
+                // O journal guarda o ID do produto (o nome pode ter mudado depois)
+                Pedido p = this.pedidosPorNumero.get(r.getInt(0));
+                Produto prod = this.controladorProduto.getProdutoById(r.getInt(1));
+                if (p != null && prod != null) {
+                    tirarItem(p, prod);
+                }
+                break;
+            case "liberarPedido":
+                liberarPedido(r.getInt(0));
+                break;
+            case "despacharPedido":
+                despacharPedido(r.getInt(0));
+                break;
+            case "entregarPedido":
+                entregarPedido(r.getInt(0));
+                break;
+        }
+    }
+
     // --- MÉTODOS DA US4 ---
 
     public int criarPedido(int cliente, int empresa) throws Exception {
         // Validação 1: Dono não pode fazer pedido
-        Usuario u = this.controladorUsuario.getUsuario(cliente);
+        Usuario u = validarClienteEmpresa(cliente, empresa);
         if (u instanceof DonoDeEmpresa) {
-            throw new Exception("Dono de empresa nao pode fazer um pedido");
+            throw new ErroNaoPermitido("Dono de empresa nao pode fazer um pedido");
         }
 
-        // Validação 2: Cliente já tem pedido aberto nessa empresa?
-        List<Pedido> pedidosDoCliente = this.pedidosPorCliente.getOrDefault(cliente, new ArrayList<>());
-        for (Pedido p : pedidosDoCliente) {
-            if (p.getIdEmpresa() == empresa && p.getEstado().equals("aberto")) {
-                throw new Exception("Nao e permitido ter dois pedidos em aberto para a mesma empresa");
+        ReentrantLock trava = this.travasPorCliente.trava(cliente);
+        trava.lock();
+        try {
+            // Validação 2: Cliente já tem pedido aberto nessa empresa?
+            if (this.pedidoAbertoPorClienteEmpresa.containsKey(chave(cliente, empresa))) {
+                throw new ErroDeConflito("Nao e permitido ter dois pedidos em aberto para a mesma empresa");
             }
+
+            // Se passou, registra no journal e cria o pedido
+            int numero = this.proximoNumero.getAndIncrement();
+            registrarNoJournal("criarPedido", numero, cliente, empresa);
+            armazenar(new Pedido(numero, cliente, empresa));
+
+            return numero;
+        } finally {
+            trava.unlock();
         }
+    }
 
-        // Se passou, cria o pedido
-        int numero = this.proximoNumero++;
-        Pedido p = new Pedido(numero, cliente, empresa);
+    // Cliente e empresa têm que existir antes de ir pro journal (ID inválido quebraria os índices)
+    private Usuario validarClienteEmpresa(int cliente, int empresa) throws Exception {
+        Usuario u = this.controladorUsuario.getUsuario(cliente);
+        if (u == null) {
+            throw new ErroNaoEncontrado("Usuario nao cadastrado.");
+        }
+        if (this.controladorEmpresa.getEmpresa(empresa) == null) {
+            throw new ErroNaoEncontrado("Empresa nao cadastrada");
+        }
+        return u;
+    }
 
-        this.pedidosPorNumero.put(numero, p);
-        pedidosDoCliente.add(p); // Adiciona na lista do cliente
-        this.pedidosPorCliente.put(cliente, pedidosDoCliente);
+    // Bota o pedido (aberto) nos mapas
+    private void armazenar(Pedido p) {
+        this.pedidosPorNumero.put(p.getNumero(), p);
+        this.pedidoAbertoPorClienteEmpresa.put(chave(p.getIdCliente(), p.getIdEmpresa()), p);
+        indexar(p.getNumero(), p.getIdCliente(), p.getIdEmpresa(), p.getEstado());
+    }
 
-        return numero;
+    // Índices que valem pra aberto e fechado (o fechado já está no arquivo)
+    private void indexar(int numero, int cliente, int empresa, EstadoPedido estado) {
+        this.numerosPorClienteEmpresa.computeIfAbsent(chave(cliente, empresa), k -> new ListaDeInts()).add(numero);
+        entrarNoIndice(numero, empresa, estado);
+        this.proximoNumero.accumulateAndGet(numero + 1, Math::max);
     }
 
     public void adicionarProduto(int numero, int produto) throws Exception {
@@ -107,117 +422,563 @@ public class ControladorPedido {
 
         // Valida se o pedido existe
         if (p == null) {
+            if (this.arquivados.contem(numero)) {
+                throw new ErroDeEstado("Nao e possivel adcionar produtos a um pedido fechado");
+            }
             // O teste us1_1.txt espera essa msg exata
-            throw new Exception("Nao existe pedido em aberto");
+            throw new ErroNaoEncontrado("Nao existe pedido em aberto");
+        }
+
+        Lock travaCardapio = this.controladorProduto.travaDoCardapio(p.getIdEmpresa());
+        ReentrantLock trava = this.travasPorCliente.trava(p.getIdCliente());
+        travaCardapio.lock();
+        trava.lock();
+        try {
+            // Valida se o pedido já foi fechado
+            if (p.getEstado() != EstadoPedido.ABERTO) {
+                throw new ErroDeEstado("Nao e possivel adcionar produtos a um pedido fechado");
+            }
+
+            // Busca o produto
+            Produto prod = this.controladorProduto.getProdutoById(produto);
+            if (prod == null) {
+                throw new ErroNaoEncontrado("Produto nao encontrado");
+            }
+
+            // Validação: O produto é da mesma empresa do pedido?
+            if (prod.getIdEmpresa() != p.getIdEmpresa()) {
+                throw new ErroDeValidacao("O produto nao pertence a essa empresa");
+            }
+
+            // Se tudo OK, adiciona
+            guardarParaRetrato(numero);
+            registrarNoJournal("adicionarProduto", numero, produto);
+            if (p.adicionarProduto(prod)) {
+                abertosCom(prod.getId()).add(p);
+            }
+            this.cacheProdutos.invalidar(numero);
+        } finally {
+            trava.unlock();
+            travaCardapio.unlock();
+        }
+    }
+
+    // --- PEDIDO EM LOTE (o carrinho inteiro numa chamada) ---
+    // Os itens vêm como "produto[:quantidade]" separados por vírgula, ex.: "3:2, 7, 9:5".
+    // Valida tudo numa passada só (com as travas do cardápio e do cliente) e só então aplica:
+    // ou entram todos os itens, ou nenhum. Vai pro journal num registro só.
+
+    // Cria o pedido já com os itens (lista vazia = pedido vazio, igual ao criarPedido)
+    public int criarPedidoComProdutos(int cliente, int empresa, String produtos) throws Exception {
+        Usuario u = validarClienteEmpresa(cliente, empresa);
+        if (u instanceof DonoDeEmpresa) {
+            throw new ErroNaoPermitido("Dono de empresa nao pode fazer um pedido");
         }
-        // Valida se o pedido já foi fechado
-        if (!p.getEstado().equals("aberto")) {
-            throw new Exception("Nao e possivel adcionar produtos a um pedido fechado");
+        int[] itens = lerItens(produtos);
+
+        Lock travaCardapio = this.controladorProduto.travaDoCardapio(empresa);
+        ReentrantLock trava = this.travasPorCliente.trava(cliente);
+        travaCardapio.lock();
+        trava.lock();
+        try {
+            if (this.pedidoAbertoPorClienteEmpresa.containsKey(chave(cliente, empresa))) {
+                throw new ErroDeConflito("Nao e permitido ter dois pedidos em aberto para a mesma empresa");
+            }
+            Produto[] prods = validarItens(empresa, itens);
+
+            int numero = this.proximoNumero.getAndIncrement();
+            registrarNoJournal("criarPedidoComProdutos", numero, cliente, empresa, itens);
+            Pedido p = new Pedido(numero, cliente, empresa);
+            armazenar(p);
+            aplicarItens(p, prods, itens);
+            return numero;
+        } finally {
+            trava.unlock();
+            travaCardapio.unlock();
         }
+    }
 
-        // Busca o produto
-        Produto prod = this.controladorProduto.getProdutoById(produto);
-        if (prod == null) {
-            throw new Exception("Produto nao encontrado");
+    // Soma os itens num pedido aberto que já existe
+    public void adicionarProdutos(int numero, String produtos) throws Exception {
+        Pedido p = this.pedidosPorNumero.get(numero);
+        boolean fechado = p == null && this.arquivados.contem(numero);
+        if (p == null && !fechado) {
+            throw new ErroNaoEncontrado("Nao existe pedido em aberto");
+        }
+        int[] itens = lerItens(produtos);
+        if (itens.length == 0) {
+            throw new ErroDeValidacao("Lista de produtos invalida");
+        }
+        if (fechado) {
+            throw new ErroDeEstado("Nao e possivel adcionar produtos a um pedido fechado");
         }
 
-        // Validação: O produto é da mesma empresa do pedido?
-        if (prod.getIdEmpresa() != p.getIdEmpresa()) {
-            throw new Exception("O produto nao pertence a essa empresa");
+        Lock travaCardapio = this.controladorProduto.travaDoCardapio(p.getIdEmpresa());
+        ReentrantLock trava = this.travasPorCliente.trava(p.getIdCliente());
+        travaCardapio.lock();
+        trava.lock();
+        try {
+            if (p.getEstado() != EstadoPedido.ABERTO) {
+                throw new ErroDeEstado("Nao e possivel adcionar produtos a um pedido fechado");
+            }
+            Produto[] prods = validarItens(p.getIdEmpresa(), itens);
+
+            guardarParaRetrato(numero);
+            registrarNoJournal("adicionarProdutos", numero, itens);
+            aplicarItens(p, prods, itens);
+        } finally {
+            trava.unlock();
+            travaCardapio.unlock();
         }
+    }
 
-        // Se tudo OK, adiciona
-        p.adicionarProduto(prod);
+    // "3:2, 7, 3" -> pares (produto, quantidade) [3, 3, 7, 1]; produto repetido soma na primeira vez que aparece
+    private static int[] lerItens(String produtos) throws Exception {
+        Map<Integer, Integer> quantidades = new LinkedHashMap<>();
+        if (produtos != null) {
+            for (String parte : produtos.split(",")) {
+                String item = parte.trim();
+                if (item.isEmpty()) {
+                    continue;
+                }
+                int separador = item.indexOf(':');
+                int produto;
+                int quantidade;
+                try {
+                    produto = Integer.parseInt(separador < 0 ? item : item.substring(0, separador).trim());
+                    quantidade = separador < 0 ? 1 : Integer.parseInt(item.substring(separador + 1).trim());
+                } catch (NumberFormatException e) {
+                    throw new ErroDeValidacao("Lista de produtos invalida");
+                }
+                if (quantidade <= 0 || quantidade > MAX_QUANTIDADE_ITEM) {
+                    throw new ErroDeValidacao("Quantidade invalida");
+                }
+                int total = quantidades.merge(produto, quantidade, Integer::sum);
+                if (total > MAX_QUANTIDADE_ITEM) {
+                    throw new ErroDeValidacao("Quantidade invalida");
+                }
+            }
+        }
+        int[] itens = new int[quantidades.size() * 2];
+        int i = 0;
+        for (Map.Entry<Integer, Integer> e : quantidades.entrySet()) {
+            itens[i++] = e.getKey();
+            itens[i++] = e.getValue();
+        }
+        return itens;
+    }
+
+    // Mesmas checagens do adicionarProduto, pra cada item, antes de mexer em qualquer coisa
+    private Produto[] validarItens(int empresa, int[] itens) throws Exception {
+        Produto[] prods = new Produto[itens.length / 2];
+        for (int i = 0; i < prods.length; i++) {
+            Produto prod = this.controladorProduto.getProdutoById(itens[2 * i]);
+            if (prod == null) {
+                throw new ErroNaoEncontrado("Produto nao encontrado");
+            }
+            if (prod.getIdEmpresa() != empresa) {
+                throw new ErroDeValidacao("O produto nao pertence a essa empresa");
+            }
+            prods[i] = prod;
+        }
+        return prods;
+    }
+
+    // Chamar com as travas do cardápio e do cliente
+    private void aplicarItens(Pedido p, Produto[] prods, int[] itens) {
+        for (int i = 0; i < prods.length; i++) {
+            if (p.adicionarProduto(prods[i], itens[2 * i + 1])) {
+                abertosCom(prods[i].getId()).add(p);
+            }
+        }
+        this.cacheProdutos.invalidar(p.getNumero());
+    }
+
+    // Recuperação: os itens já foram validados quando o registro foi feito
+    private void reaplicarItens(Pedido p, int[] itens) {
+        List<Produto> prods = new ArrayList<>();
+        ListaDeInts pares = new ListaDeInts(itens.length);
+        for (int i = 0; i < itens.length; i += 2) {
+            Produto prod = this.controladorProduto.getProdutoById(itens[i]);
+            if (prod != null) {
+                prods.add(prod);
+                pares.add(itens[i]);
+                pares.add(itens[i + 1]);
+            }
+        }
+        aplicarItens(p, prods.toArray(new Produto[0]), pares.toArray());
     }
 
     // Pega um atributo do pedido
     public String getPedidos(int pedido, String atributo) throws Exception {
-        Pedido p = this.pedidosPorNumero.get(pedido);
+        int cliente = clienteDoPedido(pedido);
 
-        if (p == null) {
-            throw new Exception("Pedido nao encontrado");
+        if (cliente < 0) {
+            throw new ErroNaoEncontrado("Pedido nao encontrado");
         }
         if (atributo == null || atributo.trim().isEmpty()) {
-            throw new Exception("Atributo invalido");
+            throw new ErroDeValidacao("Atributo invalido");
         }
 
         switch (atributo) {
             case "cliente":
-                Usuario u = this.controladorUsuario.getUsuario(p.getIdCliente());
+                Usuario u = this.controladorUsuario.getUsuario(cliente);
                 return u.getNome();
             case "empresa":
-                Restaurante r = this.controladorEmpresa.getEmpresa(p.getIdEmpresa());
+                Restaurante r = this.controladorEmpresa.getEmpresa(empresaDoPedido(pedido));
                 return r.getNome();
             case "estado":
-                return p.getEstado();
             case "produtos":
-                // Formata a lista de produtos: "{[Prod1, Prod2]}"
-                StringBuilder sb = new StringBuilder("{[");
-                List<Produto> produtos = p.getProdutos();
-                for (int i = 0; i < produtos.size(); i++) {
-                    sb.append(produtos.get(i).getNome());
-                    if (i < produtos.size() - 1) {
-                        sb.append(", ");
-                    }
-                }
-                sb.append("]}");
-                return sb.toString();
             case "valor":
-                // Formata o valor total pra "15.00"
-                return String.format("%.2f", p.getValorTotal()).replace(",", ".");
+                // Esses mudam com o pedido aberto, então lê com a trava do cliente
+                // (com ela, o pedido não troca de lugar entre a heap e o arquivo)
+                ReentrantLock trava = this.travasPorCliente.trava(cliente);
+                trava.lock();
+                try {
+                    return getAtributoMutavel(pedido, atributo);
+                } finally {
+                    trava.unlock();
+                }
             default:
-                throw new Exception("Atributo nao existe");
+                throw new ErroDeValidacao("Atributo nao existe");
+        }
+    }
+
+    private String getAtributoMutavel(int numero, String atributo) {
+        Pedido p = this.pedidosPorNumero.get(numero);
+        switch (atributo) {
+            case "estado":
+                return estadoDoPedido(numero).getNome();
+            case "produtos":
+                long versao = this.controladorProduto.getVersaoDosNomes(empresaDoPedido(numero));
+                return this.cacheProdutos.obter(numero, versao, () -> {
+                    // Formata a lista de produtos: "{[Prod1, Prod1, Prod2]}"
+                    // (cada produto aparece uma vez por unidade, agrupado)
+                    int[] itens = p != null ? itensDe(p) : this.arquivados.getItens(numero);
+                    StringBuilder sb = new StringBuilder("{[");
+                    boolean primeiro = true;
+                    for (int i = 0; i < itens.length; i += 2) {
+                        Produto prod = this.controladorProduto.getProdutoById(itens[i]);
+                        if (prod == null) {
+                            continue;
+                        }
+                        for (int j = 0; j < itens[i + 1]; j++) {
+                            if (!primeiro) {
+                                sb.append(", ");
+                            }
+                            sb.append(prod.getNome());
+                            primeiro = false;
+                        }
+                    }
+                    sb.append("]}");
+                    return sb.toString();
+                });
+            default:
+                // Formata o valor total pra "15.00"
+                long centavos = p != null ? p.getValorTotalCentavos() : this.arquivados.getTotalCentavos(numero);
+                return String.format("%d.%02d", centavos / 100, centavos % 100);
         }
     }
 
     public void fecharPedido(int numero) throws Exception {
         Pedido p = this.pedidosPorNumero.get(numero);
         if (p == null) {
-            throw new Exception("Pedido nao encontrado");
+            if (this.arquivados.contem(numero)) {
+                throw new ErroDeEstado("Nao e possivel fechar um pedido que nao esta aberto");
+            }
+            throw new ErroNaoEncontrado("Pedido nao encontrado");
+        }
+        ReentrantLock trava = this.travasPorCliente.trava(p.getIdCliente());
+        trava.lock();
+        try {
+            if (p.getEstado() != EstadoPedido.ABERTO) {
+                throw new ErroDeEstado("Nao e possivel fechar um pedido que nao esta aberto");
+            }
+            guardarParaRetrato(numero);
+            registrarNoJournal("fecharPedido", numero);
+            p.setEstado(EstadoPedido.PREPARANDO);
+            moverNoIndice(numero, p.getIdEmpresa(), EstadoPedido.ABERTO, EstadoPedido.PREPARANDO);
+            // Daqui pra frente o total não muda mais com o preço dos produtos
+            for (ItemPedido item : p.getItens()) {
+                abertosCom(item.getProduto().getId()).remove(p);
+            }
+            // Libera o cliente pra abrir outro pedido nessa empresa
+            this.pedidoAbertoPorClienteEmpresa.remove(chave(p.getIdCliente(), p.getIdEmpresa()), p);
+            // Itens e total não mudam mais: sai da heap e vai pro arquivo
+            // (grava lá antes de tirar daqui, pra quem lê sem trava sempre achar em um dos dois)
+            this.arquivados.arquivar(numero, p.getIdCliente(), p.getIdEmpresa(), p.getEstado(), p.getValorTotalCentavos(), itensDe(p));
+            this.pedidosPorNumero.remove(numero);
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    // --- CICLO DE VIDA DEPOIS DE FECHADO ---
+
+    // Empresa terminou de preparar: preparando -> pronto
+    public void liberarPedido(int numero) throws Exception {
+        int cliente = clienteDoPedido(numero);
+        if (cliente < 0) {
+            throw new ErroNaoEncontrado("Pedido nao encontrado");
+        }
+
+        ReentrantLock trava = this.travasPorCliente.trava(cliente);
+        trava.lock();
+        try {
+            EstadoPedido estado = estadoDoPedido(numero);
+            if (estado.compareTo(EstadoPedido.PRONTO) >= 0) {
+                throw new ErroDeEstado("Pedido ja liberado");
+            }
+            if (estado != EstadoPedido.PREPARANDO) {
+                throw new ErroDeEstado("Nao e possivel liberar um produto que nao esta sendo preparado");
+            }
+            guardarParaRetrato(numero);
+            registrarNoJournal("liberarPedido", numero);
+            mudarEstadoArquivado(numero, estado, EstadoPedido.PRONTO);
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    // Saiu pra entrega: pronto -> entregando
+    public void despacharPedido(int numero) throws Exception {
+        avancarEstado(numero, EstadoPedido.ENTREGANDO, "despacharPedido", "Pedido nao esta pronto para entrega");
+    }
+
+    // Chegou no cliente: entregando -> entregue
+    public void entregarPedido(int numero) throws Exception {
+        avancarEstado(numero, EstadoPedido.ENTREGUE, "entregarPedido", "Pedido nao esta em entrega");
+    }
+
+    private void avancarEstado(int numero, EstadoPedido destino, String operacao, String mensagemErro) throws Exception {
+        int cliente = clienteDoPedido(numero);
+        if (cliente < 0) {
+            throw new ErroNaoEncontrado("Pedido nao encontrado");
+        }
+
+        ReentrantLock trava = this.travasPorCliente.trava(cliente);
+        trava.lock();
+        try {
+            EstadoPedido estado = estadoDoPedido(numero);
+            if (!estado.podeIrPara(destino)) {
+                throw new ErroDeEstado(mensagemErro);
+            }
+            guardarParaRetrato(numero);
+            registrarNoJournal(operacao, numero);
+            mudarEstadoArquivado(numero, estado, destino);
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    // Depois de preparando o pedido só existe no arquivo: troca o byte do estado lá
+    // e move o pedido de fila no índice por estado (chamar com a trava do cliente)
+    private void mudarEstadoArquivado(int numero, EstadoPedido antigo, EstadoPedido novo) {
+        this.arquivados.setEstado(numero, novo);
+        moverNoIndice(numero, this.arquivados.getEmpresa(numero), antigo, novo);
+    }
+
+    // Entregue é o último estado, então nunca é o "antigo" aqui
+    private void moverNoIndice(int numero, int empresa, EstadoPedido antigo, EstadoPedido novo) {
+        indiceDoEstado(antigo, empresa).remove(numero);
+        entrarNoIndice(numero, empresa, novo);
+    }
+
+    private void entrarNoIndice(int numero, int empresa, EstadoPedido estado) {
+        if (estado != EstadoPedido.ENTREGUE) {
+            indiceDoEstado(estado, empresa).add(numero);
+            return;
+        }
+        ListaDeInts entregues = this.entreguesPorEmpresa.computeIfAbsent(empresa, k -> new ListaDeInts());
+        synchronized (entregues) {
+            entregues.add(numero);
         }
-        // Apenas muda o estado
-        p.setEstado("preparando");
+    }
+
+    // --- ONDE O PEDIDO ESTÁ (heap se aberto, arquivo se fechado) ---
+
+    // -1 se o pedido não existe. Cliente e empresa nunca mudam, então não precisa de trava.
+    private int clienteDoPedido(int numero) {
+        Pedido p = this.pedidosPorNumero.get(numero);
+        return p != null ? p.getIdCliente() : this.arquivados.getCliente(numero);
+    }
+
+    private int empresaDoPedido(int numero) {
+        Pedido p = this.pedidosPorNumero.get(numero);
+        return p != null ? p.getIdEmpresa() : this.arquivados.getEmpresa(numero);
+    }
+
+    // Chamar com a trava do cliente (o pedido existe)
+    private EstadoPedido estadoDoPedido(int numero) {
+        Pedido p = this.pedidosPorNumero.get(numero);
+        return p != null ? p.getEstado() : this.arquivados.getEstado(numero);
+    }
+
+    // Pares (ID do produto, quantidade) na ordem do pedido
+    private static int[] itensDe(Pedido p) {
+        int[] itens = new int[p.getItens().size() * 2];
+        int i = 0;
+        for (ItemPedido item : p.getItens()) {
+            itens[i++] = item.getProduto().getId();
+            itens[i++] = item.getQuantidade();
+        }
+        return itens;
+    }
+
+    private Set<Integer> indiceDoEstado(EstadoPedido estado, int empresa) {
+        return this.pedidosPorEstado.get(estado).computeIfAbsent(empresa, k -> new ConcurrentSkipListSet<>());
+    }
+
+    // Fila de pedidos de uma empresa num estado, do mais antigo pro mais novo: "{[3, 7, 9]}"
+    public String getPedidosPorEstado(int empresa, String estado) throws Exception {
+        if (this.controladorEmpresa.getEmpresa(empresa) == null) {
+            throw new ErroNaoEncontrado("Empresa nao encontrada");
+        }
+        EstadoPedido e = EstadoPedido.porNome(estado);
+        if (e == null) {
+            throw new ErroDeValidacao("Estado invalido");
+        }
+
+        StringBuilder sb = new StringBuilder("{[");
+        boolean primeiro = true;
+        for (int numero : numerosNoEstado(empresa, e)) {
+            if (!primeiro) {
+                sb.append(", ");
+            }
+            sb.append(numero);
+            primeiro = false;
+        }
+        sb.append("]}");
+        return sb.toString();
+    }
+
+    // Números em ordem crescente (cópia, pra montar a string sem segurar nada)
+    private int[] numerosNoEstado(int empresa, EstadoPedido estado) {
+        if (estado == EstadoPedido.ENTREGUE) {
+            ListaDeInts entregues = this.entreguesPorEmpresa.get(empresa);
+            if (entregues == null) {
+                return new int[0];
+            }
+            int[] numeros;
+            synchronized (entregues) {
+                numeros = entregues.toArray();
+            }
+            Arrays.sort(numeros);
+            return numeros;
+        }
+        Set<Integer> numeros = this.pedidosPorEstado.get(estado).get(empresa);
+        return numeros == null ? new int[0] : numeros.stream().mapToInt(Integer::intValue).toArray();
     }
 
     public void removerProduto(int pedido, String produto) throws Exception {
         Pedido p = this.pedidosPorNumero.get(pedido);
+        boolean fechado = p == null && this.arquivados.contem(pedido);
 
-        if (p == null) {
-            throw new Exception("Pedido nao encontrado");
+        if (p == null && !fechado) {
+            throw new ErroNaoEncontrado("Pedido nao encontrado");
         }
         if (produto == null || produto.trim().isEmpty()) {
-            throw new Exception("Produto invalido");
+            throw new ErroDeValidacao("Produto invalido");
         }
-        // Não pode remover se o pedido já foi fechado
-        if (!p.getEstado().equals("aberto")) {
-            throw new Exception("Nao e possivel remover produtos de um pedido fechado");
+        if (fechado) {
+            throw new ErroDeEstado("Nao e possivel remover produtos de um pedido fechado");
         }
+        Lock travaCardapio = this.controladorProduto.travaDoCardapio(p.getIdEmpresa());
+        ReentrantLock trava = this.travasPorCliente.trava(p.getIdCliente());
+        travaCardapio.lock();
+        trava.lock();
+        try {
+            // Não pode remover se o pedido já foi fechado
+            if (p.getEstado() != EstadoPedido.ABERTO) {
+                throw new ErroDeEstado("Nao e possivel remover produtos de um pedido fechado");
+            }
 
-        // Tenta remover (metodo no modelo Pedido.java)
-        boolean removeu = p.removerProduto(produto);
-        if (!removeu) {
-            // Se não removeu, é porque não achou
-            throw new Exception("Produto nao encontrado");
+            // Acha o produto pelo nome no cardápio e tira uma unidade dele do pedido
+            Produto prod = this.controladorProduto.buscarPorNome(p.getIdEmpresa(), produto);
+            guardarParaRetrato(pedido);
+            if (prod == null || !tirarItem(p, prod)) {
+                // Se não removeu, é porque não achou
+                throw new ErroNaoEncontrado("Produto nao encontrado");
+            }
+            registrarNoJournal("removerProduto", pedido, prod.getId());
+        } finally {
+            trava.unlock();
+            travaCardapio.unlock();
         }
     }
 
-    public int getNumeroPedido(int cliente, int empresa, int indice) throws Exception {
-        List<Pedido> pedidosDoCliente = this.pedidosPorCliente.getOrDefault(cliente, new ArrayList<>());
+    // Tira uma unidade e, se era a última, tira o pedido do índice do produto
+    private boolean tirarItem(Pedido p, Produto prod) {
+        if (!p.removerProduto(prod.getId())) {
+            return false;
+        }
+        if (p.getQuantidade(prod.getId()) == 0) {
+            abertosCom(prod.getId()).remove(p);
+        }
+        this.cacheProdutos.invalidar(p.getNumero());
+        return true;
+    }
 
-        // Filtra só os pedidos para a empresa correta
-        List<Pedido> pedidosFiltrados = new ArrayList<>();
-        for (Pedido p : pedidosDoCliente) {
-            if (p.getIdEmpresa() == empresa) {
-                pedidosFiltrados.add(p);
+    // --- PREÇOS ---
+
+    // Chamado pelo ControladorProduto (com a trava de escrita do cardápio) quando um preço muda.
+    // Só os pedidos abertos que têm o produto são tocados, e cada um em O(1).
+    private void precoAlterado(Produto prod, long centavosAntes) {
+        Set<Pedido> pedidos = this.abertosPorProduto.get(prod.getId());
+        if (pedidos == null) {
+            return;
+        }
+        long diferenca = prod.getValorCentavos() - centavosAntes;
+        this.mudancas.marcar();
+        for (Pedido p : pedidos) {
+            ReentrantLock trava = this.travasPorCliente.trava(p.getIdCliente());
+            trava.lock();
+            try {
+                if (p.getEstado() == EstadoPedido.ABERTO) {
+                    guardarParaRetrato(p.getNumero());
+                    p.ajustarPreco(prod.getId(), diferenca);
+                }
+            } finally {
+                trava.unlock();
             }
         }
+    }
+
+    public CacheDeTexto<Integer> getCacheProdutos() {
+        return this.cacheProdutos;
+    }
+
+    private Set<Pedido> abertosCom(int idProduto) {
+        return this.abertosPorProduto.computeIfAbsent(idProduto, k -> ConcurrentHashMap.newKeySet());
+    }
+
+    // Só registra se tiver journal (durante a recuperação não tem)
+    private void registrarNoJournal(String operacao, Object... argumentos) {
+        this.mudancas.marcar();
+        if (this.journal != null) {
+            this.journal.registrar(operacao, argumentos);
+        }
+    }
+
+    public int getNumeroPedido(int cliente, int empresa, int indice) throws Exception {
+        ReentrantLock trava = this.travasPorCliente.trava(cliente);
+        trava.lock();
+        try {
+            // A lista já está na ordem de criação (FIFO)
+            ListaDeInts numeros = this.numerosPorClienteEmpresa.get(chave(cliente, empresa));
+            if (numeros == null || indice < 0 || indice >= numeros.size()) {
+                throw new ErroNaoEncontrado("Indice invalido ou pedido nao existe");
+            }
 
-        // A lista já está na ordem de criação (FIFO)
-        if (indice < 0 || indice >= pedidosFiltrados.size()) {
-            throw new Exception("Indice invalido ou pedido nao existe");
+            // Retorna o número do pedido naquele índice
+            return numeros.get(indice);
+        } finally {
+            trava.unlock();
         }
+    }
 
-        // Retorna o número do pedido naquele índice
-        return pedidosFiltrados.get(indice).getNumero();
+    // Junta cliente e empresa numa chave só
+    private static long chave(int cliente, int empresa) {
+        return ((long) cliente << 32) | (empresa & 0xFFFFFFFFL);
     }
 }
\ No newline at end of file
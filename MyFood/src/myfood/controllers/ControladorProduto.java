@@ -1,75 +1,249 @@
 package myfood.controllers;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+import myfood.colecoes.ListaDeInts;
+import myfood.colecoes.TabelaPorId;
+import myfood.erros.ErroDeConflito;
+import myfood.erros.ErroDeValidacao;
+import myfood.erros.ErroNaoEncontrado;
+import myfood.models.Dicionarios;
 import myfood.models.Produto;
 import myfood.models.Restaurante;
+import myfood.persistencia.ControleDeMudancas;
+import myfood.persistencia.FormatoBinario;
+import myfood.persistencia.Journal;
+import myfood.persistencia.RegistroJournal;
+import myfood.repositorio.Repositorio;
+import myfood.repositorio.Repositorios;
 
 // "Cérebro" que gerencia os Produtos
+// Seguro pra várias threads: o cardápio de cada empresa (a lista, a regra
+// de nome único e os preços) é protegido por uma trava listrada de leitura/escrita
+// por empresa. Criar/editar produto escreve; consultas e os pedidos só leem.
 public class ControladorProduto {
 
     // Mapas de armazenamento
-    private Map<Integer, Produto> produtosPorId;
-    private Map<Integer, List<Produto>> produtosPorEmpresa; // (idEmpresa -> Lista de Produtos)
-    private int proximoId;
+    // Por ID (de produto ou de empresa), que é a posição na tabela: os IDs são sequenciais
+    // Sempre em memória: o produto muda (editarProduto) e os pedidos e índices guardam a referência dele
+    private Repositorio<Produto> produtosPorId;
+    private TabelaPorId<List<Produto>> produtosPorEmpresa; // (idEmpresa -> Lista de Produtos)
+    // (idEmpresa -> nome -> Produto), pra achar pelo nome sem varrer o cardápio.
+    // Os mapas internos são HashMap comum: só mexe/lê com a trava da empresa.
+    private TabelaPorId<Map<String, Produto>> produtosPorNome;
+    private final AtomicInteger proximoId = new AtomicInteger(1);
+
+    private final TravasListradas<ReentrantReadWriteLock> travasPorEmpresa = new TravasListradas<>(64, ReentrantReadWriteLock::new);
+
+    // String do listarProdutos por empresa (muda quando cria ou renomeia produto)
+    private final CacheDeTexto<Integer> cacheCardapio = new CacheDeTexto<>(4096);
+    // Sobe a cada renomeação na empresa; quem guarda nome de produto em cache confere isso
+    private TabelaPorId<AtomicLong> versaoDosNomes;
+
+    // Palavras do nome, categoria, empresa e preço -> produtos (pro buscarProdutos)
+    private IndiceDeProdutos indice;
+
+    // Avisados quando um preço muda
+    private final List<OuvinteDePreco> ouvintes = new CopyOnWriteArrayList<>();
+
+    private static final int TAMANHO_MAXIMO_PAGINA = 1000;
 
     private static final String ARQUIVO_DADOS_PRODUTO = "produtos_data.dat";
+    private final String arquivoDados;
+
+    private Journal journal;
+    private long seqSnapshot; // Até qual seq do journal o save já contém
+    private final ControleDeMudancas mudancas = new ControleDeMudancas(); // Sem mudança não regrava o save
+
+    // Retrato do checkpoint (copy-on-write): o editarProduto guarda aqui como o produto estava
+    // no retrato antes de mexer nele (só na primeira vez), e o save grava essa cópia no lugar do vivo.
+    private volatile int proximoIdNoRetrato; // 0 = nenhum retrato sendo gravado
+    private final Map<Integer, Produto> anterioresAoRetrato = new ConcurrentHashMap<>();
 
     // Referência ao ControladorEmpresa (pra validar)
     private ControladorEmpresa controladorEmpresa;
 
-    public ControladorProduto(ControladorEmpresa controladorEmpresa) {
+    public ControladorProduto(File diretorio, ControladorEmpresa controladorEmpresa) {
+        this.arquivoDados = new File(diretorio, ARQUIVO_DADOS_PRODUTO).getPath();
         this.controladorEmpresa = controladorEmpresa;
-        this.carregarDados();
+        this.limparMapas();
     }
 
     // --- LÓGICA DE PERSISTÊNCIA (Salvar, Carregar, Zerar) ---
 
-    public void salvarDados() {
-        try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(ARQUIVO_DADOS_PRODUTO))) {
-            oos.writeObject(this.produtosPorId);
-            oos.writeObject(this.produtosPorEmpresa);
-            oos.writeObject(this.proximoId);
+    // Chamado pela Facade com as escritas paradas. Uma cópia que sobrou de um retrato
+    // anterior (edição que correu com o fim dele) é jogada fora aqui.
+    public void tirarRetrato() {
+        this.anterioresAoRetrato.clear();
+        this.proximoIdNoRetrato = this.proximoId.get();
+        this.mudancas.retratar();
+    }
+
+    // Grava os produtos como estavam no retrato, com as escritas acontecendo
+    public boolean salvarDados(long seqJournal) {
+        try {
+            if (!this.mudancas.retratoTemMudancas() && new File(this.arquivoDados).exists()) {
+                return true; // O arquivo que está lá continua valendo
+            }
+            int limite = this.proximoIdNoRetrato;
+            FormatoBinario.gravar(this.arquivoDados, FormatoBinario.TIPO_PRODUTOS, out -> {
+                // Em ordem de ID (a tabela já devolve assim), pros cardápios voltarem na ordem de criação
+                List<Produto> produtos = this.produtosPorId.valores();
+                produtos.removeIf(p -> p.getId() >= limite);
+                FormatoBinario.SecaoDicionario categorias = new FormatoBinario.SecaoDicionario(Dicionarios.CATEGORIAS);
+                int[] categoria = new int[produtos.size()];
+                for (int i = 0; i < categoria.length; i++) {
+                    Produto p = produtos.get(i);
+                    Lock trava = this.travasPorEmpresa.trava(p.getIdEmpresa()).readLock();
+                    trava.lock();
+                    try {
+                        categoria[i] = categorias.local(noRetrato(p).getCodigoCategoria());
+                    } finally {
+                        trava.unlock();
+                    }
+                }
+                out.writeLong(seqJournal);
+                out.writeInt(limite);
+                categorias.escrever(out);
+                out.writeInt(produtos.size());
+                for (int i = 0; i < categoria.length; i++) {
+                    Produto p = produtos.get(i);
+                    String nome;
+                    float valor;
+                    Lock trava = this.travasPorEmpresa.trava(p.getIdEmpresa()).readLock();
+                    trava.lock();
+                    try {
+                        nome = noRetrato(p).getNome();
+                        valor = noRetrato(p).getValor();
+                    } finally {
+                        trava.unlock();
+                    }
+                    out.writeInt(p.getId());
+                    out.writeInt(p.getIdEmpresa());
+                    FormatoBinario.escreverString(out, nome);
+                    out.writeFloat(valor);
+                    out.writeInt(categoria[i]);
+                }
+            });
+            this.seqSnapshot = seqJournal;
+            this.mudancas.retratoSalvo();
+            return true;
         } catch (Exception e) {
             System.err.println("Erro ao salvar dados de produtos: " + e.getMessage());
+            return false;
+        } finally {
+            this.proximoIdNoRetrato = 0;
+            this.anterioresAoRetrato.clear();
         }
     }
 
-    @SuppressWarnings("unchecked")
-    private void carregarDados() {
-        File f = new File(ARQUIVO_DADOS_PRODUTO);
-        if (f.exists()) {
-            try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(ARQUIVO_DADOS_PRODUTO))) {
-                this.produtosPorId = (Map<Integer, Produto>) ois.readObject();
-                this.produtosPorEmpresa = (Map<Integer, List<Produto>>) ois.readObject();
-                this.proximoId = (int) ois.readObject();
-            } catch (Exception e) {
-                System.err.println("Erro ao carregar dados de produtos, começando do zero: " + e.getMessage());
+    // O produto como estava no retrato: a cópia, se uma edição já passou por ele, senão o vivo.
+    // Ler os campos com a trava de leitura do cardápio; como a edição guarda a cópia (com a de
+    // escrita) antes de mexer, sem cópia o vivo ainda é o do retrato. Vale entre as duas passadas do save.
+    private Produto noRetrato(Produto p) {
+        Produto anterior = this.anterioresAoRetrato.get(p.getId());
+        return anterior != null ? anterior : p;
+    }
+
+    // Chamar com a trava de escrita do cardápio, antes de mudar o produto
+    private void guardarParaRetrato(Produto p) {
+        if (p.getId() < this.proximoIdNoRetrato && !this.anterioresAoRetrato.containsKey(p.getId())) {
+            this.anterioresAoRetrato.put(p.getId(), new Produto(p.getId(), p.getIdEmpresa(), p.getNome(), p.getValor(), p.getCategoria()));
+        }
+    }
+
+    public void carregarDados() {
+        try {
+            ByteBuffer buf = FormatoBinario.mapear(this.arquivoDados, FormatoBinario.TIPO_PRODUTOS);
+            if (buf == null) {
                 this.zerar();
+                return;
             }
-        } else {
-            this.zerar();
+
+            this.limparMapas();
+            this.seqSnapshot = buf.getLong();
+            this.proximoId.set(buf.getInt());
+            String[] categorias = FormatoBinario.lerDicionario(buf);
+            int quantidade = buf.getInt();
+            for (int i = 0; i < quantidade; i++) {
+                int id = buf.getInt();
+                int empresa = buf.getInt();
+                String nome = FormatoBinario.lerString(buf);
+                float valor = buf.getFloat();
+                String categoria = FormatoBinario.texto(categorias, buf.getInt());
+                armazenar(new Produto(id, empresa, nome, valor, categoria));
+            }
+        } catch (Exception e) {
+            throw FormatoBinario.saveIlegivel(this.arquivoDados, "produtos", e);
         }
     }
 
     public void zerar() {
-        this.produtosPorId = new HashMap<>();
-        this.produtosPorEmpresa = new HashMap<>();
-        this.proximoId = 1;
+        this.limparMapas();
 
-        File f = new File(ARQUIVO_DADOS_PRODUTO);
+        File f = new File(this.arquivoDados);
         if (f.exists()) {
             f.delete();
         }
     }
 
+    private void limparMapas() {
+        this.produtosPorId = Repositorios.emMemoria();
+        this.produtosPorEmpresa = new TabelaPorId<>();
+        this.produtosPorNome = new TabelaPorId<>();
+        this.versaoDosNomes = new TabelaPorId<>();
+        this.indice = new IndiceDeProdutos();
+        this.cacheCardapio.limpar();
+        this.proximoId.set(1);
+        this.seqSnapshot = 0;
+        this.mudancas.limpar();
+    }
+
+    // --- JOURNAL ---
+
+    public void setJournal(Journal journal) {
+        this.journal = journal;
+    }
+
+    public long getSeqSnapshot() {
+        return this.seqSnapshot;
+    }
+
+    // Quantos produtos existem (medidor das métricas)
+    public int getQuantidadeProdutos() {
+        return this.produtosPorId.size();
+    }
+
+    // Refaz uma operação de produto que estava no journal
+    public void reaplicar(RegistroJournal r) throws Exception {
+        if (r.getSeq() <= this.seqSnapshot) {
+            return;
+        }
+        this.mudancas.marcar();
+        switch (r.getOperacao()) {
+            case "criarProduto":
+                armazenar(new Produto(r.getInt(0), r.getInt(1), r.getString(2), r.getFloat(3), r.getString(4)));
+                break;
+            case "editarProduto":
+                editarProduto(r.getInt(0), r.getString(1), r.getFloat(2), r.getString(3));
+                break;
+        }
+    }
+
     // --- MÉTODOS DA US3 ---
 
     public int criarProduto(int empresa, String nome, float valor, String categoria) throws Exception {
@@ -77,61 +251,194 @@ public class ControladorProduto {
         validarStringNulaOuVazia(nome, "Nome invalido");
         validarStringNulaOuVazia(categoria, "Categoria invalido");
         if (valor < 0) {
-            throw new Exception("Valor invalido");
+            throw new ErroDeValidacao("Valor invalido");
+        }
+        if (this.controladorEmpresa.getEmpresa(empresa) == null) {
+            throw new ErroNaoEncontrado("Empresa nao cadastrada");
+        }
+
+        Lock trava = this.travasPorEmpresa.trava(empresa).writeLock();
+        trava.lock();
+        try {
+            // Validação de regra: Mesmo produto (nome) na mesma empresa
+            if (nomesDaEmpresa(empresa).containsKey(nome)) {
+                throw new ErroDeConflito("Ja existe um produto com esse nome para essa empresa");
+            }
+
+            // Se passou, registra no journal, cria e armazena
+            int id = this.proximoId.getAndIncrement();
+            registrarNoJournal("criarProduto", id, empresa, nome, valor, categoria);
+            armazenar(new Produto(id, empresa, nome, valor, categoria));
+
+            return id;
+        } finally {
+            trava.unlock();
         }
+    }
+
+    // --- IMPORTAÇÃO EM MASSA ---
+
+    // Colunas do arquivo de importação
+    public static final String[] COLUNAS_IMPORTACAO = {"empresa", "nome", "valor", "categoria"};
+
+    // Cria um lote de produtos com as mesmas regras do criarProduto.
+    // Retorna o erro de cada linha (null = criado), na ordem das linhas.
+    // As validações de campo rodam em paralelo; depois, empresa por empresa (uma trava de
+    // cardápio por vez), confere o nome contra o cardápio e o próprio lote e reserva os IDs de uma vez.
+    public String[] importarProdutos(List<String[]> linhas) {
+        String[] erros = new String[linhas.size()];
+        int[] empresas = new int[linhas.size()];
+        float[] valores = new float[linhas.size()];
+        IntStream.range(0, linhas.size()).parallel().forEach(i -> {
+            String[] c = linhas.get(i);
+            try {
+                try {
+                    empresas[i] = Integer.parseInt(c[0].trim());
+                } catch (NullPointerException | NumberFormatException e) {
+                    throw new ErroDeValidacao("Empresa invalida");
+                }
+                validarStringNulaOuVazia(c[1], "Nome invalido");
+                validarStringNulaOuVazia(c[3], "Categoria invalido");
+                try {
+                    valores[i] = Float.parseFloat(c[2].trim());
+                } catch (NullPointerException | NumberFormatException e) {
+                    throw new ErroDeValidacao("Valor invalido");
+                }
+                if (valores[i] < 0) {
+                    throw new ErroDeValidacao("Valor invalido");
+                }
+                if (this.controladorEmpresa.getEmpresa(empresas[i]) == null) {
+                    throw new ErroNaoEncontrado("Empresa nao cadastrada");
+                }
+            } catch (ErroDeValidacao | ErroNaoEncontrado e) {
+                erros[i] = e.getMessage();
+            }
+        });
 
-        // Validação de regra: Mesmo produto (nome) na mesma empresa
-        List<Produto> lista = this.produtosPorEmpresa.getOrDefault(empresa, new ArrayList<>());
-        for (Produto p : lista) {
-            if (p.getNome().equals(nome)) {
-                throw new Exception("Ja existe um produto com esse nome para essa empresa");
+        // Linhas válidas agrupadas por empresa (na ordem em que a empresa aparece no lote)
+        Map<Integer, ListaDeInts> porEmpresa = new LinkedHashMap<>();
+        for (int i = 0; i < erros.length; i++) {
+            if (erros[i] == null) {
+                porEmpresa.computeIfAbsent(empresas[i], k -> new ListaDeInts()).add(i);
             }
         }
 
-        // Se passou, cria e armazena
-        int id = this.proximoId++;
-        Produto p = new Produto(id, empresa, nome, valor, categoria);
+        for (Map.Entry<Integer, ListaDeInts> grupo : porEmpresa.entrySet()) {
+            int empresa = grupo.getKey();
+            ListaDeInts indices = grupo.getValue();
+            Lock trava = this.travasPorEmpresa.trava(empresa).writeLock();
+            trava.lock();
+            try {
+                Map<String, Produto> nomes = nomesDaEmpresa(empresa);
+                Set<String> nomesDoLote = new HashSet<>();
+                ListaDeInts aceitas = new ListaDeInts(indices.size());
+                for (int j = 0; j < indices.size(); j++) {
+                    int i = indices.get(j);
+                    String nome = linhas.get(i)[1];
+                    if (nomes.containsKey(nome) || !nomesDoLote.add(nome)) {
+                        erros[i] = "Ja existe um produto com esse nome para essa empresa";
+                    } else {
+                        aceitas.add(i);
+                    }
+                }
+                if (aceitas.isEmpty()) {
+                    continue;
+                }
 
-        this.produtosPorId.put(id, p);
-        lista.add(p);
-        this.produtosPorEmpresa.put(empresa, lista);
+                int id = this.proximoId.getAndAdd(aceitas.size());
+                String[] operacoes = new String[aceitas.size()];
+                Object[][] argumentos = new Object[aceitas.size()][];
+                Produto[] novos = new Produto[aceitas.size()];
+                for (int k = 0; k < aceitas.size(); k++, id++) {
+                    int i = aceitas.get(k);
+                    String[] c = linhas.get(i);
+                    operacoes[k] = "criarProduto";
+                    argumentos[k] = new Object[]{id, empresa, c[1], valores[i], c[3]};
+                    novos[k] = new Produto(id, empresa, c[1], valores[i], c[3]);
+                }
+                this.mudancas.marcar();
+                if (this.journal != null) {
+                    this.journal.registrarLote(operacoes, argumentos);
+                }
+                for (Produto p : novos) {
+                    armazenar(p);
+                }
+            } finally {
+                trava.unlock();
+            }
+        }
+        return erros;
+    }
 
-        return id;
+    // Bota o produto nos mapas
+    private void armazenar(Produto p) {
+        this.produtosPorId.put(p.getId(), p);
+        this.produtosPorEmpresa.computeIfAbsent(p.getIdEmpresa(), k -> new ArrayList<>()).add(p);
+        // Se um save antigo tiver nome repetido, vale o primeiro (como era na busca linear)
+        nomesDaEmpresa(p.getIdEmpresa()).putIfAbsent(p.getNome(), p);
+        this.indice.adicionar(p);
+        this.cacheCardapio.invalidar(p.getIdEmpresa());
+        this.proximoId.accumulateAndGet(p.getId() + 1, Math::max);
     }
 
     public void editarProduto(int produto, String nome, float valor, String categoria) throws Exception {
         // Busca o produto
         Produto p = this.produtosPorId.get(produto);
         if (p == null) {
-            throw new Exception("Produto nao cadastrado");
+            throw new ErroNaoEncontrado("Produto nao cadastrado");
         }
 
         // Validações (mesmas da criação)
         validarStringNulaOuVazia(nome, "Nome invalido");
         validarStringNulaOuVazia(categoria, "Categoria invalido");
         if (valor < 0) {
-            throw new Exception("Valor invalido");
+            throw new ErroDeValidacao("Valor invalido");
         }
 
         // Atualiza os dados do objeto (que já tá no mapa)
-        p.setNome(nome);
-        p.setValor(valor);
-        p.setCategoria(categoria);
-    }
+        Lock trava = this.travasPorEmpresa.trava(p.getIdEmpresa()).writeLock();
+        trava.lock();
+        try {
+            // Renomear não pode bater com o nome de outro produto da empresa
+            Map<String, Produto> nomes = nomesDaEmpresa(p.getIdEmpresa());
+            Produto mesmoNome = nomes.get(nome);
+            if (mesmoNome != null && mesmoNome != p) {
+                throw new ErroDeConflito("Ja existe um produto com esse nome para essa empresa");
+            }
 
-    public String getProduto(String nome, int empresa, String atributo) throws Exception {
-        // Busca o produto pelo nome dentro da lista da empresa
-        List<Produto> lista = this.produtosPorEmpresa.getOrDefault(empresa, new ArrayList<>());
-        Produto p = null;
-        for (Produto prod : lista) {
-            if (prod.getNome().equals(nome)) {
-                p = prod;
-                break; // Achou
+            registrarNoJournal("editarProduto", produto, nome, valor, categoria);
+            guardarParaRetrato(p);
+            long centavosAntes = p.getValorCentavos();
+            boolean renomeou = !nome.equals(p.getNome());
+            if (renomeou) {
+                nomes.remove(p.getNome(), p);
+                nomes.put(nome, p);
             }
+            this.indice.editar(p, nome, valor, categoria); // Troca os campos e os índices juntos
+
+            // Só o nome aparece nas listagens (e sobe a versão só depois de trocar o nome)
+            if (renomeou) {
+                this.cacheCardapio.invalidar(p.getIdEmpresa());
+                versaoDosNomes(p.getIdEmpresa()).incrementAndGet();
+            }
+
+            // Ainda com a trava, pros pedidos abertos ajustarem o total
+            if (p.getValorCentavos() != centavosAntes) {
+                for (OuvinteDePreco ouvinte : this.ouvintes) {
+                    ouvinte.precoAlterado(p, centavosAntes);
+                }
+            }
+        } finally {
+            trava.unlock();
         }
+    }
+
+    public String getProduto(String nome, int empresa, String atributo) throws Exception {
+        // Busca o produto pelo nome dentro do cardápio da empresa
+        Produto p = buscarPorNome(empresa, nome);
 
         if (p == null) {
-            throw new Exception("Produto nao encontrado");
+            throw new ErroNaoEncontrado("Produto nao encontrado");
         }
 
         // Retorna o atributo
@@ -146,23 +453,80 @@ public class ControladorProduto {
                 Restaurante r = this.controladorEmpresa.getEmpresa(p.getIdEmpresa());
                 return r.getNome();
             default:
-                throw new Exception("Atributo nao existe");
+                throw new ErroDeValidacao("Atributo nao existe");
         }
     }
 
     public String listarProdutos(int empresa) throws Exception {
         // Valida se a empresa existe (usando o helper do outro controlador)
         if (this.controladorEmpresa.getEmpresa(empresa) == null) {
-            throw new Exception("Empresa nao encontrada");
+            throw new ErroNaoEncontrado("Empresa nao encontrada");
+        }
+
+        Lock trava = this.travasPorEmpresa.trava(empresa).readLock();
+        trava.lock();
+        try {
+            return this.cacheCardapio.obter(empresa, () -> {
+                List<Produto> lista = this.produtosPorEmpresa.get(empresa);
+                if (lista == null) {
+                    lista = new ArrayList<>();
+                }
+
+                // Formata a string de saída: "{[Prod1, Prod2]}"
+                StringBuilder sb = new StringBuilder("{[");
+                for (int i = 0; i < lista.size(); i++) {
+                    sb.append(lista.get(i).getNome());
+                    if (i < lista.size() - 1) {
+                        sb.append(", ");
+                    }
+                }
+                sb.append("]}");
+                return sb.toString();
+            });
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    // Busca nos cardápios de todas as empresas: "{[[nome, empresa, valor], ...]}".
+    // Filtro nulo/vazio não filtra; preço negativo é "sem limite". Página começa do 0.
+    public String buscarProdutos(String termo, String categoria, String tipoCozinha, float precoMinimo, float precoMaximo,
+                                 String ordem, int pagina, int tamanhoPagina) throws Exception {
+        if (ordem != null && !ordem.isEmpty() && !ordem.equals("id") && !ordem.equals("nome")
+                && !ordem.equals("preco") && !ordem.equals("precoDesc")) {
+            throw new ErroDeValidacao("Ordem invalida");
+        }
+        if (pagina < 0) {
+            throw new ErroDeValidacao("Pagina invalida");
+        }
+        if (tamanhoPagina <= 0 || tamanhoPagina > TAMANHO_MAXIMO_PAGINA) {
+            throw new ErroDeValidacao("Tamanho de pagina invalido");
+        }
+        long centavosMin = precoMinimo < 0 ? 0 : Math.round(precoMinimo * 100.0);
+        long centavosMax = precoMaximo < 0 ? Long.MAX_VALUE : Math.round(precoMaximo * 100.0);
+        if (centavosMin > centavosMax) {
+            throw new ErroDeValidacao("Faixa de preco invalida");
         }
 
-        List<Produto> lista = this.produtosPorEmpresa.getOrDefault(empresa, new ArrayList<>());
+        int codigoCategoria = -1;
+        if (!filtroVazio(categoria)) {
+            codigoCategoria = Dicionarios.CATEGORIAS.procurar(categoria);
+            if (codigoCategoria < 0) {
+                return "{[]}"; // Categoria que nenhum produto nunca teve
+            }
+        }
+        int[] empresas = filtroVazio(tipoCozinha) ? null : this.controladorEmpresa.getEmpresasComCozinha(tipoCozinha);
+        int inicio = (int) Math.min(Integer.MAX_VALUE, (long) pagina * tamanhoPagina);
+        List<Produto> encontrados = this.indice.buscar(filtroVazio(termo) ? null : termo, codigoCategoria, empresas,
+                centavosMin, centavosMax, ordem, inicio, tamanhoPagina, this.produtosPorId);
 
-        // Formata a string de saída: "{[Prod1, Prod2]}"
         StringBuilder sb = new StringBuilder("{[");
-        for (int i = 0; i < lista.size(); i++) {
-            sb.append(lista.get(i).getNome());
-            if (i < lista.size() - 1) {
+        for (int i = 0; i < encontrados.size(); i++) {
+            Produto p = encontrados.get(i);
+            Restaurante r = this.controladorEmpresa.getEmpresa(p.getIdEmpresa());
+            sb.append("[").append(p.getNome()).append(", ").append(r == null ? null : r.getNome()).append(", ")
+                    .append(String.format("%.2f", p.getValor()).replace(",", ".")).append("]");
+            if (i < encontrados.size() - 1) {
                 sb.append(", ");
             }
         }
@@ -170,15 +534,68 @@ public class ControladorProduto {
         return sb.toString();
     }
 
+    private static boolean filtroVazio(String filtro) {
+        return filtro == null || filtro.trim().isEmpty();
+    }
+
     // Helper pro ControladorPedido poder buscar um produto
     public Produto getProdutoById(int id) {
         return this.produtosPorId.get(id); // Retorna o objeto Produto ou null
     }
 
+    // Produto da empresa com esse nome, ou null
+    public Produto buscarPorNome(int empresa, String nome) {
+        Lock trava = this.travasPorEmpresa.trava(empresa).readLock();
+        trava.lock();
+        try {
+            Map<String, Produto> nomes = this.produtosPorNome.get(empresa);
+            return nomes == null ? null : nomes.get(nome);
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    // Índice de nomes da empresa (chamar com a trava da empresa)
+    private Map<String, Produto> nomesDaEmpresa(int empresa) {
+        return this.produtosPorNome.computeIfAbsent(empresa, k -> new HashMap<>());
+    }
+
+    private AtomicLong versaoDosNomes(int empresa) {
+        return this.versaoDosNomes.computeIfAbsent(empresa, k -> new AtomicLong());
+    }
+
+    // Versão atual dos nomes dos produtos da empresa
+    public long getVersaoDosNomes(int empresa) {
+        AtomicLong versao = this.versaoDosNomes.get(empresa);
+        return versao == null ? 0 : versao.get();
+    }
+
+    public CacheDeTexto<Integer> getCacheCardapio() {
+        return this.cacheCardapio;
+    }
+
+    public void adicionarOuvinte(OuvinteDePreco ouvinte) {
+        this.ouvintes.add(ouvinte);
+    }
+
+    // Trava de leitura do cardápio da empresa: enquanto o ControladorPedido segura ela,
+    // nenhum preço dessa empresa muda (o editarProduto precisa da de escrita)
+    Lock travaDoCardapio(int empresa) {
+        return this.travasPorEmpresa.trava(empresa).readLock();
+    }
+
+    // Só registra se tiver journal (durante a recuperação não tem)
+    private void registrarNoJournal(String operacao, Object... argumentos) {
+        this.mudancas.marcar();
+        if (this.journal != null) {
+            this.journal.registrar(operacao, argumentos);
+        }
+    }
+
     // Helper pra checar string nula/vazia
-    private void validarStringNulaOuVazia(String valor, String mensagemErro) throws Exception {
+    private void validarStringNulaOuVazia(String valor, String mensagemErro) throws ErroDeValidacao {
         if (valor == null || valor.trim().isEmpty()) {
-            throw new Exception(mensagemErro);
+            throw new ErroDeValidacao(mensagemErro);
         }
     }
 }
\ No newline at end of file
@@ -1,93 +1,233 @@
 package myfood.controllers;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
-import java.util.HashMap;
+import java.nio.ByteBuffer;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.IntStream;
+import myfood.colecoes.ListaDeInts;
+import myfood.erros.ErroDeConflito;
+import myfood.erros.ErroDeLogin;
+import myfood.erros.ErroDeValidacao;
+import myfood.erros.ErroNaoEncontrado;
 import myfood.models.Cliente;
+import myfood.models.Dicionarios;
 import myfood.models.DonoDeEmpresa;
 import myfood.models.Usuario;
+import myfood.persistencia.CodecDeUsuario;
+import myfood.persistencia.ControleDeMudancas;
+import myfood.persistencia.FormatoBinario;
+import myfood.persistencia.Journal;
+import myfood.persistencia.RegistroJournal;
+import myfood.repositorio.Repositorio;
+import myfood.repositorio.Repositorios;
 
 // "Cérebro" que gerencia os usuários (criação, login, busca).
+// Pode ser usado por várias threads ao mesmo tempo: os mapas são concorrentes
+// e a checagem de email único é feita com uma trava por email (listrada).
 public class ControladorUsuario {
 
     // Mapas pra guardar os usuários e achar rápido
-    private Map<Integer, Usuario> usuariosPorId;
-    private Map<String, Usuario> usuariosPorEmail;
-    private int proximoId; // Contador pro ID ficar único
+    private Repositorio<Usuario> usuariosPorId; // Em memória ou em disco (ver Repositorios)
+    private Map<String, Integer> idsPorEmail;   // Só o ID: o usuário em si pode estar no disco
+    private final AtomicInteger proximoId = new AtomicInteger(1); // Contador pro ID ficar único
 
-    // Nome do arquivo de save
-    private static final String ARQUIVO_DADOS = "myfood_data.dat";
+    // Login errado é o erro mais comum (bot testando senha, cliente tentando de novo):
+    // como o erro não tem stack trace, dá pra lançar sempre a mesma instância
+    private static final ErroDeLogin LOGIN_INVALIDO = new ErroDeLogin("Login ou senha invalidos");
+
+    // Duas criações com o mesmo email caem na mesma trava
+    private final TravasListradas<ReentrantLock> travasPorEmail = new TravasListradas<>(64, ReentrantLock::new);
 
-    public ControladorUsuario() {
-        // Tenta carregar os dados salvos quando o sistema inicia
-        this.carregarDados();
+    // Nome do arquivo de save (dentro do diretório de dados da Facade)
+    private static final String ARQUIVO_DADOS = "myfood_data.dat";
+    private final String arquivoDados;
+
+    // Journal onde cada criação é registrada (null enquanto está recuperando)
+    private Journal journal;
+    // Até qual seq do journal o arquivo de save já contém
+    private long seqSnapshot;
+    // Se mudou algo desde o último save (sem mudança, o checkpoint não regrava o arquivo)
+    private final ControleDeMudancas mudancas = new ControleDeMudancas();
+    // Retrato do checkpoint: usuário não muda nem some depois de criado, então basta o
+    // próximo ID daquele momento; quem foi criado depois fica pro save seguinte
+    private volatile int proximoIdNoRetrato;
+
+    public ControladorUsuario(File diretorio) {
+        this.arquivoDados = new File(diretorio, ARQUIVO_DADOS).getPath();
+        // Começa vazio; quem carrega o save é a Facade (em paralelo com os outros)
+        this.limparMapas();
     }
 
     // --- LÓGICA DE PERSISTÊNCIA ---
 
-    // Salva os mapas e o contador no arquivo
-    public void salvarDados() {
-        try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(ARQUIVO_DADOS))) {
-            oos.writeObject(this.usuariosPorId);
-            oos.writeObject(this.usuariosPorEmail);
-            oos.writeObject(this.proximoId);
+    // Chamado pela Facade com as escritas paradas (O(1))
+    public void tirarRetrato() {
+        this.proximoIdNoRetrato = this.proximoId.get();
+        this.mudancas.retratar();
+    }
+
+    // Salva os usuários do retrato e o contador no arquivo (formato binário, ver FormatoBinario).
+    // "seqJournal" é a última seq do journal refletida no retrato. Pode rodar com escritas acontecendo.
+    // Retorna false se não conseguiu salvar (aí a Facade não pode truncar o journal).
+    public boolean salvarDados(long seqJournal) {
+        if (!this.mudancas.retratoTemMudancas() && new File(this.arquivoDados).exists()) {
+            return true; // O arquivo que está lá continua valendo
+        }
+        int limite = this.proximoIdNoRetrato;
+        try {
+            FormatoBinario.gravar(this.arquivoDados, FormatoBinario.TIPO_USUARIOS, out -> {
+                // Primeira passada: fixa quais IDs entram (pra quantidade bater com o que é escrito)
+                // e monta o dicionário de endereços; cada usuário grava só o índice.
+                // Duas passadas em vez de uma lista com todos: o repositório pode estar no disco.
+                FormatoBinario.SecaoDicionario enderecos = new FormatoBinario.SecaoDicionario(Dicionarios.ENDERECOS);
+                ListaDeInts ids = new ListaDeInts();
+                this.usuariosPorId.paraCada(u -> {
+                    if (u.getId() < limite) {
+                        ids.add(u.getId());
+                        enderecos.local(u.getCodigoEndereco());
+                    }
+                });
+                out.writeLong(seqJournal);
+                out.writeInt(limite);
+                enderecos.escrever(out);
+                out.writeInt(ids.size());
+                for (int i = 0; i < ids.size(); i++) {
+                    Usuario u = this.usuariosPorId.get(ids.get(i));
+                    // 1 = Dono (tem CPF), 0 = Cliente
+                    boolean dono = u instanceof DonoDeEmpresa;
+                    out.writeByte(dono ? 1 : 0);
+                    out.writeInt(u.getId());
+                    FormatoBinario.escreverString(out, u.getNome());
+                    FormatoBinario.escreverString(out, u.getEmail());
+                    FormatoBinario.escreverString(out, u.getSenha());
+                    out.writeInt(enderecos.local(u.getCodigoEndereco()));
+                    if (dono) {
+                        FormatoBinario.escreverString(out, ((DonoDeEmpresa) u).getCpf());
+                    }
+                }
+            });
+            this.seqSnapshot = seqJournal;
+            this.mudancas.retratoSalvo();
+            return true;
         } catch (Exception e) {
-            // Se der erro, só avisa no console
+            // Se der erro, avisa no console (o journal continua tendo tudo)
             System.err.println("Erro ao salvar dados de Usuario: " + e.getMessage());
+            return false;
         }
     }
 
-    // Carrega os dados do arquivo
-    @SuppressWarnings("unchecked")
-    private void carregarDados() {
-        File f = new File(ARQUIVO_DADOS);
-        if (f.exists()) {
-            try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(ARQUIVO_DADOS))) {
-                // A ordem de leitura tem que ser a MESMA da escrita
-                this.usuariosPorId = (Map<Integer, Usuario>) ois.readObject();
-                this.usuariosPorEmail = (Map<String, Usuario>) ois.readObject();
-                this.proximoId = (int) ois.readObject();
-            } catch (Exception e) {
-                // Se o arquivo quebrou ou mudou, começa do zero
-                System.err.println("Erro ao carregar dados de Usuario, começando do zero: " + e.getMessage());
+    // Carrega os dados do arquivo (o índice por email é refeito aqui)
+    public void carregarDados() {
+        try {
+            ByteBuffer buf = FormatoBinario.mapear(this.arquivoDados, FormatoBinario.TIPO_USUARIOS);
+            if (buf == null) {
+                // Se não tem arquivo de save, começa do zero
                 this.zerar();
+                return;
             }
-        } else {
-            // Se não tem arquivo de save, começa do zero
-            this.zerar();
+
+            this.limparMapas();
+            this.seqSnapshot = buf.getLong();
+            this.proximoId.set(buf.getInt());
+            String[] enderecos = FormatoBinario.lerDicionario(buf);
+            int quantidade = buf.getInt();
+            for (int i = 0; i < quantidade; i++) {
+                boolean dono = buf.get() == 1;
+                int id = buf.getInt();
+                String nome = FormatoBinario.lerString(buf);
+                String email = FormatoBinario.lerString(buf);
+                String senha = FormatoBinario.lerString(buf);
+                String endereco = FormatoBinario.texto(enderecos, buf.getInt());
+                if (dono) {
+                    armazenar(new DonoDeEmpresa(id, nome, email, senha, endereco, FormatoBinario.lerString(buf)));
+                } else {
+                    armazenar(new Cliente(id, nome, email, senha, endereco));
+                }
+            }
+        } catch (Exception e) {
+            // Se o arquivo quebrou ou mudou, guarda ele e não sobe (ver FormatoBinario.saveIlegivel)
+            throw FormatoBinario.saveIlegivel(this.arquivoDados, "usuarios", e);
         }
     }
 
     // Limpa os mapas e apaga o arquivo de save.
     public void zerar() {
-        this.usuariosPorId = new HashMap<>();
-        this.usuariosPorEmail = new HashMap<>();
-        this.proximoId = 1; // Reseta o ID
+        this.limparMapas();
 
-        File f = new File(ARQUIVO_DADOS);
+        File f = new File(this.arquivoDados);
         if (f.exists()) {
             f.delete();
         }
     }
 
+    private void limparMapas() {
+        if (this.usuariosPorId != null) {
+            this.usuariosPorId.fechar();
+        }
+        this.usuariosPorId = Repositorios.criar("usuarios", CodecDeUsuario.INSTANCIA);
+        this.idsPorEmail = new ConcurrentHashMap<>();
+        this.proximoId.set(1); // Reseta o ID
+        this.seqSnapshot = 0;
+        this.mudancas.limpar();
+    }
+
+    // --- JOURNAL ---
+
+    public void setJournal(Journal journal) {
+        this.journal = journal;
+    }
+
+    public long getSeqSnapshot() {
+        return this.seqSnapshot;
+    }
+
+    // Quantos usuários existem (medidor das métricas)
+    public int getQuantidadeUsuarios() {
+        return this.usuariosPorId.size();
+    }
+
+    // Refaz uma criação que estava no journal (com o mesmo ID de antes).
+    // Registros que já estão no arquivo de save são ignorados.
+    public void reaplicar(RegistroJournal r) {
+        if (r.getSeq() <= this.seqSnapshot) {
+            return;
+        }
+        this.mudancas.marcar();
+        switch (r.getOperacao()) {
+            case "criarCliente":
+                armazenar(new Cliente(r.getInt(0), r.getString(1), r.getString(2), r.getString(3), r.getString(4)));
+                break;
+            case "criarDono":
+                armazenar(new DonoDeEmpresa(r.getInt(0), r.getString(1), r.getString(2), r.getString(3), r.getString(4), r.getString(5)));
+                break;
+        }
+    }
+
     // --- MÉTODOS DA US1 ---
 
     // Cria um Cliente
     public void criarCliente(String nome, String email, String senha, String endereco) throws Exception {
         // Validações
         validarCamposComuns(nome, email, senha, endereco);
-        validarEmailUnico(email);
 
-        // Se passou, cria e armazena
-        int id = this.proximoId++;
-        Cliente cliente = new Cliente(id, nome, email, senha, endereco);
-
-        this.usuariosPorId.put(id, cliente);
-        this.usuariosPorEmail.put(email, cliente);
+        ReentrantLock trava = this.travasPorEmail.trava(email);
+        trava.lock();
+        try {
+            validarEmailUnico(email);
+
+            // Se passou, registra no journal, cria e armazena
+            int id = this.proximoId.getAndIncrement();
+            registrarNoJournal("criarCliente", id, nome, email, senha, endereco);
+            armazenar(new Cliente(id, nome, email, senha, endereco));
+        } finally {
+            trava.unlock();
+        }
     }
 
     // Cria um Dono de Empresa
@@ -98,31 +238,121 @@ public class ControladorUsuario {
         // Validação do CPF (tem que vir ANTES de checar email duplicado)
         validarStringNulaOuVazia(cpf, "CPF invalido");
         if (cpf.length() != 14) {
-            throw new Exception("CPF invalido");
+            throw new ErroDeValidacao("CPF invalido");
         }
 
-        // Validação do email (só depois que os outros dados são válidos)
-        validarEmailUnico(email);
+        ReentrantLock trava = this.travasPorEmail.trava(email);
+        trava.lock();
+        try {
+            // Validação do email (só depois que os outros dados são válidos)
+            validarEmailUnico(email);
+
+            // Se passou, registra no journal, cria e armazena
+            int id = this.proximoId.getAndIncrement();
+            registrarNoJournal("criarDono", id, nome, email, senha, endereco, cpf);
+            armazenar(new DonoDeEmpresa(id, nome, email, senha, endereco, cpf));
+        } finally {
+            trava.unlock();
+        }
+    }
 
-        // Se passou, cria e armazena
-        int id = this.proximoId++;
-        DonoDeEmpresa dono = new DonoDeEmpresa(id, nome, email, senha, endereco, cpf);
+    // --- IMPORTAÇÃO EM MASSA ---
+
+    // Colunas do arquivo de importação (cpf vazio = Cliente, senão Dono)
+    public static final String[] COLUNAS_IMPORTACAO = {"nome", "email", "senha", "endereco", "cpf"};
+
+    // Cria um lote de usuários com as mesmas regras do criarCliente/criarDono.
+    // Retorna o erro de cada linha (null = criado), na ordem das linhas.
+    // As validações de campo rodam em paralelo; o email único é checado com todas as
+    // travas de email na mão, contra um conjunto do lote montado uma vez, e os IDs saem de um getAndAdd só.
+    public String[] importarUsuarios(List<String[]> linhas) {
+        String[] erros = new String[linhas.size()];
+        IntStream.range(0, linhas.size()).parallel().forEach(i -> {
+            String[] c = linhas.get(i);
+            try {
+                validarCamposComuns(c[0], c[1], c[2], c[3]);
+                if (c[4] != null && c[4].length() != 14) {
+                    throw new ErroDeValidacao("CPF invalido");
+                }
+            } catch (ErroDeValidacao e) {
+                erros[i] = e.getMessage();
+            }
+        });
+
+        List<ReentrantLock> travas = this.travasPorEmail.todas();
+        travas.forEach(ReentrantLock::lock);
+        try {
+            Set<String> emailsDoLote = new HashSet<>();
+            int validos = 0;
+            for (int i = 0; i < erros.length; i++) {
+                if (erros[i] != null) {
+                    continue;
+                }
+                String email = linhas.get(i)[1];
+                if (this.idsPorEmail.containsKey(email) || !emailsDoLote.add(email)) {
+                    erros[i] = "Conta com esse email ja existe";
+                } else {
+                    validos++;
+                }
+            }
+            if (validos == 0) {
+                return erros;
+            }
+
+            int id = this.proximoId.getAndAdd(validos);
+            String[] operacoes = new String[validos];
+            Object[][] argumentos = new Object[validos][];
+            Usuario[] novos = new Usuario[validos];
+            for (int i = 0, k = 0; i < erros.length; i++) {
+                if (erros[i] != null) {
+                    continue;
+                }
+                String[] c = linhas.get(i);
+                if (c[4] == null) {
+                    operacoes[k] = "criarCliente";
+                    argumentos[k] = new Object[]{id, c[0], c[1], c[2], c[3]};
+                    novos[k] = new Cliente(id, c[0], c[1], c[2], c[3]);
+                } else {
+                    operacoes[k] = "criarDono";
+                    argumentos[k] = new Object[]{id, c[0], c[1], c[2], c[3], c[4]};
+                    novos[k] = new DonoDeEmpresa(id, c[0], c[1], c[2], c[3], c[4]);
+                }
+                id++;
+                k++;
+            }
+            this.mudancas.marcar();
+            if (this.journal != null) {
+                this.journal.registrarLote(operacoes, argumentos);
+            }
+            for (Usuario u : novos) {
+                armazenar(u);
+            }
+        } finally {
+            travas.forEach(ReentrantLock::unlock);
+        }
+        return erros;
+    }
 
-        this.usuariosPorId.put(id, dono);
-        this.usuariosPorEmail.put(email, dono);
+    // Bota o usuário nos mapas (e garante que o contador não repita o ID)
+    private void armazenar(Usuario u) {
+        this.usuariosPorId.put(u.getId(), u);
+        this.idsPorEmail.put(u.getEmail(), u.getId());
+        this.proximoId.accumulateAndGet(u.getId() + 1, Math::max);
     }
 
     // Tenta fazer login
     public int login(String email, String senha) throws Exception {
         // Valida se não tão nulos/vazios
-        validarStringNulaOuVazia(email, "Login ou senha invalidos");
-        validarStringNulaOuVazia(senha, "Login ou senha invalidos");
+        if (email == null || email.trim().isEmpty() || senha == null || senha.trim().isEmpty()) {
+            throw LOGIN_INVALIDO;
+        }
 
-        Usuario u = this.usuariosPorEmail.get(email);
+        Integer id = this.idsPorEmail.get(email);
+        Usuario u = id == null ? null : this.usuariosPorId.get(id);
 
         // Checa se o usuário existe e se a senha tá certa
         if (u == null || !u.getSenha().equals(senha)) {
-            throw new Exception("Login ou senha invalidos");
+            throw LOGIN_INVALIDO;
         }
 
         return u.getId(); // Sucesso, retorna o ID
@@ -133,7 +363,7 @@ public class ControladorUsuario {
         Usuario u = this.usuariosPorId.get(id);
 
         if (u == null) {
-            throw new Exception("Usuario nao cadastrado.");
+            throw new ErroNaoEncontrado("Usuario nao cadastrado.");
         }
 
         // Retorna o atributo que o teste pediu
@@ -152,10 +382,10 @@ public class ControladorUsuario {
                     return ((DonoDeEmpresa) u).getCpf();
                 } else {
                     // Cliente não tem CPF
-                    throw new Exception("Atributo 'cpf' nao existe para este usuario.");
+                    throw new ErroDeValidacao("Atributo 'cpf' nao existe para este usuario.");
                 }
             default:
-                throw new Exception("Atributo invalido.");
+                throw new ErroDeValidacao("Atributo invalido.");
         }
     }
 
@@ -164,10 +394,14 @@ public class ControladorUsuario {
         return this.usuariosPorId.get(id);
     }
 
+    public Repositorio<Usuario> getRepositorio() {
+        return this.usuariosPorId;
+    }
+
     // --- MÉTODOS DE AJUDA (VALIDAÇÃO) ---
 
     // Valida os campos que todo usuário tem
-    private void validarCamposComuns(String nome, String email, String senha, String endereco) throws Exception {
+    private void validarCamposComuns(String nome, String email, String senha, String endereco) throws ErroDeValidacao {
         validarStringNulaOuVazia(nome, "Nome invalido");
         validarStringNulaOuVazia(email, "Email invalido");
         validarStringNulaOuVazia(senha, "Senha invalido");
@@ -175,21 +409,29 @@ public class ControladorUsuario {
 
         // Validação de email "mínima"
         if (!email.contains("@")) {
-            throw new Exception("Email invalido");
+            throw new ErroDeValidacao("Email invalido");
         }
     }
 
     // Checa se o email já tá no mapa
-    private void validarEmailUnico(String email) throws Exception {
-        if (this.usuariosPorEmail.containsKey(email)) {
-            throw new Exception("Conta com esse email ja existe");
+    private void validarEmailUnico(String email) throws ErroDeConflito {
+        if (this.idsPorEmail.containsKey(email)) {
+            throw new ErroDeConflito("Conta com esse email ja existe");
+        }
+    }
+
+    // Só registra se tiver journal (durante a recuperação não tem)
+    private void registrarNoJournal(String operacao, Object... argumentos) {
+        this.mudancas.marcar();
+        if (this.journal != null) {
+            this.journal.registrar(operacao, argumentos);
         }
     }
 
     // Helper pra não ficar repetindo if (valor == null || valor.trim().isEmpty())
-    private void validarStringNulaOuVazia(String valor, String mensagemErro) throws Exception {
+    private void validarStringNulaOuVazia(String valor, String mensagemErro) throws ErroDeValidacao {
         if (valor == null || valor.trim().isEmpty()) {
-            throw new Exception(mensagemErro);
+            throw new ErroDeValidacao(mensagemErro);
         }
     }
 }
\ No newline at end of file
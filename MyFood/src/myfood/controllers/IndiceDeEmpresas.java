@@ -0,0 +1,107 @@
+package myfood.controllers;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import myfood.colecoes.ConjuntoDeInts;
+import myfood.colecoes.ListaDeInts;
+import myfood.models.Restaurante;
+
+// Índices da descoberta de empresas (buscarEmpresas).
+// Tipo de cozinha tem poucos valores e muitas empresas cada: vira um BitSet de IDs por tipo.
+// Endereço tem muitas palavras com poucas empresas cada: vira conjunto ordenado de IDs por palavra
+// (as mesmas palavras sem acento/minúsculas da busca de produtos, casando por prefixo).
+// Cruzar os dois é andar no conjunto menor e perguntar pro BitSet, sem varrer empresasPorId.
+//
+// Empresa não muda depois de criada, então só existe adicionar.
+class IndiceDeEmpresas {
+
+    private final ReentrantReadWriteLock trava = new ReentrantReadWriteLock();
+
+    private final BitSet todas = new BitSet();
+    private final Map<Integer, BitSet> porCozinha = new HashMap<>(); // Código do tipo de cozinha -> IDs
+    private final TreeMap<String, ConjuntoDeInts> porPalavraDoEndereco = new TreeMap<>();
+
+    void adicionar(Restaurante r) {
+        this.trava.writeLock().lock();
+        try {
+            int id = r.getId();
+            this.todas.set(id);
+            if (r.getCodigoTipoCozinha() >= 0) {
+                this.porCozinha.computeIfAbsent(r.getCodigoTipoCozinha(), k -> new BitSet()).set(id);
+            }
+            for (String palavra : IndiceDeProdutos.palavras(r.getEndereco())) {
+                this.porPalavraDoEndereco.computeIfAbsent(palavra, k -> new ConjuntoDeInts()).add(id);
+            }
+        } finally {
+            this.trava.writeLock().unlock();
+        }
+    }
+
+    // IDs (em ordem) das empresas com esse tipo de cozinha
+    int[] comCozinha(int codigo) {
+        this.trava.readLock().lock();
+        try {
+            BitSet ids = this.porCozinha.get(codigo);
+            return ids == null ? new int[0] : ids.stream().toArray();
+        } finally {
+            this.trava.readLock().unlock();
+        }
+    }
+
+    // Página [inicio, inicio + quantidade) dos IDs, em ordem, que passam nos dois filtros.
+    // cozinha: código no dicionário (-1 = sem filtro)
+    // endereco: cada palavra casa como prefixo de alguma palavra do endereço (null = sem filtro)
+    int[] buscar(int cozinha, String endereco, int inicio, int quantidade) {
+        this.trava.readLock().lock();
+        try {
+            BitSet aceitos = this.todas;
+            if (cozinha >= 0) {
+                aceitos = this.porCozinha.get(cozinha);
+                if (aceitos == null) {
+                    return new int[0];
+                }
+            }
+
+            List<ConjuntoDeInts> filtros = new ArrayList<>();
+            if (endereco != null) {
+                for (String palavra : IndiceDeProdutos.palavras(endereco)) {
+                    List<ConjuntoDeInts> comPrefixo = new ArrayList<>(this.porPalavraDoEndereco
+                            .subMap(palavra, true, palavra + Character.MAX_VALUE, true).values());
+                    if (comPrefixo.isEmpty()) {
+                        return new int[0];
+                    }
+                    filtros.add(comPrefixo.size() == 1 ? comPrefixo.get(0) : ConjuntoDeInts.uniao(comPrefixo));
+                }
+            }
+
+            ListaDeInts pagina = new ListaDeInts(Math.min(quantidade, 64));
+            int pulados = 0;
+            if (filtros.isEmpty()) {
+                // Só a cozinha (ou nada): anda no BitSet
+                for (int id = aceitos.nextSetBit(0); id >= 0 && pagina.size() < quantidade; id = aceitos.nextSetBit(id + 1)) {
+                    if (pulados++ >= inicio) {
+                        pagina.add(id);
+                    }
+                }
+                return pagina.toArray();
+            }
+
+            // Endereço: anda nos candidatos (já em ordem de ID) e confere a cozinha no BitSet
+            ConjuntoDeInts candidatos = filtros.size() == 1 ? filtros.get(0) : ConjuntoDeInts.intersecao(filtros);
+            for (int i = 0; i < candidatos.size() && pagina.size() < quantidade; i++) {
+                int id = candidatos.get(i);
+                if (aceitos.get(id) && pulados++ >= inicio) {
+                    pagina.add(id);
+                }
+            }
+            return pagina.toArray();
+        } finally {
+            this.trava.readLock().unlock();
+        }
+    }
+}
\ No newline at end of file
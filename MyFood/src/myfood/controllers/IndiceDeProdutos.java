@@ -0,0 +1,254 @@
+package myfood.controllers;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import myfood.colecoes.ConjuntoDeInts;
+import myfood.colecoes.TabelaPorId;
+import myfood.models.Produto;
+import myfood.repositorio.Repositorio;
+
+// Índices da busca de produtos entre todas as empresas.
+// Cada palavra do nome, cada categoria e cada empresa aponta pro conjunto (ordenado)
+// dos IDs de produto que têm ela; os preços ficam num TreeSet ordenado por (centavos, ID).
+// A busca cruza os conjuntos em vez de varrer os cardápios.
+//
+// Tudo aqui é protegido por uma trava de leitura/escrita própria. Ordem das travas:
+// primeiro a do cardápio da empresa, depois esta (o editar é chamado com a da empresa na mão).
+// O editar troca os campos do produto com esta trava, então quem busca nunca vê
+// produto com nome/categoria/preço diferente do que está nos índices.
+class IndiceDeProdutos {
+
+    // Acima disso, ordenar por preço percorre o índice de preço em vez de ordenar os candidatos
+    private static final int LIMITE_ORDENAR = 2048;
+    private static final long MAX_CENTAVOS = Integer.MAX_VALUE;
+
+    private final ReentrantReadWriteLock trava = new ReentrantReadWriteLock();
+
+    private final TreeMap<String, ConjuntoDeInts> porPalavra = new TreeMap<>(); // TreeMap pra busca por prefixo
+    private final Map<Integer, ConjuntoDeInts> porCategoria = new HashMap<>(); // Código da categoria -> produtos
+    private final TabelaPorId<ConjuntoDeInts> porEmpresa = new TabelaPorId<>();
+    private final TreeSet<Long> porPreco = new TreeSet<>(); // chave(centavos, id)
+
+    // --- Atualização ---
+
+    void adicionar(Produto p) {
+        this.trava.writeLock().lock();
+        try {
+            int id = p.getId();
+            for (String palavra : palavras(p.getNome())) {
+                this.porPalavra.computeIfAbsent(palavra, k -> new ConjuntoDeInts()).add(id);
+            }
+            this.porCategoria.computeIfAbsent(p.getCodigoCategoria(), k -> new ConjuntoDeInts()).add(id);
+            this.porEmpresa.computeIfAbsent(p.getIdEmpresa(), k -> new ConjuntoDeInts()).add(id);
+            this.porPreco.add(chave(p.getValorCentavos(), id));
+        } finally {
+            this.trava.writeLock().unlock();
+        }
+    }
+
+    // Troca os dados do produto e move ele nos índices (só o que mudou)
+    void editar(Produto p, String nome, float valor, String categoria) {
+        this.trava.writeLock().lock();
+        try {
+            int id = p.getId();
+            String nomeAntes = p.getNome();
+            int categoriaAntes = p.getCodigoCategoria();
+            long centavosAntes = p.getValorCentavos();
+
+            p.setNome(nome);
+            p.setValor(valor);
+            p.setCategoria(categoria);
+
+            if (!nome.equals(nomeAntes)) {
+                Set<String> novas = palavras(nome);
+                for (String palavra : palavras(nomeAntes)) {
+                    if (!novas.contains(palavra)) {
+                        removerDe(this.porPalavra, palavra, id);
+                    }
+                }
+                for (String palavra : novas) {
+                    this.porPalavra.computeIfAbsent(palavra, k -> new ConjuntoDeInts()).add(id);
+                }
+            }
+            if (p.getCodigoCategoria() != categoriaAntes) {
+                removerDe(this.porCategoria, categoriaAntes, id);
+                this.porCategoria.computeIfAbsent(p.getCodigoCategoria(), k -> new ConjuntoDeInts()).add(id);
+            }
+            if (p.getValorCentavos() != centavosAntes) {
+                this.porPreco.remove(chave(centavosAntes, id));
+                this.porPreco.add(chave(p.getValorCentavos(), id));
+            }
+        } finally {
+            this.trava.writeLock().unlock();
+        }
+    }
+
+    // Tira o ID do conjunto da chave e apaga a chave se o conjunto ficar vazio
+    private static <K> void removerDe(Map<K, ConjuntoDeInts> indice, K chave, int id) {
+        ConjuntoDeInts ids = indice.get(chave);
+        if (ids != null && ids.remove(id) && ids.isEmpty()) {
+            indice.remove(chave);
+        }
+    }
+
+    // --- Busca ---
+
+    // Página [inicio, inicio + quantidade) dos produtos que passam em todos os filtros.
+    // termo: cada palavra casa como prefixo de alguma palavra do nome (null = sem filtro)
+    // categoria: código no dicionário (-1 = sem filtro)
+    // empresas: IDs das empresas aceitas, em ordem (null = todas)
+    // ordem: null/"id", "nome", "preco" ou "precoDesc"
+    List<Produto> buscar(String termo, int categoria, int[] empresas, long centavosMin, long centavosMax,
+                         String ordem, int inicio, int quantidade, Repositorio<Produto> produtos) {
+        this.trava.readLock().lock();
+        try {
+            List<ConjuntoDeInts> filtros = new ArrayList<>();
+            if (termo != null) {
+                for (String palavra : palavras(termo)) {
+                    List<ConjuntoDeInts> comPrefixo = new ArrayList<>(
+                            this.porPalavra.subMap(palavra, true, palavra + Character.MAX_VALUE, true).values());
+                    if (comPrefixo.isEmpty()) {
+                        return new ArrayList<>();
+                    }
+                    filtros.add(comPrefixo.size() == 1 ? comPrefixo.get(0) : ConjuntoDeInts.uniao(comPrefixo));
+                }
+            }
+            if (categoria >= 0) {
+                ConjuntoDeInts ids = this.porCategoria.get(categoria);
+                if (ids == null) {
+                    return new ArrayList<>();
+                }
+                filtros.add(ids);
+            }
+            if (empresas != null) {
+                List<ConjuntoDeInts> dasEmpresas = new ArrayList<>();
+                for (int empresa : empresas) {
+                    ConjuntoDeInts ids = this.porEmpresa.get(empresa);
+                    if (ids != null && !ids.isEmpty()) {
+                        dasEmpresas.add(ids);
+                    }
+                }
+                if (dasEmpresas.isEmpty()) {
+                    return new ArrayList<>();
+                }
+                filtros.add(ConjuntoDeInts.uniao(dasEmpresas));
+            }
+
+            long min = Math.min(centavosMin, MAX_CENTAVOS);
+            long max = Math.min(centavosMax, MAX_CENTAVOS);
+            NavigableSet<Long> faixa = this.porPreco.subSet(chave(min, 0), true, chave(max, Integer.MAX_VALUE), true);
+            boolean ordemDePreco = "preco".equals(ordem) || "precoDesc".equals(ordem);
+
+            // Sem filtro nenhum: o próprio índice de preço é a lista de candidatos
+            if (filtros.isEmpty()) {
+                if (ordemDePreco) {
+                    return paginaDoIndiceDePreco(faixa, null, ordem, inicio, quantidade, produtos);
+                }
+                List<Produto> todos = new ArrayList<>();
+                for (long c : faixa) {
+                    todos.add(produtos.get((int) c));
+                }
+                return paginaOrdenada(todos, ordem, inicio, quantidade);
+            }
+
+            ConjuntoDeInts candidatos = filtros.size() == 1 ? filtros.get(0) : ConjuntoDeInts.intersecao(filtros);
+            if (ordemDePreco && candidatos.size() > LIMITE_ORDENAR) {
+                // Muitos candidatos: anda na ordem de preço e para quando a página enche
+                return paginaDoIndiceDePreco(faixa, candidatos, ordem, inicio, quantidade, produtos);
+            }
+
+            List<Produto> selecionados = new ArrayList<>();
+            boolean ordemDeId = !ordemDePreco && !"nome".equals(ordem);
+            for (int i = 0; i < candidatos.size(); i++) {
+                Produto p = produtos.get(candidatos.get(i));
+                long centavos = Math.min(p.getValorCentavos(), MAX_CENTAVOS);
+                if (centavos < min || centavos > max) {
+                    continue;
+                }
+                selecionados.add(p);
+                // Os candidatos já estão em ordem de ID: dá pra parar quando a página enche
+                if (ordemDeId && selecionados.size() >= inicio + quantidade) {
+                    break;
+                }
+            }
+            return paginaOrdenada(selecionados, ordem, inicio, quantidade);
+        } finally {
+            this.trava.readLock().unlock();
+        }
+    }
+
+    private static List<Produto> paginaDoIndiceDePreco(NavigableSet<Long> faixa, ConjuntoDeInts aceitos, String ordem,
+                                                       int inicio, int quantidade, Repositorio<Produto> produtos) {
+        List<Produto> pagina = new ArrayList<>();
+        Iterator<Long> it = "precoDesc".equals(ordem) ? faixa.descendingIterator() : faixa.iterator();
+        int pulados = 0;
+        while (it.hasNext() && pagina.size() < quantidade) {
+            int id = (int) (long) it.next();
+            if (aceitos != null && !aceitos.contem(id)) {
+                continue;
+            }
+            if (pulados < inicio) {
+                pulados++;
+                continue;
+            }
+            pagina.add(produtos.get(id));
+        }
+        return pagina;
+    }
+
+    private static List<Produto> paginaOrdenada(List<Produto> lista, String ordem, int inicio, int quantidade) {
+        if ("nome".equals(ordem)) {
+            lista.sort(Comparator.comparing(Produto::getNome).thenComparingInt(Produto::getId));
+        } else if ("preco".equals(ordem)) {
+            // Mesma chave do índice de preço, pra página não mudar conforme o caminho da busca
+            lista.sort(Comparator.comparingLong(p -> chave(p.getValorCentavos(), p.getId())));
+        } else if ("precoDesc".equals(ordem)) {
+            lista.sort(Comparator.comparingLong((Produto p) -> chave(p.getValorCentavos(), p.getId())).reversed());
+        } else {
+            lista.sort(Comparator.comparingInt(Produto::getId));
+        }
+        if (inicio >= lista.size()) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(lista.subList(inicio, Math.min(lista.size(), inicio + quantidade)));
+    }
+
+    // (centavos, id) num long só: ordena por preço e desempata pelo ID
+    private static long chave(long centavos, int id) {
+        return (Math.min(centavos, MAX_CENTAVOS) << 32) | id;
+    }
+
+    // Palavras do texto pra indexar/buscar: sem acento, minúsculas, separadas por tudo que não é letra ou número
+    static Set<String> palavras(String texto) {
+        Set<String> palavras = new LinkedHashSet<>();
+        if (texto == null) {
+            return palavras;
+        }
+        String normal = Normalizer.normalize(texto, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT);
+        int inicio = -1;
+        for (int i = 0; i <= normal.length(); i++) {
+            boolean letra = i < normal.length() && Character.isLetterOrDigit(normal.charAt(i));
+            if (letra && inicio < 0) {
+                inicio = i;
+            } else if (!letra && inicio >= 0) {
+                palavras.add(normal.substring(inicio, i));
+                inicio = -1;
+            }
+        }
+        return palavras;
+    }
+}
\ No newline at end of file
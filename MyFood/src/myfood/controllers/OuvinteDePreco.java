@@ -0,0 +1,10 @@
+package myfood.controllers;
+
+import myfood.models.Produto;
+
+// Quem precisa saber quando o preço de um produto muda (ex: os totais dos pedidos abertos).
+// É chamado pelo editarProduto ainda com a trava do cardápio da empresa,
+// então ninguém consegue adicionar/remover esse produto de um pedido no meio do ajuste.
+public interface OuvinteDePreco {
+    void precoAlterado(Produto produto, long centavosAntes);
+}
\ No newline at end of file
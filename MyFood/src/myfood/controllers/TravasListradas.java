@@ -0,0 +1,47 @@
+package myfood.controllers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+// Conjunto fixo de travas ("lock striping").
+// Cada chave (id do cliente, id da empresa, email...) cai sempre na mesma trava,
+// então operações sobre chaves diferentes quase nunca esperam uma pela outra,
+// e a gente não precisa de uma trava por cliente nem de uma trava global.
+// O tipo da trava é de quem cria (ReentrantLock, ReentrantReadWriteLock...).
+class TravasListradas<T> {
+
+    private final Object[] travas;
+    private final int mascara;
+
+    // "quantidade" tem que ser potência de 2
+    TravasListradas(int quantidade, Supplier<T> fabrica) {
+        this.travas = new Object[quantidade];
+        for (int i = 0; i < quantidade; i++) {
+            this.travas[i] = fabrica.get();
+        }
+        this.mascara = quantidade - 1;
+    }
+
+    @SuppressWarnings("unchecked")
+    T trava(int chave) {
+        // Espalha os bits pra IDs sequenciais não caírem sempre em travas vizinhas
+        int h = chave * 0x9E3779B9;
+        return (T) this.travas[(h ^ (h >>> 16)) & this.mascara];
+    }
+
+    T trava(String chave) {
+        return trava(chave == null ? 0 : chave.hashCode());
+    }
+
+    // Todas as travas, sempre na mesma ordem: quem precisa de todas (importação em massa)
+    // pega nessa ordem e não dá deadlock com quem pega uma só
+    @SuppressWarnings("unchecked")
+    List<T> todas() {
+        List<T> lista = new ArrayList<>(this.travas.length);
+        for (Object t : this.travas) {
+            lista.add((T) t);
+        }
+        return lista;
+    }
+}
\ No newline at end of file
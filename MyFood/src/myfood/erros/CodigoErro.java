@@ -0,0 +1,24 @@
+package myfood.erros;
+
+// Categoria de cada erro de negócio, com o status HTTP que ela vira no servidor.
+// A mensagem continua sendo a dos testes do EasyAccept; o código é pra quem
+// precisa decidir o que fazer sem comparar texto.
+public enum CodigoErro {
+    DADO_INVALIDO(400),   // Campo nulo/vazio, formato errado, atributo que não existe
+    LOGIN_INVALIDO(401),  // Email ou senha errados
+    NAO_PERMITIDO(403),   // O usuário não pode fazer isso (ex.: cliente criando empresa)
+    NAO_ENCONTRADO(404),  // ID/nome que não está cadastrado
+    CONFLITO(409),        // Já existe (email, nome de empresa/produto, pedido em aberto)
+    ESTADO_INVALIDO(409), // O pedido não está no estado que a operação pede
+    INTERNO(500);         // Não é regra de negócio (ex.: erro de disco na importação)
+
+    private final int statusHttp;
+
+    CodigoErro(int statusHttp) {
+        this.statusHttp = statusHttp;
+    }
+
+    public int getStatusHttp() {
+        return this.statusHttp;
+    }
+}
\ No newline at end of file
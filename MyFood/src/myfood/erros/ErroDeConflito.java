@@ -0,0 +1,11 @@
+package myfood.erros;
+
+// Já existe um igual (email, empresa, produto, pedido em aberto)
+public class ErroDeConflito extends ErroMyFood {
+
+    private static final long serialVersionUID = 1L;
+
+    public ErroDeConflito(String mensagem) {
+        super(CodigoErro.CONFLITO, mensagem);
+    }
+}
\ No newline at end of file
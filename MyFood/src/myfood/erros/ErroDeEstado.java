@@ -0,0 +1,11 @@
+package myfood.erros;
+
+// O pedido não está no estado que a operação precisa
+public class ErroDeEstado extends ErroMyFood {
+
+    private static final long serialVersionUID = 1L;
+
+    public ErroDeEstado(String mensagem) {
+        super(CodigoErro.ESTADO_INVALIDO, mensagem);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,11 @@
+package myfood.erros;
+
+// Email ou senha errados no login
+public class ErroDeLogin extends ErroMyFood {
+
+    private static final long serialVersionUID = 1L;
+
+    public ErroDeLogin(String mensagem) {
+        super(CodigoErro.LOGIN_INVALIDO, mensagem);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,11 @@
+package myfood.erros;
+
+// Campo nulo/vazio ou com formato errado, atributo/índice/página inválidos
+public class ErroDeValidacao extends ErroMyFood {
+
+    private static final long serialVersionUID = 1L;
+
+    public ErroDeValidacao(String mensagem) {
+        super(CodigoErro.DADO_INVALIDO, mensagem);
+    }
+}
\ No newline at end of file
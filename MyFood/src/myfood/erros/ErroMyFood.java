@@ -0,0 +1,23 @@
+package myfood.erros;
+
+// Base dos erros de regra de negócio/validação.
+// Não guarda stack trace: esses erros são esperados (login errado, email repetido...)
+// e acontecem aos montes quando um bot ou um cliente fica tentando de novo; montar a pilha
+// toda a cada throw era o que mais gastava CPU nesses casos. Pra achar bug, a pilha
+// continua vindo nas outras exceções (RuntimeException etc.).
+// Como não tem pilha nem suprimidas, uma instância pode ser reaproveitada (ver ControladorUsuario).
+public class ErroMyFood extends Exception {
+
+    private static final long serialVersionUID = 1L;
+
+    private final CodigoErro codigo;
+
+    public ErroMyFood(CodigoErro codigo, String mensagem) {
+        super(mensagem, null, false, false);
+        this.codigo = codigo;
+    }
+
+    public CodigoErro getCodigo() {
+        return this.codigo;
+    }
+}
\ No newline at end of file
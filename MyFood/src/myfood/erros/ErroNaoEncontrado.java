@@ -0,0 +1,11 @@
+package myfood.erros;
+
+// Usuário, empresa, produto ou pedido que não existe
+public class ErroNaoEncontrado extends ErroMyFood {
+
+    private static final long serialVersionUID = 1L;
+
+    public ErroNaoEncontrado(String mensagem) {
+        super(CodigoErro.NAO_ENCONTRADO, mensagem);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,11 @@
+package myfood.erros;
+
+// O tipo de usuário não pode fazer essa operação
+public class ErroNaoPermitido extends ErroMyFood {
+
+    private static final long serialVersionUID = 1L;
+
+    public ErroNaoPermitido(String mensagem) {
+        super(CodigoErro.NAO_PERMITIDO, mensagem);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,46 @@
+package myfood.erros;
+
+// Retorno da FacadeSemExcecoes: ou deu certo (com o valor), ou tem o código e a mensagem do erro.
+// Quem chama olha isOk()/getCodigo() em vez de tratar exceção.
+public final class Resultado<T> {
+
+    private static final Resultado<Void> OK_SEM_VALOR = new Resultado<>(null, null, null);
+
+    private final T valor;
+    private final CodigoErro codigo; // null = deu certo
+    private final String mensagem;
+
+    private Resultado(T valor, CodigoErro codigo, String mensagem) {
+        this.valor = valor;
+        this.codigo = codigo;
+        this.mensagem = mensagem;
+    }
+
+    public static <T> Resultado<T> ok(T valor) {
+        return new Resultado<>(valor, null, null);
+    }
+
+    public static Resultado<Void> ok() {
+        return OK_SEM_VALOR;
+    }
+
+    public static <T> Resultado<T> erro(CodigoErro codigo, String mensagem) {
+        return new Resultado<>(null, codigo, mensagem);
+    }
+
+    public static <T> Resultado<T> erro(ErroMyFood e) {
+        return new Resultado<>(null, e.getCodigo(), e.getMessage());
+    }
+
+    // --- Getters ---
+    public boolean isOk() { return this.codigo == null; }
+    public T getValor() { return this.valor; }
+    public CodigoErro getCodigo() { return this.codigo; }
+    public String getMensagem() { return this.mensagem; }
+
+    // "ok(3)" / "NAO_ENCONTRADO: Pedido nao encontrado"
+    @Override
+    public String toString() {
+        return isOk() ? "ok(" + this.valor + ")" : this.codigo + ": " + this.mensagem;
+    }
+}
\ No newline at end of file
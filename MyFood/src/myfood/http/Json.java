@@ -0,0 +1,188 @@
+package myfood.http;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// JSON mínimo pro servidor: lê um objeto "plano" ({"chave": valor, ...}, sem objetos
+// ou listas dentro) e escreve as respostas. Os valores lidos ficam como texto
+// (números também); null vira null mesmo.
+public final class Json {
+
+    private Json() {
+    }
+
+    // --- Leitura ---
+
+    public static Map<String, String> lerObjeto(String texto) {
+        Leitor l = new Leitor(texto);
+        Map<String, String> campos = new LinkedHashMap<>();
+        l.pularEspacos();
+        if (l.fim()) {
+            return campos; // Corpo vazio = sem parâmetros
+        }
+        l.esperar('{');
+        l.pularEspacos();
+        if (l.proximoE('}')) {
+            l.pos++;
+        } else {
+            while (true) {
+                l.pularEspacos();
+                String chave = l.lerString();
+                l.pularEspacos();
+                l.esperar(':');
+                l.pularEspacos();
+                campos.put(chave, l.lerValor());
+                l.pularEspacos();
+                if (l.proximoE(',')) {
+                    l.pos++;
+                } else {
+                    l.esperar('}');
+                    break;
+                }
+            }
+        }
+        l.pularEspacos();
+        if (!l.fim()) {
+            throw new IllegalArgumentException("JSON invalido: sobrou texto depois do objeto");
+        }
+        return campos;
+    }
+
+    private static class Leitor {
+        private final String s;
+        private int pos;
+
+        Leitor(String s) {
+            this.s = s;
+        }
+
+        boolean fim() {
+            return this.pos >= this.s.length();
+        }
+
+        boolean proximoE(char c) {
+            return !fim() && this.s.charAt(this.pos) == c;
+        }
+
+        void pularEspacos() {
+            while (!fim() && Character.isWhitespace(this.s.charAt(this.pos))) {
+                this.pos++;
+            }
+        }
+
+        void esperar(char c) {
+            if (!proximoE(c)) {
+                throw new IllegalArgumentException("JSON invalido: esperava '" + c + "' na posicao " + this.pos);
+            }
+            this.pos++;
+        }
+
+        String lerValor() {
+            if (proximoE('"')) {
+                return lerString();
+            }
+            if (proximoE('{') || proximoE('[')) {
+                throw new IllegalArgumentException("JSON invalido: so valores simples sao aceitos");
+            }
+            int inicio = this.pos;
+            while (!fim() && ",} \t\r\n".indexOf(this.s.charAt(this.pos)) < 0) {
+                this.pos++;
+            }
+            String bruto = this.s.substring(inicio, this.pos);
+            if (bruto.isEmpty()) {
+                throw new IllegalArgumentException("JSON invalido: valor vazio na posicao " + inicio);
+            }
+            return bruto.equals("null") ? null : bruto;
+        }
+
+        String lerString() {
+            esperar('"');
+            StringBuilder sb = new StringBuilder();
+            while (true) {
+                if (fim()) {
+                    throw new IllegalArgumentException("JSON invalido: string sem fim");
+                }
+                char c = this.s.charAt(this.pos++);
+                if (c == '"') {
+                    return sb.toString();
+                }
+                if (c != '\\') {
+                    sb.append(c);
+                    continue;
+                }
+                if (fim()) {
+                    throw new IllegalArgumentException("JSON invalido: escape sem fim");
+                }
+                char e = this.s.charAt(this.pos++);
+                switch (e) {
+                    case '"': case '\\': case '/': sb.append(e); break;
+                    case 'b': sb.append('\b'); break;
+                    case 'f': sb.append('\f'); break;
+                    case 'n': sb.append('\n'); break;
+                    case 'r': sb.append('\r'); break;
+                    case 't': sb.append('\t'); break;
+                    case 'u':
+                        if (this.pos + 4 > this.s.length()) {
+                            throw new IllegalArgumentException("JSON invalido: \\u incompleto");
+                        }
+                        sb.append((char) Integer.parseInt(this.s.substring(this.pos, this.pos + 4), 16));
+                        this.pos += 4;
+                        break;
+                    default:
+                        throw new IllegalArgumentException("JSON invalido: escape \\" + e);
+                }
+            }
+        }
+    }
+
+    // --- Escrita ---
+
+    // {"resultado": valor}; números e booleanos vão sem aspas, o resto como string
+    public static String resultado(Object valor) {
+        StringBuilder sb = new StringBuilder("{\"resultado\":");
+        if (valor == null) {
+            sb.append("null");
+        } else if (valor instanceof Number || valor instanceof Boolean) {
+            sb.append(valor);
+        } else {
+            escreverString(sb, valor.toString());
+        }
+        return sb.append('}').toString();
+    }
+
+    public static String erro(String mensagem) {
+        StringBuilder sb = new StringBuilder("{\"erro\":");
+        escreverString(sb, mensagem != null ? mensagem : "erro");
+        return sb.append('}').toString();
+    }
+
+    // {"erro":"Pedido nao encontrado","codigo":"NAO_ENCONTRADO"}
+    public static String erro(String mensagem, String codigo) {
+        StringBuilder sb = new StringBuilder("{\"erro\":");
+        escreverString(sb, mensagem != null ? mensagem : "erro");
+        sb.append(",\"codigo\":");
+        escreverString(sb, codigo);
+        return sb.append('}').toString();
+    }
+
+    private static void escreverString(StringBuilder sb, String s) {
+        sb.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"': sb.append("\\\""); break;
+                case '\\': sb.append("\\\\"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                case '\t': sb.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        sb.append('"');
+    }
+}
\ No newline at end of file
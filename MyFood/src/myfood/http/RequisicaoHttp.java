@@ -0,0 +1,192 @@
+package myfood.http;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+// Uma requisição HTTP/1.1 lida do socket: linha inicial, cabeçalhos e corpo (Content-Length).
+// Corpo "chunked" não é aceito; os clientes de teste sempre mandam o tamanho.
+public class RequisicaoHttp {
+
+    private static final int LIMITE_LINHA = 8 * 1024;
+    private static final int LIMITE_CABECALHOS = 100;
+    private static final int LIMITE_CORPO = 1024 * 1024;
+
+    private final String metodo;
+    private final String caminho;
+    private final String versao;
+    private final Map<String, String> consulta;   // ?a=1&b=2
+    private final Map<String, String> cabecalhos; // nomes em minúsculo
+    private final byte[] corpo;
+
+    private RequisicaoHttp(String metodo, String caminho, String versao, Map<String, String> consulta,
+                           Map<String, String> cabecalhos, byte[] corpo) {
+        this.metodo = metodo;
+        this.caminho = caminho;
+        this.versao = versao;
+        this.consulta = consulta;
+        this.cabecalhos = cabecalhos;
+        this.corpo = corpo;
+    }
+
+    // --- Getters ---
+    public String getMetodo() { return this.metodo; }
+    public String getCaminho() { return this.caminho; }
+    public String getVersao() { return this.versao; }
+    public Map<String, String> getConsulta() { return this.consulta; }
+    public String getCabecalho(String nome) { return this.cabecalhos.get(nome.toLowerCase(Locale.ROOT)); }
+    public byte[] getCorpo() { return this.corpo; }
+
+    public String getCorpoTexto() {
+        return new String(this.corpo, StandardCharsets.UTF_8);
+    }
+
+    // HTTP/1.1 mantém a conexão por padrão; HTTP/1.0 só se pedir
+    public boolean manterConexao() {
+        String conexao = getCabecalho("connection");
+        if (conexao != null) {
+            String c = conexao.toLowerCase(Locale.ROOT);
+            if (c.contains("close")) {
+                return false;
+            }
+            if (c.contains("keep-alive")) {
+                return true;
+            }
+        }
+        return this.versao.equals("HTTP/1.1");
+    }
+
+    // Lê a próxima requisição; retorna null se o cliente fechou a conexão antes de mandar outra
+    public static RequisicaoHttp ler(InputStream in) throws IOException {
+        String linha = lerLinha(in);
+        if (linha == null) {
+            return null;
+        }
+        // Alguns clientes mandam uma linha vazia entre requisições
+        while (linha.isEmpty()) {
+            linha = lerLinha(in);
+            if (linha == null) {
+                return null;
+            }
+        }
+
+        String[] partes = linha.split(" ");
+        if (partes.length != 3 || !partes[2].startsWith("HTTP/")) {
+            throw new ErroHttp(400, "Linha de requisicao invalida");
+        }
+
+        Map<String, String> cabecalhos = new HashMap<>();
+        while (true) {
+            String h = lerLinha(in);
+            if (h == null) {
+                throw new ErroHttp(400, "Conexao fechada no meio dos cabecalhos");
+            }
+            if (h.isEmpty()) {
+                break;
+            }
+            if (cabecalhos.size() >= LIMITE_CABECALHOS) {
+                throw new ErroHttp(431, "Cabecalhos demais");
+            }
+            int doisPontos = h.indexOf(':');
+            if (doisPontos <= 0) {
+                throw new ErroHttp(400, "Cabecalho invalido");
+            }
+            cabecalhos.put(h.substring(0, doisPontos).trim().toLowerCase(Locale.ROOT), h.substring(doisPontos + 1).trim());
+        }
+
+        if (cabecalhos.containsKey("transfer-encoding")) {
+            throw new ErroHttp(411, "Corpo chunked nao suportado, mande Content-Length");
+        }
+        byte[] corpo = lerCorpo(in, cabecalhos.get("content-length"));
+
+        String alvo = partes[1];
+        int interrogacao = alvo.indexOf('?');
+        String caminho = interrogacao < 0 ? alvo : alvo.substring(0, interrogacao);
+        Map<String, String> consulta = interrogacao < 0 ? new LinkedHashMap<>() : lerConsulta(alvo.substring(interrogacao + 1));
+        return new RequisicaoHttp(partes[0], caminho, partes[2], consulta, cabecalhos, corpo);
+    }
+
+    // --- Helpers ---
+
+    // Linha terminada em \r\n (ou só \n); null se o stream acabou antes de qualquer byte
+    private static String lerLinha(InputStream in) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        int b;
+        while ((b = in.read()) != -1) {
+            if (b == '\n') {
+                int fim = sb.length();
+                if (fim > 0 && sb.charAt(fim - 1) == '\r') {
+                    sb.setLength(fim - 1);
+                }
+                return sb.toString();
+            }
+            if (sb.length() >= LIMITE_LINHA) {
+                throw new ErroHttp(431, "Linha grande demais");
+            }
+            sb.append((char) b); // ISO-8859-1, como manda o HTTP
+        }
+        if (sb.length() == 0) {
+            return null;
+        }
+        throw new ErroHttp(400, "Conexao fechada no meio de uma linha");
+    }
+
+    private static byte[] lerCorpo(InputStream in, String contentLength) throws IOException {
+        if (contentLength == null) {
+            return new byte[0];
+        }
+        int tamanho;
+        try {
+            tamanho = Integer.parseInt(contentLength);
+        } catch (NumberFormatException e) {
+            throw new ErroHttp(400, "Content-Length invalido");
+        }
+        if (tamanho < 0 || tamanho > LIMITE_CORPO) {
+            throw new ErroHttp(413, "Corpo grande demais");
+        }
+        byte[] corpo = in.readNBytes(tamanho);
+        if (corpo.length < tamanho) {
+            throw new ErroHttp(400, "Conexao fechada no meio do corpo");
+        }
+        return corpo;
+    }
+
+    private static Map<String, String> lerConsulta(String texto) throws ErroHttp {
+        Map<String, String> valores = new LinkedHashMap<>();
+        for (String par : texto.split("&")) {
+            if (par.isEmpty()) {
+                continue;
+            }
+            int igual = par.indexOf('=');
+            String chave = igual < 0 ? par : par.substring(0, igual);
+            String valor = igual < 0 ? "" : par.substring(igual + 1);
+            try {
+                valores.put(URLDecoder.decode(chave, StandardCharsets.UTF_8), URLDecoder.decode(valor, StandardCharsets.UTF_8));
+            } catch (IllegalArgumentException e) {
+                throw new ErroHttp(400, "Query string invalida");
+            }
+        }
+        return valores;
+    }
+
+    // Erro de protocolo: vira resposta com esse status e a conexão é fechada
+    public static class ErroHttp extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        private final int status;
+
+        public ErroHttp(int status, String mensagem) {
+            super(mensagem);
+            this.status = status;
+        }
+
+        public int getStatus() {
+            return this.status;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,194 @@
+package myfood.http;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import myfood.Facade;
+
+// Uma rota por operação da Facade, com o mesmo nome e os mesmos parâmetros:
+//   POST /criarPedido  {"cliente": 3, "empresa": 1}  ->  {"resultado": 7}
+//   GET  /getPedidos?pedido=7&atributo=valor          ->  {"resultado": "12.50"}
+// Os parâmetros podem vir no corpo (JSON) ou na query string.
+// Só as consultas aceitam GET; o que muda estado (e o login, que leva a senha) é só POST.
+// Métodos void respondem {"resultado": null}; erro de validação vira 400 com {"erro": "mensagem"}.
+//
+// Rotas administrativas (zerarSistema, encerrarSistema e importar*, que lê um caminho qualquer
+// do servidor) só existem se quem sobe o servidor pedir: não tem autenticação nenhuma aqui.
+public class RotasFacade {
+
+    // Uma operação: lê os parâmetros que precisa e chama a Facade
+    interface Rota {
+        Object executar(Parametros p) throws Exception;
+    }
+
+    private final Map<String, Rota> rotas = new HashMap<>();
+    // Rotas que também aceitam GET
+    private final Set<String> leituras = new HashSet<>();
+
+    public RotasFacade(Facade f) {
+        this(f, false);
+    }
+
+    public RotasFacade(Facade f, boolean administrativas) {
+        // Usuário (com cpf cria Dono, sem cpf cria Cliente, igual à Facade)
+        this.rotas.put("criarUsuario", p -> {
+            if (p.tem("cpf")) {
+                f.criarUsuario(p.texto("nome"), p.texto("email"), p.texto("senha"), p.texto("endereco"), p.texto("cpf"));
+            } else {
+                f.criarUsuario(p.texto("nome"), p.texto("email"), p.texto("senha"), p.texto("endereco"));
+            }
+            return null;
+        });
+        this.rotas.put("login", p -> f.login(p.texto("email"), p.texto("senha")));
+        leitura("getAtributoUsuario", p -> f.getAtributoUsuario(p.inteiro("id"), p.texto("atributo")));
+
+        // Empresa
+        this.rotas.put("criarEmpresa", p -> f.criarEmpresa(p.texto("tipoEmpresa"), p.inteiro("dono"), p.texto("nome"),
+                p.texto("endereco"), p.texto("tipoCozinha")));
+        leitura("getEmpresasDoUsuario", p -> f.getEmpresasDoUsuario(p.inteiro("idDono")));
+        leitura("getAtributoEmpresa", p -> f.getAtributoEmpresa(p.inteiro("empresa"), p.texto("atributo")));
+        leitura("getIdEmpresa", p -> f.getIdEmpresa(p.inteiro("idDono"), p.texto("nome"), p.inteiro("indice")));
+        leitura("buscarEmpresas", p -> f.buscarEmpresas(p.texto("tipoCozinha"), p.texto("endereco"),
+                p.inteiro("pagina"), p.tem("tamanhoPagina") ? p.inteiro("tamanhoPagina") : 20));
+
+        // Produto
+        this.rotas.put("criarProduto", p -> f.criarProduto(p.inteiro("empresa"), p.texto("nome"), p.real("valor"),
+                p.texto("categoria")));
+        this.rotas.put("editarProduto", p -> {
+            f.editarProduto(p.inteiro("produto"), p.texto("nome"), p.real("valor"), p.texto("categoria"));
+            return null;
+        });
+        leitura("getProduto", p -> f.getProduto(p.texto("nome"), p.inteiro("empresa"), p.texto("atributo")));
+        leitura("listarProdutos", p -> f.listarProdutos(p.inteiro("empresa")));
+        // Na busca só a página é obrigatória; o resto é filtro opcional
+        leitura("buscarProdutos", p -> f.buscarProdutos(p.texto("termo"), p.texto("categoria"), p.texto("tipoCozinha"),
+                p.tem("precoMinimo") ? p.real("precoMinimo") : -1, p.tem("precoMaximo") ? p.real("precoMaximo") : -1,
+                p.texto("ordem"), p.inteiro("pagina"), p.tem("tamanhoPagina") ? p.inteiro("tamanhoPagina") : 20));
+
+        // Pedido
+        this.rotas.put("criarPedido", p -> f.criarPedido(p.inteiro("cliente"), p.inteiro("empresa")));
+        leitura("getNumeroPedido", p -> f.getNumeroPedido(p.inteiro("cliente"), p.inteiro("empresa"), p.inteiro("indice")));
+        this.rotas.put("adicionarProduto", p -> {
+            f.adicionarProduto(p.inteiro("numero"), p.inteiro("produto"));
+            return null;
+        });
+        this.rotas.put("criarPedidoComProdutos", p -> f.criarPedidoComProdutos(p.inteiro("cliente"), p.inteiro("empresa"),
+                p.texto("produtos")));
+        this.rotas.put("adicionarProdutos", p -> {
+            f.adicionarProdutos(p.inteiro("numero"), p.texto("produtos"));
+            return null;
+        });
+        leitura("getPedidos", p -> f.getPedidos(p.inteiro("pedido"), p.texto("atributo")));
+        this.rotas.put("fecharPedido", p -> {
+            f.fecharPedido(p.inteiro("numero"));
+            return null;
+        });
+        this.rotas.put("removerProduto", p -> {
+            f.removerProduto(p.inteiro("pedido"), p.texto("produto"));
+            return null;
+        });
+        this.rotas.put("liberarPedido", p -> {
+            f.liberarPedido(p.inteiro("numero"));
+            return null;
+        });
+        this.rotas.put("despacharPedido", p -> {
+            f.despacharPedido(p.inteiro("numero"));
+            return null;
+        });
+        this.rotas.put("entregarPedido", p -> {
+            f.entregarPedido(p.inteiro("numero"));
+            return null;
+        });
+        leitura("getPedidosPorEstado", p -> f.getPedidosPorEstado(p.inteiro("empresa"), p.texto("estado")));
+
+        if (administrativas) {
+            registrarAdministrativas(f);
+        }
+    }
+
+    private void registrarAdministrativas(Facade f) {
+        // Importação em massa (o arquivo é um caminho no servidor)
+        this.rotas.put("importarUsuarios", p -> f.importarUsuarios(p.texto("arquivo")));
+        this.rotas.put("importarEmpresas", p -> f.importarEmpresas(p.texto("arquivo")));
+        this.rotas.put("importarProdutos", p -> f.importarProdutos(p.texto("arquivo")));
+
+        // Sistema
+        this.rotas.put("zerarSistema", p -> {
+            f.zerarSistema();
+            return null;
+        });
+        this.rotas.put("encerrarSistema", p -> {
+            f.encerrarSistema();
+            return null;
+        });
+    }
+
+    private void leitura(String nome, Rota rota) {
+        this.rotas.put(nome, rota);
+        this.leituras.add(nome);
+    }
+
+    // null se não existe rota com esse nome
+    Rota rota(String nome) {
+        return this.rotas.get(nome);
+    }
+
+    boolean aceitaGet(String nome) {
+        return this.leituras.contains(nome);
+    }
+
+    // Parâmetros de uma chamada, já juntando query string e corpo (o corpo ganha)
+    static class Parametros {
+        private final Map<String, String> valores;
+
+        Parametros(Map<String, String> valores) {
+            this.valores = valores;
+        }
+
+        boolean tem(String nome) {
+            return this.valores.get(nome) != null;
+        }
+
+        // Texto que falta vai como null, a Facade é quem valida
+        String texto(String nome) {
+            return this.valores.get(nome);
+        }
+
+        int inteiro(String nome) throws ParametroInvalido {
+            String v = obrigatorio(nome);
+            try {
+                return Integer.parseInt(v);
+            } catch (NumberFormatException e) {
+                throw new ParametroInvalido("Parametro " + nome + " deve ser inteiro");
+            }
+        }
+
+        float real(String nome) throws ParametroInvalido {
+            String v = obrigatorio(nome);
+            try {
+                return Float.parseFloat(v);
+            } catch (NumberFormatException e) {
+                throw new ParametroInvalido("Parametro " + nome + " deve ser numero");
+            }
+        }
+
+        private String obrigatorio(String nome) throws ParametroInvalido {
+            String v = this.valores.get(nome);
+            if (v == null) {
+                throw new ParametroInvalido("Parametro obrigatorio: " + nome);
+            }
+            return v;
+        }
+    }
+
+    // Parâmetro que não dá pra converter (a Facade nem chega a ser chamada)
+    static class ParametroInvalido extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        ParametroInvalido(String mensagem) {
+            super(mensagem);
+        }
+    }
+}
\ No newline at end of file
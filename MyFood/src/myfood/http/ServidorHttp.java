@@ -0,0 +1,291 @@
+package myfood.http;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import myfood.Facade;
+import myfood.erros.ErroMyFood;
+
+// Servidor HTTP/JSON na frente da Facade (as rotas estão em RotasFacade).
+//
+// Cada conexão é atendida por uma tarefa só dela, que lê uma requisição, responde,
+// e volta a ler (keep-alive). Se o cliente mandar várias requisições de uma vez
+// (pipelining), elas são respondidas em ordem e a saída só é enviada quando
+// não sobra nada no buffer de entrada, então o lote vai junto pela rede.
+//
+// Com Java 21+ cada conexão roda numa virtual thread (milhares de conexões custam pouco);
+// no Java 17 cai num pool de threads normais que cresce conforme precisa.
+//
+// Por padrão só escuta no loopback (127.0.0.1) e sem as rotas administrativas, porque não
+// tem autenticação. Pra abrir pra rede: -Dmyfood.http.endereco=0.0.0.0 (ou o IP da interface);
+// pra ligar zerarSistema/encerrarSistema/importar*: -Dmyfood.http.admin=true (só por POST).
+//
+// Uso: java [-Dmyfood.http.endereco=...] [-Dmyfood.http.admin=true] myfood.http.ServidorHttp [porta]   (padrão 8080)
+//      curl -d '{"email":"a@b.com","senha":"123"}' http://127.0.0.1:8080/login
+public class ServidorHttp {
+
+    private static final int TEMPO_OCIOSO_MS = 30_000; // Conexão parada por mais que isso é fechada
+    private static final int TAMANHO_BUFFER = 16 * 1024;
+
+    private final Facade facade;
+    private final RotasFacade rotas;
+    private final ServerSocket servidor;
+    private final ExecutorService executor;
+    private final Set<Socket> conexoes = ConcurrentHashMap.newKeySet();
+    private volatile boolean aberto = true;
+    private Thread aceitador;
+
+    // Loopback e sem rotas administrativas
+    public ServidorHttp(Facade facade, int porta) throws IOException {
+        this(facade, InetAddress.getLoopbackAddress(), porta, false);
+    }
+
+    public ServidorHttp(Facade facade, InetAddress endereco, int porta, boolean rotasAdministrativas) throws IOException {
+        this.facade = facade;
+        this.rotas = new RotasFacade(facade, rotasAdministrativas);
+        this.servidor = new ServerSocket();
+        this.servidor.setReuseAddress(true);
+        this.servidor.bind(new InetSocketAddress(endereco, porta), 4096);
+        this.executor = criarExecutor();
+    }
+
+    public static void main(String[] args) throws Exception {
+        int porta = args.length > 0 ? Integer.parseInt(args[0]) : 8080;
+        String endereco = System.getProperty("myfood.http.endereco");
+        Facade facade = new Facade();
+        ServidorHttp servidor = new ServidorHttp(facade,
+                endereco != null ? InetAddress.getByName(endereco) : InetAddress.getLoopbackAddress(),
+                porta, Boolean.getBoolean("myfood.http.admin"));
+
+        // Ctrl+C: para de aceitar e salva tudo
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            servidor.parar();
+            facade.encerrarSistema();
+        }));
+
+        servidor.iniciar();
+        System.out.println("MyFood ouvindo em http://" + servidor.servidor.getInetAddress().getHostAddress() + ":" + servidor.getPorta() + "/");
+        servidor.aceitador.join();
+    }
+
+    // Virtual threads se o Java tiver (pega por reflexão porque o projeto compila no 17)
+    private static ExecutorService criarExecutor() {
+        try {
+            Method m = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) m.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger contador = new AtomicInteger();
+            return Executors.newCachedThreadPool(r -> {
+                Thread t = new Thread(r, "myfood-http-" + contador.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
+    public int getPorta() {
+        return this.servidor.getLocalPort();
+    }
+
+    public void iniciar() {
+        this.aceitador = new Thread(this::aceitar, "myfood-http-aceitador");
+        this.aceitador.start();
+    }
+
+    // Fecha o socket de escuta e as conexões abertas (as requisições em andamento terminam com erro de IO)
+    public void parar() {
+        this.aberto = false;
+        try {
+            this.servidor.close();
+        } catch (IOException e) {
+            System.err.println("Erro ao fechar servidor HTTP: " + e.getMessage());
+        }
+        for (Socket s : this.conexoes) {
+            try {
+                s.close();
+            } catch (IOException e) {
+                // Já estava fechando
+            }
+        }
+        this.executor.shutdownNow();
+    }
+
+    // --- Conexões ---
+
+    private void aceitar() {
+        while (this.aberto) {
+            Socket s;
+            try {
+                s = this.servidor.accept();
+            } catch (IOException e) {
+                if (this.aberto) {
+                    System.err.println("Erro ao aceitar conexao: " + e.getMessage());
+                }
+                continue;
+            }
+            this.conexoes.add(s);
+            try {
+                this.executor.execute(() -> atender(s));
+            } catch (RuntimeException e) {
+                // Executor já desligado (parar no meio do accept)
+                this.conexoes.remove(s);
+                fecharQuieto(s);
+            }
+        }
+    }
+
+    private void atender(Socket s) {
+        try {
+            s.setTcpNoDelay(true);
+            s.setSoTimeout(TEMPO_OCIOSO_MS);
+            InputStream in = new BufferedInputStream(s.getInputStream(), TAMANHO_BUFFER);
+            OutputStream out = new BufferedOutputStream(s.getOutputStream(), TAMANHO_BUFFER);
+
+            while (this.aberto) {
+                RequisicaoHttp r;
+                try {
+                    r = RequisicaoHttp.ler(in);
+                } catch (RequisicaoHttp.ErroHttp e) {
+                    escrever(out, new Resposta(e.getStatus(), Json.erro(e.getMessage())), false);
+                    out.flush();
+                    return;
+                }
+                if (r == null) {
+                    return; // Cliente fechou
+                }
+
+                boolean manter = this.aberto && r.manterConexao();
+                escrever(out, tratar(r), manter);
+                // Se já chegou a próxima requisição, deixa essa resposta no buffer e manda junto
+                if (!manter || in.available() == 0) {
+                    out.flush();
+                }
+                if (!manter) {
+                    return;
+                }
+            }
+        } catch (SocketTimeoutException e) {
+            // Ficou parada demais, fecha
+        } catch (IOException e) {
+            // Cliente caiu no meio; não tem pra quem responder
+        } finally {
+            this.conexoes.remove(s);
+            fecharQuieto(s);
+        }
+    }
+
+    // --- Requisições ---
+
+    private Resposta tratar(RequisicaoHttp r) {
+        String metodo = r.getMetodo();
+        if (!metodo.equals("GET") && !metodo.equals("POST")) {
+            return new Resposta(405, Json.erro("Metodo nao suportado: " + metodo));
+        }
+        String nome = r.getCaminho().startsWith("/") ? r.getCaminho().substring(1) : r.getCaminho();
+
+        if (nome.equals("metricas")) {
+            return new Resposta(200, "text/plain; charset=utf-8", this.facade.getRelatorioMetricas());
+        }
+
+        RotasFacade.Rota rota = this.rotas.rota(nome);
+        if (rota == null) {
+            return new Resposta(404, Json.erro("Operacao desconhecida: " + nome));
+        }
+        if (metodo.equals("GET") && !this.rotas.aceitaGet(nome)) {
+            // Um link ou <img> não pode mudar o estado
+            return new Resposta(405, Json.erro("Use POST para /" + nome));
+        }
+
+        Map<String, String> parametros;
+        try {
+            parametros = new HashMap<>(r.getConsulta());
+            if (r.getCorpo().length > 0) {
+                parametros.putAll(Json.lerObjeto(r.getCorpoTexto()));
+            }
+        } catch (IllegalArgumentException e) {
+            return new Resposta(400, Json.erro(e.getMessage()));
+        }
+
+        try {
+            return new Resposta(200, Json.resultado(rota.executar(new RotasFacade.Parametros(parametros))));
+        } catch (RuntimeException e) {
+            // Não é validação, é bug
+            System.err.println("Erro inesperado em /" + nome + ": " + e);
+            return new Resposta(500, Json.erro("Erro interno"));
+        } catch (ErroMyFood e) {
+            // Regras de negócio: o status sai do código do erro (404, 409...)
+            return new Resposta(e.getCodigo().getStatusHttp(), Json.erro(e.getMessage(), e.getCodigo().name()));
+        } catch (Exception e) {
+            // Parâmetros inválidos (número mal escrito, parâmetro faltando)
+            return new Resposta(400, Json.erro(e.getMessage()));
+        }
+    }
+
+    private static void escrever(OutputStream out, Resposta resposta, boolean manter) throws IOException {
+        byte[] corpo = resposta.corpo.getBytes(StandardCharsets.UTF_8);
+        String cabecalho = "HTTP/1.1 " + resposta.status + " " + textoStatus(resposta.status) + "\r\n"
+                + "Content-Type: " + resposta.tipo + "\r\n"
+                + "Content-Length: " + corpo.length + "\r\n"
+                + (manter ? "" : "Connection: close\r\n")
+                + "\r\n";
+        out.write(cabecalho.getBytes(StandardCharsets.ISO_8859_1));
+        out.write(corpo);
+    }
+
+    private static String textoStatus(int status) {
+        switch (status) {
+            case 200: return "OK";
+            case 400: return "Bad Request";
+            case 401: return "Unauthorized";
+            case 403: return "Forbidden";
+            case 404: return "Not Found";
+            case 405: return "Method Not Allowed";
+            case 409: return "Conflict";
+            case 411: return "Length Required";
+            case 413: return "Payload Too Large";
+            case 431: return "Request Header Fields Too Large";
+            default: return "Internal Server Error";
+        }
+    }
+
+    private static void fecharQuieto(Socket s) {
+        try {
+            s.close();
+        } catch (IOException e) {
+            // Nada a fazer
+        }
+    }
+
+    private static class Resposta {
+        final int status;
+        final String tipo;
+        final String corpo;
+
+        Resposta(int status, String corpo) {
+            this(status, "application/json; charset=utf-8", corpo);
+        }
+
+        Resposta(int status, String tipo, String corpo) {
+            this.status = status;
+            this.tipo = tipo;
+            this.corpo = corpo;
+        }
+    }
+}
\ No newline at end of file
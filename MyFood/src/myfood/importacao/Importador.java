@@ -0,0 +1,51 @@
+package myfood.importacao;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Importação em massa: lê o arquivo em lotes de TAMANHO_LOTE linhas e entrega cada lote
+// (só as linhas que deu pra ler) pro controlador, que valida tudo de uma vez, reserva
+// os IDs juntos e manda o lote todo pro journal de uma vez.
+// A memória fica limitada a um lote, seja qual for o tamanho do arquivo.
+public class Importador {
+
+    public static final int TAMANHO_LOTE = 4096;
+
+    // Aplica um lote; devolve o erro de cada linha (null = importada), na mesma ordem
+    public interface AplicadorDeLote {
+        String[] aplicar(List<String[]> linhas) throws Exception;
+    }
+
+    private Importador() {
+    }
+
+    public static RelatorioImportacao importar(String arquivo, String[] colunas, AplicadorDeLote aplicador) throws Exception {
+        RelatorioImportacao relatorio = new RelatorioImportacao();
+        try (LeitorDeImportacao leitor = LeitorDeImportacao.abrir(arquivo, colunas)) {
+            List<LinhaImportada> lote;
+            while (!(lote = leitor.proximoLote(TAMANHO_LOTE)).isEmpty()) {
+                List<String[]> validas = new ArrayList<>(lote.size());
+                for (LinhaImportada l : lote) {
+                    if (l.getErro() == null) {
+                        validas.add(l.getCampos());
+                    }
+                }
+                String[] erros = validas.isEmpty() ? new String[0] : aplicador.aplicar(validas);
+
+                // Junta os erros de leitura e os do controlador na ordem das linhas
+                int importados = 0;
+                int i = 0;
+                for (LinhaImportada l : lote) {
+                    String erro = l.getErro() != null ? l.getErro() : erros[i++];
+                    if (erro == null) {
+                        importados++;
+                    } else {
+                        relatorio.adicionarErro(l.getNumero(), erro);
+                    }
+                }
+                relatorio.contarImportados(importados);
+            }
+        }
+        return relatorio;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,163 @@
+package myfood.importacao;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import myfood.erros.ErroDeValidacao;
+import myfood.erros.ErroNaoEncontrado;
+import myfood.http.Json;
+
+// Lê um arquivo de importação aos pedaços (nunca o arquivo inteiro na memória).
+// Dois formatos, pela extensão:
+//   .csv            primeira linha é o cabeçalho com os nomes das colunas; campo com
+//                   vírgula vai entre aspas ("" dentro das aspas é uma aspa)
+//   .jsonl / .json  um objeto JSON simples por linha ({"nome": "...", ...})
+// Em qualquer um, os campos saem na ordem das colunas pedidas; coluna que não
+// veio (ou veio vazia) fica null. Coluna desconhecida é ignorada.
+public class LeitorDeImportacao implements Closeable {
+
+    private final BufferedReader leitor;
+    private final String[] colunas;
+    private final boolean csv;
+    private int[] posicaoDaColuna; // CSV: coluna pedida -> posição no arquivo (-1 se não tem)
+    private int numeroDaLinha;
+
+    private LeitorDeImportacao(BufferedReader leitor, String[] colunas, boolean csv) {
+        this.leitor = leitor;
+        this.colunas = colunas;
+        this.csv = csv;
+    }
+
+    public static LeitorDeImportacao abrir(String arquivo, String[] colunas) throws Exception {
+        if (arquivo == null || arquivo.trim().isEmpty()) {
+            throw new ErroDeValidacao("Arquivo invalido");
+        }
+        String nome = arquivo.toLowerCase();
+        boolean csv = nome.endsWith(".csv");
+        if (!csv && !nome.endsWith(".jsonl") && !nome.endsWith(".json")) {
+            throw new ErroDeValidacao("Formato de importacao invalido");
+        }
+        Path caminho = Paths.get(arquivo);
+        if (!Files.isRegularFile(caminho)) {
+            throw new ErroNaoEncontrado("Arquivo nao encontrado");
+        }
+
+        BufferedReader leitor = new BufferedReader(Files.newBufferedReader(caminho, StandardCharsets.UTF_8), 1 << 16);
+        LeitorDeImportacao l = new LeitorDeImportacao(leitor, colunas, csv);
+        if (csv) {
+            l.lerCabecalho();
+        }
+        return l;
+    }
+
+    // Até "maximo" linhas; lista vazia quando o arquivo acabou
+    public List<LinhaImportada> proximoLote(int maximo) throws IOException {
+        List<LinhaImportada> lote = new ArrayList<>(maximo);
+        String linha;
+        while (lote.size() < maximo && (linha = this.leitor.readLine()) != null) {
+            this.numeroDaLinha++;
+            if (linha.trim().isEmpty()) {
+                continue;
+            }
+            try {
+                lote.add(new LinhaImportada(this.numeroDaLinha, this.csv ? camposDoCsv(linha) : camposDoJson(linha), null));
+            } catch (IllegalArgumentException e) {
+                lote.add(new LinhaImportada(this.numeroDaLinha, null, e.getMessage()));
+            }
+        }
+        return lote;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.leitor.close();
+    }
+
+    // --- CSV ---
+
+    private void lerCabecalho() throws Exception {
+        String cabecalho = this.leitor.readLine();
+        this.numeroDaLinha++;
+        if (cabecalho == null) {
+            throw new ErroDeValidacao("Arquivo sem cabecalho");
+        }
+        if (cabecalho.startsWith("\uFEFF")) {
+            cabecalho = cabecalho.substring(1); // BOM do Excel
+        }
+        List<String> nomes = separarCsv(cabecalho);
+        this.posicaoDaColuna = new int[this.colunas.length];
+        for (int i = 0; i < this.colunas.length; i++) {
+            this.posicaoDaColuna[i] = -1;
+            for (int j = 0; j < nomes.size(); j++) {
+                if (this.colunas[i].equals(nomes.get(j) == null ? null : nomes.get(j).trim())) {
+                    this.posicaoDaColuna[i] = j;
+                    break;
+                }
+            }
+        }
+    }
+
+    private String[] camposDoCsv(String linha) {
+        List<String> valores = separarCsv(linha);
+        String[] campos = new String[this.colunas.length];
+        for (int i = 0; i < campos.length; i++) {
+            int p = this.posicaoDaColuna[i];
+            campos[i] = p >= 0 && p < valores.size() ? valores.get(p) : null;
+        }
+        return campos;
+    }
+
+    // Quebra uma linha de CSV; campo vazio vira null
+    static List<String> separarCsv(String linha) {
+        List<String> campos = new ArrayList<>();
+        StringBuilder atual = new StringBuilder();
+        boolean entreAspas = false;
+        boolean teveAspas = false;
+        for (int i = 0; i < linha.length(); i++) {
+            char c = linha.charAt(i);
+            if (entreAspas) {
+                if (c != '"') {
+                    atual.append(c);
+                } else if (i + 1 < linha.length() && linha.charAt(i + 1) == '"') {
+                    atual.append('"');
+                    i++;
+                } else {
+                    entreAspas = false;
+                }
+            } else if (c == '"') {
+                entreAspas = true;
+                teveAspas = true;
+            } else if (c == ',') {
+                campos.add(atual.length() == 0 && !teveAspas ? null : atual.toString());
+                atual.setLength(0);
+                teveAspas = false;
+            } else {
+                atual.append(c);
+            }
+        }
+        if (entreAspas) {
+            throw new IllegalArgumentException("CSV invalido: aspas sem fechar");
+        }
+        campos.add(atual.length() == 0 && !teveAspas ? null : atual.toString());
+        return campos;
+    }
+
+    // --- JSON ---
+
+    private String[] camposDoJson(String linha) {
+        Map<String, String> objeto = Json.lerObjeto(linha);
+        String[] campos = new String[this.colunas.length];
+        for (int i = 0; i < campos.length; i++) {
+            String v = objeto.get(this.colunas[i]);
+            campos[i] = v == null || v.isEmpty() ? null : v;
+        }
+        return campos;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,21 @@
+package myfood.importacao;
+
+// Uma linha lida do arquivo: os campos na ordem das colunas pedidas,
+// ou o erro de leitura (CSV/JSON quebrado) se não deu pra ler
+public class LinhaImportada {
+
+    private final int numero;
+    private final String[] campos;
+    private final String erro;
+
+    public LinhaImportada(int numero, String[] campos, String erro) {
+        this.numero = numero;
+        this.campos = campos;
+        this.erro = erro;
+    }
+
+    // --- Getters ---
+    public int getNumero() { return this.numero; }
+    public String[] getCampos() { return this.campos; }
+    public String getErro() { return this.erro; }
+}
\ No newline at end of file
@@ -0,0 +1,44 @@
+package myfood.importacao;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Resultado de uma importação: quantas linhas entraram e o erro de cada uma que não entrou.
+// Só guarda os primeiros MAX_DETALHES erros (um arquivo todo errado não enche a memória),
+// mas conta todos.
+public class RelatorioImportacao {
+
+    private static final int MAX_DETALHES = 100;
+
+    private int importados;
+    private int erros;
+    private final List<String> detalhes = new ArrayList<>();
+
+    public void contarImportados(int quantidade) {
+        this.importados += quantidade;
+    }
+
+    public void adicionarErro(int linha, String mensagem) {
+        this.erros++;
+        if (this.detalhes.size() < MAX_DETALHES) {
+            this.detalhes.add("linha " + linha + ": " + mensagem);
+        }
+    }
+
+    // --- Getters ---
+    public int getImportados() { return this.importados; }
+    public int getErros() { return this.erros; }
+    public List<String> getDetalhes() { return this.detalhes; }
+
+    // "{importados=998, erros=2, detalhes=[linha 3: Email invalido, linha 9: ...]}"
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("{importados=").append(this.importados)
+                .append(", erros=").append(this.erros)
+                .append(", detalhes=[").append(String.join(", ", this.detalhes));
+        if (this.erros > this.detalhes.size()) {
+            sb.append(", ...");
+        }
+        return sb.append("]}").toString();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,124 @@
+package myfood.metricas;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Histograma de latência no estilo HDR: faixas que crescem em potência de 2,
+// cada uma dividida em 32 sub-faixas. Então o erro de qualquer percentil fica
+// abaixo de ~3%, com um array fixo de contadores (sem guardar as amostras).
+//
+// Gravar é só um incremento atômico, então várias threads podem gravar ao mesmo tempo.
+// Total e soma ficam em LongAdder (todas as threads mexem neles); o máximo só
+// é escrito quando o valor passa do atual, que quase nunca acontece.
+// Os valores são em nanossegundos.
+public class HistogramaLatencia {
+
+    private static final int BITS_SUB = 5;
+    private static final int SUB = 1 << BITS_SUB; // 32 sub-faixas
+    // Valores até 2^62 ns (muito mais que qualquer chamada)
+    private static final int QUANTIDADE_FAIXAS = (62 - BITS_SUB + 2) * SUB;
+
+    private final AtomicLongArray contagens = new AtomicLongArray(QUANTIDADE_FAIXAS);
+    private final LongAdder total = new LongAdder();
+    private final LongAdder soma = new LongAdder();
+    private final AtomicLong maximo = new AtomicLong();
+
+    public void registrar(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        this.contagens.incrementAndGet(indice(nanos));
+        this.total.increment();
+        this.soma.add(nanos);
+        if (nanos > this.maximo.get()) {
+            this.maximo.accumulateAndGet(nanos, Math::max);
+        }
+    }
+
+    // --- Consultas ---
+
+    public long getContagem() {
+        return this.total.sum();
+    }
+
+    public long getMaximo() {
+        return this.maximo.get();
+    }
+
+    public double getMedia() {
+        long n = this.total.sum();
+        return n == 0 ? 0 : (double) this.soma.sum() / n;
+    }
+
+    // Valor abaixo do qual ficam "p" por cento das amostras (ex: 99.9)
+    public long percentil(double p) {
+        long n = this.total.sum();
+        if (n == 0) {
+            return 0;
+        }
+        long alvo = Math.max(1, (long) Math.ceil(n * p / 100.0));
+        long acumulado = 0;
+        for (int i = 0; i < QUANTIDADE_FAIXAS; i++) {
+            acumulado += this.contagens.get(i);
+            if (acumulado >= alvo) {
+                // Topo da faixa, mas nunca acima do maior valor visto
+                long topo = i + 1 < QUANTIDADE_FAIXAS ? inicioDaFaixa(i + 1) - 1 : Long.MAX_VALUE;
+                return Math.min(topo, this.maximo.get());
+            }
+        }
+        return this.maximo.get();
+    }
+
+    // Soma as amostras de outro histograma neste
+    public void juntar(HistogramaLatencia outro) {
+        for (int i = 0; i < QUANTIDADE_FAIXAS; i++) {
+            long c = outro.contagens.get(i);
+            if (c != 0) {
+                this.contagens.addAndGet(i, c);
+            }
+        }
+        this.total.add(outro.total.sum());
+        this.soma.add(outro.soma.sum());
+        this.maximo.accumulateAndGet(outro.maximo.get(), Math::max);
+    }
+
+    public void zerar() {
+        for (int i = 0; i < QUANTIDADE_FAIXAS; i++) {
+            this.contagens.set(i, 0);
+        }
+        this.total.reset();
+        this.soma.reset();
+        this.maximo.set(0);
+    }
+
+    // "n=1000 media=12.3us p50=10.0us p99=40.1us p999=80.2us max=95.0us"
+    public String resumo() {
+        return String.format(Locale.US, "n=%d media=%.1fus p50=%.1fus p99=%.1fus p999=%.1fus max=%.1fus",
+                getContagem(), getMedia() / 1000.0, percentil(50) / 1000.0, percentil(99) / 1000.0,
+                percentil(99.9) / 1000.0, getMaximo() / 1000.0);
+    }
+
+    // --- Faixas ---
+
+    // Abaixo de 32 cada valor tem sua faixa; dali pra cima, 32 faixas por potência de 2
+    private static int indice(long valor) {
+        if (valor < SUB) {
+            return (int) valor;
+        }
+        int bitMaisAlto = 63 - Long.numberOfLeadingZeros(valor);
+        int deslocamento = bitMaisAlto - BITS_SUB;
+        return (deslocamento + 1) * SUB + (int) ((valor >>> deslocamento) - SUB);
+    }
+
+    // Menor valor que cai na faixa "i"
+    private static long inicioDaFaixa(int i) {
+        int grupo = i / SUB;
+        int sub = i % SUB;
+        if (grupo == 0) {
+            return sub;
+        }
+        return (long) (SUB + sub) << (grupo - 1);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,188 @@
+package myfood.metricas;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import com.sun.net.httpserver.HttpServer;
+
+// Métricas das chamadas da Facade: pra cada operação, histograma de latência,
+// quantas deram certo e quantas deram erro (separadas pela mensagem do erro).
+// Também guarda "medidores" (quantos usuários, pedidos abertos...) que só são
+// lidos na hora de montar o relatório, então não custam nada nas chamadas.
+//
+// Dá pra ler de três jeitos: no próprio processo (getOperacoes/relatorio),
+// gravando num arquivo (gravar) ou por HTTP local (servir -> GET /metricas).
+public class RegistroMetricas {
+
+    // Mensagens de erro diferentes guardadas por operação; o que passar disso vai pra "(outras)"
+    private static final int LIMITE_MENSAGENS = 64;
+
+    // Uma chamada medida (pode dar erro de validação)
+    public interface Chamada<T> {
+        T executar() throws Exception;
+    }
+
+    // Números de uma operação
+    public static class Operacao {
+        private final HistogramaLatencia latencia = new HistogramaLatencia();
+        private final LongAdder sucessos = new LongAdder();
+        private final Map<String, LongAdder> errosPorMensagem = new ConcurrentHashMap<>();
+
+        public HistogramaLatencia getLatencia() { return this.latencia; }
+        public long getSucessos() { return this.sucessos.sum(); }
+
+        public long getErros() {
+            long total = 0;
+            for (LongAdder a : this.errosPorMensagem.values()) {
+                total += a.sum();
+            }
+            return total;
+        }
+
+        public Map<String, Long> getErrosPorMensagem() {
+            Map<String, Long> copia = new TreeMap<>();
+            this.errosPorMensagem.forEach((msg, a) -> copia.put(msg, a.sum()));
+            return copia;
+        }
+
+        private void contarErro(Exception e) {
+            String msg = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            LongAdder contador = this.errosPorMensagem.get(msg);
+            if (contador == null) {
+                if (this.errosPorMensagem.size() >= LIMITE_MENSAGENS) {
+                    msg = "(outras)";
+                }
+                contador = this.errosPorMensagem.computeIfAbsent(msg, k -> new LongAdder());
+            }
+            contador.increment();
+        }
+    }
+
+    private final Map<String, Operacao> operacoes = new ConcurrentHashMap<>();
+    private final Map<String, LongSupplier> medidores = new ConcurrentHashMap<>();
+    private volatile long inicio = System.nanoTime();
+    private HttpServer servidor;
+
+    // --- Gravação ---
+
+    // Roda a chamada medindo o tempo; o erro é contado e relançado do jeito que veio
+    public <T> T medir(String nome, Chamada<T> chamada) throws Exception {
+        Operacao op = operacao(nome);
+        long t0 = System.nanoTime();
+        try {
+            T resultado = chamada.executar();
+            op.sucessos.increment();
+            return resultado;
+        } catch (Exception e) {
+            op.contarErro(e);
+            throw e;
+        } finally {
+            op.latencia.registrar(System.nanoTime() - t0);
+        }
+    }
+
+    // Pra quem mede sozinho (ex.: checkpoint, que não lança erro)
+    public void registrar(String nome, long nanos) {
+        Operacao op = operacao(nome);
+        op.latencia.registrar(nanos);
+        op.sucessos.increment();
+    }
+
+    public void registrarMedidor(String nome, LongSupplier medidor) {
+        this.medidores.put(nome, medidor);
+    }
+
+    private Operacao operacao(String nome) {
+        Operacao op = this.operacoes.get(nome);
+        if (op == null) {
+            op = this.operacoes.computeIfAbsent(nome, k -> new Operacao());
+        }
+        return op;
+    }
+
+    // Começa a contar do zero (os medidores continuam)
+    public void zerar() {
+        this.operacoes.clear();
+        this.inicio = System.nanoTime();
+    }
+
+    // --- Leitura ---
+
+    public Map<String, Operacao> getOperacoes() {
+        return new TreeMap<>(this.operacoes);
+    }
+
+    public Map<String, Long> getMedidores() {
+        Map<String, Long> valores = new TreeMap<>();
+        this.medidores.forEach((nome, m) -> valores.put(nome, m.getAsLong()));
+        return valores;
+    }
+
+    // Tabela em texto: uma linha por operação, os erros embaixo dela, e os medidores no fim
+    public String relatorio() {
+        double segundos = (System.nanoTime() - this.inicio) / 1e9;
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.US, "# metricas (%.1fs)%n", segundos));
+        sb.append(String.format(Locale.US, "%-22s %10s %10s %8s %10s %10s %10s %10s %10s%n",
+                "operacao", "n", "sucessos", "erros", "media(us)", "p50(us)", "p99(us)", "p999(us)", "max(us)"));
+        for (Map.Entry<String, Operacao> e : getOperacoes().entrySet()) {
+            Operacao op = e.getValue();
+            HistogramaLatencia h = op.latencia;
+            sb.append(String.format(Locale.US, "%-22s %10d %10d %8d %10.1f %10.1f %10.1f %10.1f %10.1f%n",
+                    e.getKey(), h.getContagem(), op.getSucessos(), op.getErros(), h.getMedia() / 1000.0,
+                    h.percentil(50) / 1000.0, h.percentil(99) / 1000.0, h.percentil(99.9) / 1000.0, h.getMaximo() / 1000.0));
+            for (Map.Entry<String, Long> erro : op.getErrosPorMensagem().entrySet()) {
+                sb.append(String.format("    erro %6d  %s%n", erro.getValue(), erro.getKey()));
+            }
+        }
+        sb.append(String.format("# medidores%n"));
+        for (Map.Entry<String, Long> m : getMedidores().entrySet()) {
+            sb.append(String.format("%-22s %10d%n", m.getKey(), m.getValue()));
+        }
+        return sb.toString();
+    }
+
+    // --- Saída ---
+
+    public void gravar(String arquivo) throws IOException {
+        Files.write(Paths.get(arquivo), relatorio().getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Sobe um HTTP só no loopback. Porta 0 pega uma livre; retorna a porta usada.
+    public synchronized int servir(int porta) throws IOException {
+        if (this.servidor != null) {
+            return this.servidor.getAddress().getPort();
+        }
+        HttpServer s = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), porta), 0);
+        s.createContext("/metricas", troca -> {
+            byte[] corpo = relatorio().getBytes(StandardCharsets.UTF_8);
+            troca.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+            troca.sendResponseHeaders(200, corpo.length);
+            try (OutputStream out = troca.getResponseBody()) {
+                out.write(corpo);
+            }
+        });
+        s.start();
+        this.servidor = s;
+        return s.getAddress().getPort();
+    }
+
+    // A thread do servidor não é daemon, então tem que parar pra JVM poder sair
+    public synchronized void pararServidor() {
+        if (this.servidor != null) {
+            this.servidor.stop(0);
+            this.servidor = null;
+        }
+    }
+}
\ No newline at end of file
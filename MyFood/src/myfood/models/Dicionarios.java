@@ -0,0 +1,16 @@
+package myfood.models;
+
+import myfood.colecoes.DicionarioDeTexto;
+
+// Dicionários compartilhados pelos modelos: os atributos com poucos valores
+// diferentes ficam como código (int) em cada objeto e o texto fica guardado uma vez aqui.
+// O estado do pedido já é um enum, então não precisa de dicionário.
+public final class Dicionarios {
+
+    public static final DicionarioDeTexto CATEGORIAS = new DicionarioDeTexto();
+    public static final DicionarioDeTexto TIPOS_COZINHA = new DicionarioDeTexto();
+    public static final DicionarioDeTexto ENDERECOS = new DicionarioDeTexto();
+
+    private Dicionarios() {
+    }
+}
\ No newline at end of file
@@ -0,0 +1,51 @@
+package myfood.models;
+
+// Ciclo de vida do pedido.
+// Só dá pra andar pra frente, um passo de cada vez:
+// aberto -> preparando -> pronto -> entregando -> entregue
+public enum EstadoPedido {
+
+    ABERTO("aberto"),
+    PREPARANDO("preparando"),
+    PRONTO("pronto"),
+    ENTREGANDO("entregando"),
+    ENTREGUE("entregue");
+
+    private static final EstadoPedido[] TODOS = values();
+
+    // Nome que aparece pro usuário (e nos testes)
+    private final String nome;
+
+    EstadoPedido(String nome) {
+        this.nome = nome;
+    }
+
+    public String getNome() {
+        return this.nome;
+    }
+
+    // A transição só é válida pro estado seguinte
+    public boolean podeIrPara(EstadoPedido destino) {
+        return destino.ordinal() == this.ordinal() + 1;
+    }
+
+    // Acha o estado pelo nome ("aberto", "preparando"...). Retorna null se não existir.
+    public static EstadoPedido porNome(String nome) {
+        for (EstadoPedido e : values()) {
+            if (e.nome.equals(nome)) {
+                return e;
+            }
+        }
+        return null;
+    }
+
+    // Estado pelo código gravado no save (a posição no enum)
+    public static EstadoPedido porCodigo(int codigo) {
+        return TODOS[codigo];
+    }
+
+    @Override
+    public String toString() {
+        return this.nome;
+    }
+}
\ No newline at end of file
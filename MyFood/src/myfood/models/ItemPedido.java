@@ -0,0 +1,26 @@
+package myfood.models;
+
+import java.io.Serializable;
+
+// Uma linha do pedido: um produto e quantas vezes ele foi pedido.
+// Pedir o mesmo produto de novo só aumenta a quantidade, não cria outra linha.
+public class ItemPedido implements Serializable {
+
+    // Pra poder salvar
+    private static final long serialVersionUID = 1L;
+
+    private Produto produto;
+    private int quantidade;
+
+    public ItemPedido(Produto produto, int quantidade) {
+        this.produto = produto;
+        this.quantidade = quantidade;
+    }
+
+    // --- Getters ---
+    public Produto getProduto() { return this.produto; }
+    public int getQuantidade() { return this.quantidade; }
+
+    // --- Setters ---
+    public void setQuantidade(int quantidade) { this.quantidade = quantidade; }
+}
\ No newline at end of file
@@ -1,8 +1,9 @@
 package myfood.models;
 
 import java.io.Serializable;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 // Modelo do Pedido
 public class Pedido implements Serializable {
@@ -13,59 +14,93 @@ public class Pedido implements Serializable {
     private int numero;
     private int idCliente;
     private int idEmpresa;
-    private String estado;
-    private List<Produto> produtos; // Lista de produtos do pedido
+    private EstadoPedido estado;
+    // Itens agregados por ID do produto, na ordem em que cada produto entrou no pedido
+    private Map<Integer, ItemPedido> itens;
+    // Total mantido a cada mudança (em centavos, pra não acumular erro de float)
+    private long totalCentavos;
 
     public Pedido(int numero, int idCliente, int idEmpresa) {
         this.numero = numero;
         this.idCliente = idCliente;
         this.idEmpresa = idEmpresa;
-        this.estado = "aberto"; // Pedido sempre começa "aberto"
-        this.produtos = new ArrayList<>();
+        this.estado = EstadoPedido.ABERTO; // Pedido sempre começa "aberto"
+        this.itens = new LinkedHashMap<>();
     }
 
     // --- Getters ---
     public int getNumero() { return this.numero; }
     public int getIdCliente() { return this.idCliente; }
     public int getIdEmpresa() { return this.idEmpresa; }
-    public String getEstado() { return this.estado; }
-    public List<Produto> getProdutos() { return this.produtos; }
+    public EstadoPedido getEstado() { return this.estado; }
+    public Collection<ItemPedido> getItens() { return this.itens.values(); }
+    public long getValorTotalCentavos() { return this.totalCentavos; }
+
+    // Quantas unidades desse produto tem no pedido (0 se nenhuma)
+    public int getQuantidade(int idProduto) {
+        ItemPedido item = this.itens.get(idProduto);
+        return item == null ? 0 : item.getQuantidade();
+    }
 
     // --- Setters ---
-    public void setEstado(String estado) {
+
+    // Muda o estado, respeitando a ordem do ciclo de vida (quem chama já validou;
+    // isso aqui é só pra nunca deixar o pedido num estado impossível)
+    public void setEstado(EstadoPedido estado) {
+        if (!this.estado.podeIrPara(estado)) {
+            throw new IllegalStateException("Transicao invalida: " + this.estado + " -> " + estado);
+        }
         this.estado = estado;
     }
 
     // --- Lógica do Pedido ---
 
-    public void adicionarProduto(Produto p) {
-        this.produtos.add(p);
+    // Soma uma unidade do produto. Retorna true se foi a primeira unidade dele no pedido.
+    public boolean adicionarProduto(Produto p) {
+        return adicionarProduto(p, 1);
     }
 
-    // Remove o primeiro produto da lista com esse nome.
-    // Retorna true se achou e removeu, false se não achou.
-    public boolean removerProduto(String nomeProduto) {
-        Produto paraRemover = null;
-        for (Produto p : this.produtos) {
-            if (p.getNome().equals(nomeProduto)) {
-                paraRemover = p;
-                break; // Acha o primeiro e para
-            }
-        }
-
-        if (paraRemover != null) {
-            this.produtos.remove(paraRemover);
+    // Soma várias unidades de uma vez (pedido montado em lote)
+    public boolean adicionarProduto(Produto p, int quantidade) {
+        this.totalCentavos += quantidade * p.getValorCentavos();
+        ItemPedido item = this.itens.get(p.getId());
+        if (item == null) {
+            this.itens.put(p.getId(), new ItemPedido(p, quantidade));
             return true;
         }
+        item.setQuantidade(item.getQuantidade() + quantidade);
         return false;
     }
 
-    // Calcula o valor total somando todos os produtos da lista.
-    public float getValorTotal() {
-        float total = 0.0f;
-        for (Produto p : this.produtos) {
-            total += p.getValor();
+    // Tira uma unidade do produto.
+    // Retorna true se achou e removeu, false se o produto não está no pedido.
+    public boolean removerProduto(int idProduto) {
+        ItemPedido item = this.itens.get(idProduto);
+        if (item == null) {
+            return false;
+        }
+
+        this.totalCentavos -= item.getProduto().getValorCentavos();
+        if (item.getQuantidade() == 1) {
+            this.itens.remove(idProduto);
+        } else {
+            item.setQuantidade(item.getQuantidade() - 1);
+        }
+        return true;
+    }
+
+    // O preço do produto mudou: corrige o total sem somar tudo de novo
+    public void ajustarPreco(int idProduto, long diferencaCentavos) {
+        ItemPedido item = this.itens.get(idProduto);
+        if (item != null) {
+            this.totalCentavos += item.getQuantidade() * diferencaCentavos;
         }
-        return total;
+    }
+
+    // --- Usado só ao carregar do save ---
+
+    public void restaurarItem(Produto p, int quantidade) {
+        this.itens.put(p.getId(), new ItemPedido(p, quantidade));
+        this.totalCentavos += quantidade * p.getValorCentavos();
     }
 }
\ No newline at end of file
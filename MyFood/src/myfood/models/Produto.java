@@ -10,16 +10,17 @@ public class Produto implements Serializable {
 
     private int id;
     private int idEmpresa; // Pra saber de qual empresa é
-    private String nome;
-    private float valor;
-    private String categoria;
+    // volatile: o editarProduto pode mudar isso enquanto outra thread lê
+    private volatile String nome;
+    private volatile float valor;
+    private volatile int categoria; // Código no Dicionarios.CATEGORIAS
 
     public Produto(int id, int idEmpresa, String nome, float valor, String categoria) {
         this.id = id;
         this.idEmpresa = idEmpresa;
         this.nome = nome;
         this.valor = valor;
-        this.categoria = categoria;
+        this.categoria = Dicionarios.CATEGORIAS.codigo(categoria);
     }
 
     // --- Getters ---
@@ -27,10 +28,14 @@ public class Produto implements Serializable {
     public int getIdEmpresa() { return idEmpresa; }
     public String getNome() { return nome; }
     public float getValor() { return valor; }
-    public String getCategoria() { return categoria; }
+    public String getCategoria() { return Dicionarios.CATEGORIAS.texto(categoria); }
+    public int getCodigoCategoria() { return categoria; }
+
+    // Valor em centavos, pra somar sem erro de arredondamento do float
+    public long getValorCentavos() { return Math.round(valor * 100.0); }
 
     // --- Setters (usado no editarProduto) ---
     public void setNome(String nome) { this.nome = nome; }
     public void setValor(float valor) { this.valor = valor; }
-    public void setCategoria(String categoria) { this.categoria = categoria; }
+    public void setCategoria(String categoria) { this.categoria = Dicionarios.CATEGORIAS.codigo(categoria); }
 }
\ No newline at end of file
@@ -12,14 +12,14 @@ public class Restaurante implements Serializable {
     private int idDono;
     private String nome;
     private String endereco;
-    private String tipoCozinha;
+    private int tipoCozinha; // Código no Dicionarios.TIPOS_COZINHA
 
     public Restaurante(int id, int idDono, String nome, String endereco, String tipoCozinha) {
         this.id = id;
         this.idDono = idDono;
         this.nome = nome;
         this.endereco = endereco;
-        this.tipoCozinha = tipoCozinha;
+        this.tipoCozinha = Dicionarios.TIPOS_COZINHA.codigo(tipoCozinha);
     }
 
     // --- GETTERS ---
@@ -41,6 +41,10 @@ public class Restaurante implements Serializable {
     }
 
     public String getTipoCozinha() {
+        return Dicionarios.TIPOS_COZINHA.texto(tipoCozinha);
+    }
+
+    public int getCodigoTipoCozinha() {
         return tipoCozinha;
     }
 
@@ -14,14 +14,14 @@ public abstract class Usuario implements Serializable {
     protected String nome;
     protected String email;
     protected String senha;
-    protected String endereco;
+    protected int endereco; // Código no Dicionarios.ENDERECOS (muita gente mora na mesma rua)
 
     public Usuario(int id, String nome, String email, String senha, String endereco) {
         this.id = id;
         this.nome = nome;
         this.email = email;
         this.senha = senha;
-        this.endereco = endereco;
+        this.endereco = Dicionarios.ENDERECOS.codigo(endereco);
     }
 
     // --- Getters ---
@@ -43,6 +43,10 @@ public abstract class Usuario implements Serializable {
     }
 
     public String getEndereco() {
+        return Dicionarios.ENDERECOS.texto(endereco);
+    }
+
+    public int getCodigoEndereco() {
         return endereco;
     }
 }
\ No newline at end of file
@@ -0,0 +1,31 @@
+package myfood.persistencia;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import myfood.models.Restaurante;
+import myfood.repositorio.CodecDeEntidade;
+
+// Empresa no repositório em disco: [id int][dono int][nome][endereco][tipoCozinha]
+public class CodecDeEmpresa implements CodecDeEntidade<Restaurante> {
+
+    public static final CodecDeEmpresa INSTANCIA = new CodecDeEmpresa();
+
+    @Override
+    public void escrever(DataOutputStream out, Restaurante r) throws IOException {
+        out.writeInt(r.getId());
+        out.writeInt(r.getIdDono());
+        FormatoBinario.escreverString(out, r.getNome());
+        FormatoBinario.escreverString(out, r.getEndereco());
+        FormatoBinario.escreverString(out, r.getTipoCozinha());
+    }
+
+    @Override
+    public Restaurante ler(ByteBuffer buf) {
+        int id = buf.getInt();
+        int dono = buf.getInt();
+        String nome = FormatoBinario.lerString(buf);
+        String endereco = FormatoBinario.lerString(buf);
+        return new Restaurante(id, dono, nome, endereco, FormatoBinario.lerString(buf));
+    }
+}
\ No newline at end of file
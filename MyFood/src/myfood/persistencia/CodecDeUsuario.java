@@ -0,0 +1,44 @@
+package myfood.persistencia;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import myfood.models.Cliente;
+import myfood.models.DonoDeEmpresa;
+import myfood.models.Usuario;
+import myfood.repositorio.CodecDeEntidade;
+
+// Usuário no repositório em disco: [dono byte][id int][nome][email][senha][endereco][cpf se dono]
+// (strings com o tamanho na frente, igual ao save)
+public class CodecDeUsuario implements CodecDeEntidade<Usuario> {
+
+    public static final CodecDeUsuario INSTANCIA = new CodecDeUsuario();
+
+    @Override
+    public void escrever(DataOutputStream out, Usuario u) throws IOException {
+        boolean dono = u instanceof DonoDeEmpresa;
+        out.writeByte(dono ? 1 : 0);
+        out.writeInt(u.getId());
+        FormatoBinario.escreverString(out, u.getNome());
+        FormatoBinario.escreverString(out, u.getEmail());
+        FormatoBinario.escreverString(out, u.getSenha());
+        FormatoBinario.escreverString(out, u.getEndereco());
+        if (dono) {
+            FormatoBinario.escreverString(out, ((DonoDeEmpresa) u).getCpf());
+        }
+    }
+
+    @Override
+    public Usuario ler(ByteBuffer buf) {
+        boolean dono = buf.get() == 1;
+        int id = buf.getInt();
+        String nome = FormatoBinario.lerString(buf);
+        String email = FormatoBinario.lerString(buf);
+        String senha = FormatoBinario.lerString(buf);
+        String endereco = FormatoBinario.lerString(buf);
+        if (dono) {
+            return new DonoDeEmpresa(id, nome, email, senha, endereco, FormatoBinario.lerString(buf));
+        }
+        return new Cliente(id, nome, email, senha, endereco);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,37 @@
+package myfood.persistencia;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Diz se um controlador mudou desde o último save, pra não regravar arquivo que não mudou.
+// Cada mudança sobe a versão. O checkpoint tira o retrato (com as escritas paradas) e o save
+// grava o estado daquele momento, então o que mudar depois do retrato continua pendente.
+public final class ControleDeMudancas {
+
+    private final AtomicLong versao = new AtomicLong();
+    private volatile long versaoNoRetrato;
+    private volatile long versaoSalva;
+
+    public void marcar() {
+        this.versao.incrementAndGet();
+    }
+
+    // Junto com o retrato do controlador (barreira exclusiva do checkpoint)
+    public void retratar() {
+        this.versaoNoRetrato = this.versao.get();
+    }
+
+    // O retrato tem alguma mudança que o arquivo ainda não tem?
+    public boolean retratoTemMudancas() {
+        return this.versaoNoRetrato != this.versaoSalva;
+    }
+
+    public void retratoSalvo() {
+        this.versaoSalva = this.versaoNoRetrato;
+    }
+
+    // A memória bate com o arquivo de novo (acabou de carregar ou de zerar)
+    public void limpar() {
+        this.versaoSalva = this.versao.get();
+        this.versaoNoRetrato = this.versaoSalva;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,210 @@
+package myfood.persistencia;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import myfood.colecoes.DicionarioDeTexto;
+
+// Helpers do formato binário dos arquivos de save.
+//
+// Todo arquivo começa com [MAGIA int][VERSAO short][tipo byte], e o resto é
+// escrito por cada controlador: números em binário e strings com o tamanho na frente.
+// Cada entidade é gravada uma vez só; os índices secundários (por email, por dono...)
+// são reconstruídos na hora de carregar.
+// Atributos repetitivos (categoria, tipo de cozinha, endereço) vão numa seção de
+// dicionário no começo do arquivo, e cada entidade grava só o índice do texto ali.
+public class FormatoBinario {
+
+    private static final int MAGIA = 0x4D59464F; // "MYFO"
+    private static final short VERSAO = 3;
+
+    // Abaixo disso é mais barato ler direto pra memória do que mapear o arquivo
+    // (e no Windows um arquivo mapeado não pode ser substituído até o GC soltar o mapa)
+    private static final long TAMANHO_MINIMO_MAPEAMENTO = 8L << 20;
+
+    // Tipos de arquivo (pra não carregar o arquivo de um controlador no outro)
+    public static final byte TIPO_USUARIOS = 1;
+    public static final byte TIPO_EMPRESAS = 2;
+    public static final byte TIPO_PRODUTOS = 3;
+    public static final byte TIPO_PEDIDOS = 4;
+
+    // Quem sabe escrever o conteúdo do arquivo
+    public interface Escritor {
+        void escrever(DataOutputStream out) throws IOException;
+    }
+
+    private FormatoBinario() {
+    }
+
+    // --- ESCRITA ---
+
+    // Escreve num .tmp e depois renomeia, pra um crash não deixar o save pela metade.
+    // O .tmp vai pro disco (fsync) antes do rename, e o diretório depois dele: logo em seguida
+    // o checkpoint trunca o journal, então o save novo já tem que estar no disco de verdade.
+    public static void gravar(String arquivo, byte tipo, Escritor escritor) throws IOException {
+        Path destino = Paths.get(arquivo);
+        Path temp = Paths.get(arquivo + ".tmp");
+
+        try (FileChannel canal = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(canal), 1 << 16));
+            out.writeInt(MAGIA);
+            out.writeShort(VERSAO);
+            out.writeByte(tipo);
+            escritor.escrever(out);
+            out.flush();
+            canal.force(true);
+        }
+        Files.move(temp, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        sincronizarDiretorio(destino.toAbsolutePath().getParent());
+    }
+
+    // Grava no disco a entrada do diretório (o rename). No Windows não dá pra abrir
+    // diretório como arquivo; lá o NTFS já registra o rename no próprio log dele.
+    public static void sincronizarDiretorio(Path diretorio) {
+        if (diretorio == null) {
+            return;
+        }
+        try (FileChannel canal = FileChannel.open(diretorio, StandardOpenOption.READ)) {
+            canal.force(true);
+        } catch (IOException e) {
+            // Plataforma sem suporte: o rename continua atômico, só não tem a garantia do fsync
+        }
+    }
+
+    // String com o tamanho em bytes na frente (-1 = null)
+    public static void escreverString(DataOutputStream out, String valor) throws IOException {
+        if (valor == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = valor.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    // Monta a seção de dicionário de um arquivo: só os textos que as entidades usam,
+    // numerados na ordem em que aparecem. Chamar local() pra todas as entidades antes
+    // de escrever a seção (os códigos do DicionarioDeTexto não valem entre execuções).
+    public static class SecaoDicionario {
+        private final DicionarioDeTexto dicionario;
+        private final Map<Integer, Integer> localPorCodigo = new HashMap<>();
+        private final List<String> textos = new ArrayList<>();
+
+        public SecaoDicionario(DicionarioDeTexto dicionario) {
+            this.dicionario = dicionario;
+        }
+
+        // Índice no arquivo pro código do dicionário (-1 continua -1 = null)
+        public int local(int codigo) {
+            if (codigo < 0) {
+                return -1;
+            }
+            Integer local = this.localPorCodigo.get(codigo);
+            if (local == null) {
+                local = this.textos.size();
+                this.localPorCodigo.put(codigo, local);
+                this.textos.add(this.dicionario.texto(codigo));
+            }
+            return local;
+        }
+
+        // [quantidade int][strings...]
+        public void escrever(DataOutputStream out) throws IOException {
+            out.writeInt(this.textos.size());
+            for (String t : this.textos) {
+                escreverString(out, t);
+            }
+        }
+    }
+
+    // --- LEITURA ---
+
+    // Mapeia o arquivo na memória (se for grande) e confere o cabeçalho.
+    // Retorna null se o arquivo não existe; o buffer volta posicionado depois do cabeçalho.
+    public static ByteBuffer mapear(String arquivo, byte tipo) throws IOException {
+        Path caminho = Paths.get(arquivo);
+        if (!Files.exists(caminho)) {
+            return null;
+        }
+
+        ByteBuffer buf;
+        try (FileChannel canal = FileChannel.open(caminho, StandardOpenOption.READ)) {
+            long tamanho = canal.size();
+            if (tamanho >= TAMANHO_MINIMO_MAPEAMENTO) {
+                buf = canal.map(FileChannel.MapMode.READ_ONLY, 0, tamanho);
+            } else {
+                buf = ByteBuffer.allocate((int) tamanho);
+                while (buf.hasRemaining() && canal.read(buf) >= 0) {
+                    // lê até encher
+                }
+                buf.flip();
+            }
+        }
+
+        if (buf.remaining() >= 2 && buf.getShort(0) == (short) 0xACED) {
+            // Cabeçalho do ObjectOutputStream: save de antes do formato binário
+            throw new IOException("save no formato antigo (serializacao Java), que esta versao nao le");
+        }
+        if (buf.remaining() < 7 || buf.getInt() != MAGIA) {
+            throw new IOException("formato de arquivo desconhecido");
+        }
+        short versao = buf.getShort();
+        if (versao != VERSAO) {
+            throw new IOException("versao de arquivo nao suportada: " + versao);
+        }
+        if (buf.get() != tipo) {
+            throw new IOException("arquivo de outro tipo");
+        }
+        return buf;
+    }
+
+    // Save que não deu pra ler (corrompido, de outra versão ou do formato antigo): o arquivo
+    // fica onde está, sem mexer, e o erro sobe pra Facade não começar. Não dá pra tirar ele do
+    // caminho aqui: no start seguinte esse controlador não acharia save e começaria vazio ao lado
+    // dos outros três. Enquanto alguém não restaurar ou remover o arquivo, o sistema não sobe.
+    // Retorna o erro pro controlador lançar.
+    public static IllegalStateException saveIlegivel(String arquivo, String nome, Exception causa) {
+        String motivo = causa.getMessage() != null ? causa.getMessage() : causa.getClass().getSimpleName();
+        return new IllegalStateException("Nao foi possivel ler o save de " + nome + " (" + motivo
+                + "); o arquivo " + arquivo + " nao foi alterado. Restaure um backup dele ou remova-o"
+                + " para iniciar sem esses dados", causa);
+    }
+
+    // Lê uma seção escrita pelo SecaoDicionario: índice do arquivo -> texto
+    public static String[] lerDicionario(ByteBuffer buf) {
+        String[] textos = new String[buf.getInt()];
+        for (int i = 0; i < textos.length; i++) {
+            textos[i] = lerString(buf);
+        }
+        return textos;
+    }
+
+    // Texto de um índice lido do arquivo (-1 = null)
+    public static String texto(String[] dicionario, int local) {
+        return local < 0 ? null : dicionario[local];
+    }
+
+    public static String lerString(ByteBuffer buf) {
+        int tamanho = buf.getInt();
+        if (tamanho < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[tamanho];
+        buf.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
\ No newline at end of file
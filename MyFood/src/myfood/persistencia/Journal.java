@@ -0,0 +1,411 @@
+package myfood.persistencia;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+// Journal (write-ahead log) das mutações do sistema.
+// Cada operação que muda estado vira um registro pequeno no fim do arquivo,
+// e no boot a gente só precisa reaplicar o que veio depois do último snapshot.
+//
+// Os registros se acumulam num buffer e vão pro disco em lote (group commit):
+// quando juntar TAMANHO_LOTE registros, ou a cada INTERVALO_MS. Então um crash
+// perde no máximo os últimos INTERVALO_MS de escrita. Numa saída normal da JVM
+// (fim do main, System.exit) o gancho de saída grava o lote pendente antes.
+//
+// Formato de cada registro: [tamanho int][crc int][seq long][operacao UTF][argumentos].
+// O CRC serve pra detectar registro cortado no meio (crash durante a escrita).
+public class Journal {
+
+    private static final int TAMANHO_LOTE = 256;
+    private static final long INTERVALO_MS = 10;
+
+    // Tags dos tipos de argumento
+    private static final byte TIPO_NULO = 'N';
+    private static final byte TIPO_INT = 'I';
+    private static final byte TIPO_FLOAT = 'F';
+    private static final byte TIPO_STRING = 'S';
+    private static final byte TIPO_INTS = 'A'; // int[] (itens de um pedido em lote)
+
+    private final Path arquivo;
+    private FileChannel canal;
+
+    // Registros que ainda não foram pro disco
+    private ByteArrayOutputStream lote = new ByteArrayOutputStream();
+    private int pendentes;
+
+    private long proximaSeq = 1;
+    private long ultimaSeqGravada;
+    private long registrosDesdeCheckpoint;
+
+    // Só uma thread grava no disco por vez; as outras continuam enchendo o lote
+    private final Object travaGravacao = new Object();
+    private final ScheduledExecutorService agendador;
+    // A thread de commit é daemon: sem isso o que está no lote some quando a JVM sai
+    private final Thread ganchoDeSaida = new Thread(this::fecharNaSaida, "journal-saida");
+
+    public Journal(String arquivo) throws IOException {
+        this.arquivo = Paths.get(arquivo);
+        this.canal = abrirCanal();
+
+        // Thread "daemon" pra não segurar a JVM aberta
+        this.agendador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "journal-commit");
+            t.setDaemon(true);
+            return t;
+        });
+        this.agendador.scheduleWithFixedDelay(this::sincronizarSilencioso, INTERVALO_MS, INTERVALO_MS, TimeUnit.MILLISECONDS);
+        Runtime.getRuntime().addShutdownHook(this.ganchoDeSaida);
+    }
+
+    // --- RECUPERAÇÃO ---
+
+    // Lê todos os registros válidos do arquivo e passa cada um pro consumidor.
+    // Se o fim do arquivo estiver corrompido (crash no meio de uma escrita),
+    // corta o arquivo no último registro bom.
+    public void recuperar(Consumer<RegistroJournal> consumidor) throws IOException {
+        synchronized (this.travaGravacao) {
+            long posicaoValida = 0;
+            long lidos = 0;
+
+            try (InputStream in = Files.newInputStream(this.arquivo);
+                 DataInputStream dis = new DataInputStream(new BufferedInputStream(in))) {
+                while (true) {
+                    RegistroLido lido = lerRegistro(dis);
+                    if (lido == null) {
+                        break; // Acabou (ou achou lixo no fim)
+                    }
+                    posicaoValida += lido.tamanhoEmDisco;
+                    lidos++;
+                    this.proximaSeq = Math.max(this.proximaSeq, lido.registro.getSeq() + 1);
+                    consumidor.accept(lido.registro);
+                }
+            }
+
+            if (posicaoValida < this.canal.size()) {
+                System.err.println("Journal com final corrompido, descartando " + (this.canal.size() - posicaoValida) + " bytes");
+                this.canal.truncate(posicaoValida);
+            }
+            this.ultimaSeqGravada = this.proximaSeq - 1;
+            this.registrosDesdeCheckpoint = lidos;
+        }
+    }
+
+    // Garante que as próximas seqs sejam maiores que as dos snapshots carregados
+    // (o journal pode ter sido truncado num checkpoint anterior).
+    public synchronized void garantirSeqMinima(long seq) {
+        if (this.proximaSeq < seq) {
+            this.proximaSeq = seq;
+        }
+    }
+
+    // --- ESCRITA ---
+
+    // Adiciona um registro no lote e retorna a seq dele.
+    // Não espera o fsync: quem grava é o agendador (ou quem encher o lote).
+    public long registrar(String operacao, Object... argumentos) {
+        boolean loteCheio;
+        long seq;
+        synchronized (this) {
+            seq = this.proximaSeq++;
+            try {
+                escreverRegistro(new DataOutputStream(this.lote), seq, operacao, argumentos);
+            } catch (IOException e) {
+                // ByteArrayOutputStream não lança IOException de verdade
+                throw new IllegalStateException(e);
+            }
+            this.pendentes++;
+            this.registrosDesdeCheckpoint++;
+            loteCheio = this.pendentes >= TAMANHO_LOTE;
+        }
+        if (loteCheio) {
+            sincronizarSilencioso();
+        }
+        return seq;
+    }
+
+    // Vários registros de uma vez (importação em massa): seqs seguidas num synchronized só.
+    // Igual ao registrar, não espera o fsync; só grava na hora se o lote pendente encheu.
+    public long registrarLote(String[] operacoes, Object[][] argumentos) {
+        boolean loteCheio;
+        long seq;
+        synchronized (this) {
+            try {
+                DataOutputStream out = new DataOutputStream(this.lote);
+                for (int i = 0; i < operacoes.length; i++) {
+                    escreverRegistro(out, this.proximaSeq++, operacoes[i], argumentos[i]);
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            seq = this.proximaSeq - 1;
+            this.pendentes += operacoes.length;
+            this.registrosDesdeCheckpoint += operacoes.length;
+            loteCheio = this.pendentes >= TAMANHO_LOTE;
+        }
+        if (loteCheio) {
+            sincronizarSilencioso();
+        }
+        return seq;
+    }
+
+    // Grava o lote pendente no arquivo e faz o fsync.
+    public void sincronizar() throws IOException {
+        synchronized (this.travaGravacao) {
+            byte[] dados;
+            long ultimaSeq;
+            synchronized (this) {
+                if (this.pendentes == 0) {
+                    return;
+                }
+                dados = this.lote.toByteArray();
+                this.lote = new ByteArrayOutputStream();
+                this.pendentes = 0;
+                ultimaSeq = this.proximaSeq - 1;
+            }
+
+            ByteBuffer bb = ByteBuffer.wrap(dados);
+            while (bb.hasRemaining()) {
+                this.canal.write(bb);
+            }
+            this.canal.force(false);
+            this.ultimaSeqGravada = ultimaSeq;
+        }
+    }
+
+    private void sincronizarSilencioso() {
+        try {
+            sincronizar();
+        } catch (Exception e) {
+            System.err.println("Erro ao gravar journal: " + e.getMessage());
+        }
+    }
+
+    // --- CHECKPOINT ---
+
+    // Seq do último registro feito (gravado ou não)
+    public synchronized long getUltimaSeq() {
+        return this.proximaSeq - 1;
+    }
+
+    public synchronized long getRegistrosDesdeCheckpoint() {
+        return this.registrosDesdeCheckpoint;
+    }
+
+    // Descarta os registros até "ateSeq" (inclusive), que já estão num snapshot.
+    // Caso comum: não entrou nada depois, então é só zerar o arquivo.
+    public void truncar(long ateSeq) throws IOException {
+        synchronized (this.travaGravacao) {
+            sincronizar();
+
+            if (this.ultimaSeqGravada <= ateSeq) {
+                this.canal.truncate(0);
+            } else {
+                // Entrou registro depois do snapshot: reescreve só a cauda
+                reescreverCauda(ateSeq);
+            }
+
+            synchronized (this) {
+                this.registrosDesdeCheckpoint = this.proximaSeq - 1 - ateSeq;
+            }
+        }
+    }
+
+    private void reescreverCauda(long ateSeq) throws IOException {
+        Path temp = this.arquivo.resolveSibling(this.arquivo.getFileName() + ".tmp");
+        List<RegistroJournal> cauda = new ArrayList<>();
+        recuperarSemTruncar(r -> {
+            if (r.getSeq() > ateSeq) {
+                cauda.add(r);
+            }
+        });
+
+        // A cauda já tinha ido pro disco no arquivo velho: o novo tem que estar lá antes de trocar
+        try (FileChannel temporario = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(temporario)));
+            for (RegistroJournal r : cauda) {
+                escreverRegistro(out, r.getSeq(), r.getOperacao(), r.getArgumentos());
+            }
+            out.flush();
+            temporario.force(true);
+        }
+        this.canal.close();
+        Files.move(temp, this.arquivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        FormatoBinario.sincronizarDiretorio(this.arquivo.toAbsolutePath().getParent());
+        this.canal = abrirCanal();
+    }
+
+    private void recuperarSemTruncar(Consumer<RegistroJournal> consumidor) throws IOException {
+        try (DataInputStream dis = new DataInputStream(new BufferedInputStream(Files.newInputStream(this.arquivo)))) {
+            RegistroLido lido;
+            while ((lido = lerRegistro(dis)) != null) {
+                consumidor.accept(lido.registro);
+            }
+        }
+    }
+
+    // Apaga tudo (usado no zerarSistema)
+    public void zerar() throws IOException {
+        synchronized (this.travaGravacao) {
+            synchronized (this) {
+                this.lote = new ByteArrayOutputStream();
+                this.pendentes = 0;
+                this.registrosDesdeCheckpoint = 0;
+            }
+            this.canal.truncate(0);
+        }
+    }
+
+    // Grava o pendente e fecha. Pode ser chamado mais de uma vez (encerrarSistema e gancho de saída).
+    public void fechar() throws IOException {
+        try {
+            Runtime.getRuntime().removeShutdownHook(this.ganchoDeSaida);
+        } catch (IllegalStateException e) {
+            // A JVM já está saindo (é o próprio gancho chamando)
+        }
+        this.agendador.shutdown();
+        synchronized (this.travaGravacao) {
+            if (this.canal.isOpen()) {
+                sincronizar();
+                this.canal.close();
+            }
+        }
+    }
+
+    private void fecharNaSaida() {
+        try {
+            fechar();
+        } catch (IOException e) {
+            System.err.println("Erro ao fechar journal na saida: " + e.getMessage());
+        }
+    }
+
+    // --- FORMATO ---
+
+    private FileChannel abrirCanal() throws IOException {
+        // APPEND: toda escrita vai pro fim do arquivo
+        return FileChannel.open(this.arquivo, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private static void escreverRegistro(DataOutputStream out, long seq, String operacao, Object[] argumentos) throws IOException {
+        ByteArrayOutputStream corpo = new ByteArrayOutputStream();
+        DataOutputStream dos = new DataOutputStream(corpo);
+        dos.writeLong(seq);
+        dos.writeUTF(operacao);
+        dos.writeByte(argumentos.length);
+        for (Object arg : argumentos) {
+            if (arg == null) {
+                dos.writeByte(TIPO_NULO);
+            } else if (arg instanceof Integer) {
+                dos.writeByte(TIPO_INT);
+                dos.writeInt((Integer) arg);
+            } else if (arg instanceof Float) {
+                dos.writeByte(TIPO_FLOAT);
+                dos.writeFloat((Float) arg);
+            } else if (arg instanceof int[]) {
+                int[] valores = (int[]) arg;
+                dos.writeByte(TIPO_INTS);
+                dos.writeInt(valores.length);
+                for (int v : valores) {
+                    dos.writeInt(v);
+                }
+            } else {
+                dos.writeByte(TIPO_STRING);
+                dos.writeUTF(arg.toString());
+            }
+        }
+
+        byte[] bytes = corpo.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+
+        out.writeInt(bytes.length);
+        out.writeInt((int) crc.getValue());
+        out.write(bytes);
+    }
+
+    // Retorna null se acabou o arquivo ou se o registro está incompleto/corrompido
+    private static RegistroLido lerRegistro(DataInputStream dis) throws IOException {
+        byte[] bytes;
+        int crcEsperado;
+        try {
+            int tamanho = dis.readInt();
+            crcEsperado = dis.readInt();
+            if (tamanho <= 0 || tamanho > (1 << 24)) {
+                return null;
+            }
+            bytes = new byte[tamanho];
+            dis.readFully(bytes);
+        } catch (EOFException e) {
+            return null;
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        if ((int) crc.getValue() != crcEsperado) {
+            return null;
+        }
+
+        DataInputStream corpo = new DataInputStream(new ByteArrayInputStream(bytes));
+        long seq = corpo.readLong();
+        String operacao = corpo.readUTF();
+        Object[] argumentos = new Object[corpo.readByte()];
+        for (int i = 0; i < argumentos.length; i++) {
+            byte tipo = corpo.readByte();
+            switch (tipo) {
+                case TIPO_INT:
+                    argumentos[i] = corpo.readInt();
+                    break;
+                case TIPO_FLOAT:
+                    argumentos[i] = corpo.readFloat();
+                    break;
+                case TIPO_STRING:
+                    argumentos[i] = corpo.readUTF();
+                    break;
+                case TIPO_INTS:
+                    int[] valores = new int[corpo.readInt()];
+                    for (int j = 0; j < valores.length; j++) {
+                        valores[j] = corpo.readInt();
+                    }
+                    argumentos[i] = valores;
+                    break;
+                default:
+                    argumentos[i] = null;
+            }
+        }
+        return new RegistroLido(new RegistroJournal(seq, operacao, argumentos), 8 + bytes.length);
+    }
+
+    // Registro + quantos bytes ele ocupa no arquivo
+    private static class RegistroLido {
+        final RegistroJournal registro;
+        final int tamanhoEmDisco;
+
+        RegistroLido(RegistroJournal registro, int tamanhoEmDisco) {
+            this.registro = registro;
+            this.tamanhoEmDisco = tamanhoEmDisco;
+        }
+    }
+}
\ No newline at end of file
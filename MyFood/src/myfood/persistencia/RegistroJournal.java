@@ -0,0 +1,26 @@
+package myfood.persistencia;
+
+// Uma entrada do journal: a operação que foi feita e os argumentos dela.
+// Os argumentos são sempre int, float, String ou int[] (ou null).
+public class RegistroJournal {
+
+    private final long seq;
+    private final String operacao;
+    private final Object[] argumentos;
+
+    public RegistroJournal(long seq, String operacao, Object[] argumentos) {
+        this.seq = seq;
+        this.operacao = operacao;
+        this.argumentos = argumentos;
+    }
+
+    // --- Getters ---
+    public long getSeq() { return this.seq; }
+    public String getOperacao() { return this.operacao; }
+    public Object[] getArgumentos() { return this.argumentos; }
+
+    public int getInt(int i) { return (Integer) this.argumentos[i]; }
+    public float getFloat(int i) { return (Float) this.argumentos[i]; }
+    public String getString(int i) { return (String) this.argumentos[i]; }
+    public int[] getInts(int i) { return (int[]) this.argumentos[i]; }
+}
\ No newline at end of file
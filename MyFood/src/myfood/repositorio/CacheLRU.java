@@ -0,0 +1,98 @@
+package myfood.repositorio;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+// Cache de entidades por ID com tamanho máximo: quando enche, sai a usada há mais tempo.
+// Dividido em trechos (pelo ID), cada um com sua trava, pra leituras de IDs diferentes
+// não esperarem umas pelas outras (o LinkedHashMap em ordem de acesso muda a cada get).
+public class CacheLRU<T> {
+
+    private static final int TRECHOS = 16;
+
+    private final Trecho<T>[] trechos;
+
+    private final LongAdder acertos = new LongAdder();
+    private final LongAdder faltas = new LongAdder();
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public CacheLRU(int capacidade) {
+        this.trechos = new Trecho[TRECHOS];
+        for (int i = 0; i < TRECHOS; i++) {
+            this.trechos[i] = new Trecho<>(Math.max(1, capacidade / TRECHOS));
+        }
+    }
+
+    // null se não está no cache
+    public T get(int id) {
+        Trecho<T> t = trecho(id);
+        T valor;
+        synchronized (t) {
+            valor = t.get(id);
+        }
+        (valor != null ? this.acertos : this.faltas).increment();
+        return valor;
+    }
+
+    public void put(int id, T valor) {
+        Trecho<T> t = trecho(id);
+        synchronized (t) {
+            t.put(id, valor);
+        }
+    }
+
+    public void remove(int id) {
+        Trecho<T> t = trecho(id);
+        synchronized (t) {
+            t.remove(id);
+        }
+    }
+
+    public void limpar() {
+        for (Trecho<T> t : this.trechos) {
+            synchronized (t) {
+                t.clear();
+            }
+        }
+    }
+
+    // --- Estatísticas ---
+    public long getAcertos() { return this.acertos.sum(); }
+    public long getFaltas() { return this.faltas.sum(); }
+
+    public int getTamanho() {
+        int total = 0;
+        for (Trecho<T> t : this.trechos) {
+            synchronized (t) {
+                total += t.size();
+            }
+        }
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        return "acertos=" + getAcertos() + ", faltas=" + getFaltas() + ", entradas=" + getTamanho();
+    }
+
+    private Trecho<T> trecho(int id) {
+        return this.trechos[(id * 0x9E3779B9 >>> 28) & (TRECHOS - 1)];
+    }
+
+    private static class Trecho<T> extends LinkedHashMap<Integer, T> {
+        private static final long serialVersionUID = 1L;
+
+        private final int capacidade;
+
+        Trecho(int capacidade) {
+            super(16, 0.75f, true); // Ordem de acesso: o mais antigo é o menos usado
+            this.capacidade = capacidade;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, T> maisAntiga) {
+            return size() > this.capacidade;
+        }
+    }
+}
\ No newline at end of file
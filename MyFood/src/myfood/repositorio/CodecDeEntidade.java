@@ -0,0 +1,13 @@
+package myfood.repositorio;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+// Transforma a entidade em bytes e de volta (pro RepositorioEmDisco)
+public interface CodecDeEntidade<T> {
+
+    void escrever(DataOutputStream out, T valor) throws IOException;
+
+    T ler(ByteBuffer buf);
+}
\ No newline at end of file
@@ -0,0 +1,37 @@
+package myfood.repositorio;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+// Onde um controlador guarda as entidades por ID (o "mapa principal" dele).
+// Os índices secundários (por email, por nome...) continuam no controlador;
+// daqui ele só pede/guarda a entidade pelo ID.
+//
+// Dois motores (ver Repositorios):
+//   RepositorioEmMemoria  tudo na heap, como sempre foi (TabelaPorId)
+//   RepositorioEmDisco    registros num arquivo, com um cache LRU das entidades mais usadas
+// Quem usa o motor em disco recebe uma cópia lida do arquivo a cada falta no cache,
+// então só serve pra entidade que não muda depois de guardada.
+public interface Repositorio<T> {
+
+    // null se não existe
+    T get(int id);
+
+    boolean contem(int id);
+
+    void put(int id, T valor);
+
+    // Retorna o que estava lá (ou null)
+    T remove(int id);
+
+    int size();
+
+    // Visita os valores em ordem de ID
+    void paraCada(Consumer<T> acao);
+
+    // Cópia dos valores em ordem de ID
+    List<T> valores();
+
+    // Solta os arquivos (o repositório não é mais usado depois disso)
+    void fechar();
+}
\ No newline at end of file
@@ -0,0 +1,258 @@
+package myfood.repositorio;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Motor em disco, no estilo log: cada put acrescenta o registro (bytes do codec) no fim
+// de um arquivo de páginas, e a memória só guarda onde cada ID está (posição + tamanho, 12 bytes)
+// e um CacheLRU com as entidades mais usadas. Falta no cache = uma leitura posicional no arquivo.
+// Os registros vão juntando num buffer de 64 KB e descem pro arquivo de uma vez.
+//
+// Não é save: o arquivo é temporário (apagado logo depois de aberto) e o repositório é
+// montado de novo a cada carregamento, a partir do save + journal. Por isso não tem
+// recuperação nem fsync. Um put de um ID que já existe grava de novo no fim; o espaço
+// do registro velho só volta quando o repositório é recriado (zerar/carregar).
+public class RepositorioEmDisco<T> implements Repositorio<T> {
+
+    private static final int TAMANHO_BUFFER = 64 * 1024;
+
+    private final String nome;
+    private final CodecDeEntidade<T> codec;
+    private final CacheLRU<T> cache;
+    private final FileChannel canal;
+
+    private final ReentrantReadWriteLock trava = new ReentrantReadWriteLock();
+
+    // ID -> posição no arquivo + 1 (0 = não existe) e tamanho do registro
+    private long[] posicoes = new long[1024];
+    private int[] tamanhos = new int[1024];
+    private int quantidade;
+
+    // Registros que ainda não desceram pro arquivo; começam em "noDisco"
+    private final ByteBuffer pendente = ByteBuffer.allocate(TAMANHO_BUFFER);
+    private long noDisco;
+
+    // Pra codificar (só usado com a trava de escrita)
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+    private final DataOutputStream saida = new DataOutputStream(this.bytes);
+
+    public RepositorioEmDisco(Path diretorio, String nome, CodecDeEntidade<T> codec, int tamanhoCache) throws IOException {
+        this.nome = nome;
+        this.codec = codec;
+        this.cache = new CacheLRU<>(tamanhoCache);
+
+        Files.createDirectories(diretorio);
+        Path caminho = Files.createTempFile(diretorio, nome + "_", ".paginas");
+        this.canal = FileChannel.open(caminho, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            Files.delete(caminho);
+        } catch (IOException e) {
+            caminho.toFile().deleteOnExit(); // Windows: não dá pra apagar aberto
+        }
+    }
+
+    // --- Escrita ---
+
+    @Override
+    public void put(int id, T valor) {
+        if (id <= 0) {
+            throw new IllegalArgumentException("ID invalido: " + id);
+        }
+        this.trava.writeLock().lock();
+        try {
+            this.bytes.reset();
+            this.codec.escrever(this.saida, valor);
+            int tamanho = this.bytes.size();
+
+            if (tamanho > this.pendente.remaining()) {
+                descarregar();
+            }
+            long posicao = this.noDisco + this.pendente.position();
+            if (tamanho > this.pendente.capacity()) {
+                // Registro maior que o buffer vai direto
+                escreverTudo(ByteBuffer.wrap(this.bytes.toByteArray()), this.noDisco);
+                this.noDisco += tamanho;
+            } else {
+                this.pendente.put(this.bytes.toByteArray());
+            }
+
+            if (id >= this.posicoes.length) {
+                int novo = Math.max(id + 1, this.posicoes.length * 2);
+                this.posicoes = Arrays.copyOf(this.posicoes, novo);
+                this.tamanhos = Arrays.copyOf(this.tamanhos, novo);
+            }
+            if (this.posicoes[id] == 0) {
+                this.quantidade++;
+            }
+            this.posicoes[id] = posicao + 1;
+            this.tamanhos[id] = tamanho;
+            this.cache.put(id, valor);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro gravando no repositorio " + this.nome, e);
+        } finally {
+            this.trava.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public T remove(int id) {
+        T anterior = get(id);
+        this.trava.writeLock().lock();
+        try {
+            if (id > 0 && id < this.posicoes.length && this.posicoes[id] != 0) {
+                this.posicoes[id] = 0;
+                this.quantidade--;
+            }
+            this.cache.remove(id);
+        } finally {
+            this.trava.writeLock().unlock();
+        }
+        return anterior;
+    }
+
+    @Override
+    public void fechar() {
+        this.trava.writeLock().lock();
+        try {
+            this.cache.limpar();
+            this.canal.close();
+        } catch (IOException e) {
+            System.err.println("Erro ao fechar o repositorio " + this.nome + ": " + e.getMessage());
+        } finally {
+            this.trava.writeLock().unlock();
+        }
+    }
+
+    // --- Leitura ---
+
+    @Override
+    public T get(int id) {
+        T valor = this.cache.get(id);
+        if (valor == null) {
+            valor = ler(id);
+            if (valor != null) {
+                this.cache.put(id, valor);
+            }
+        }
+        return valor;
+    }
+
+    @Override
+    public boolean contem(int id) {
+        this.trava.readLock().lock();
+        try {
+            return id > 0 && id < this.posicoes.length && this.posicoes[id] != 0;
+        } finally {
+            this.trava.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        this.trava.readLock().lock();
+        try {
+            return this.quantidade;
+        } finally {
+            this.trava.readLock().unlock();
+        }
+    }
+
+    // Varre o arquivo sem passar pelo cache (senão uma varredura expulsaria tudo que é usado)
+    @Override
+    public void paraCada(Consumer<T> acao) {
+        int limite;
+        this.trava.readLock().lock();
+        try {
+            limite = this.posicoes.length;
+        } finally {
+            this.trava.readLock().unlock();
+        }
+        for (int id = 1; id < limite; id++) {
+            T valor = this.cache.get(id);
+            if (valor == null) {
+                valor = ler(id);
+            }
+            if (valor != null) {
+                acao.accept(valor);
+            }
+        }
+    }
+
+    @Override
+    public List<T> valores() {
+        List<T> lista = new ArrayList<>(size());
+        paraCada(lista::add);
+        return lista;
+    }
+
+    public CacheLRU<T> getCache() {
+        return this.cache;
+    }
+
+    @Override
+    public String toString() {
+        return "disco, entidades=" + size() + ", bytes=" + (this.noDisco + this.pendente.position()) + ", cache: " + this.cache;
+    }
+
+    // --- Helpers ---
+
+    // Lê e decodifica o registro do ID (null se não existe)
+    private T ler(int id) {
+        byte[] registro;
+        long posicao;
+        this.trava.readLock().lock();
+        try {
+            if (id <= 0 || id >= this.posicoes.length || this.posicoes[id] == 0) {
+                return null;
+            }
+            posicao = this.posicoes[id] - 1;
+            registro = new byte[this.tamanhos[id]];
+            if (posicao >= this.noDisco) {
+                // Ainda está no buffer (com a trava de leitura ninguém mexe nele)
+                System.arraycopy(this.pendente.array(), (int) (posicao - this.noDisco), registro, 0, registro.length);
+                return this.codec.ler(ByteBuffer.wrap(registro));
+            }
+        } finally {
+            this.trava.readLock().unlock();
+        }
+        // O que já desceu pro arquivo nunca muda, então lê fora da trava
+        try {
+            ByteBuffer destino = ByteBuffer.wrap(registro);
+            while (destino.hasRemaining()) {
+                if (this.canal.read(destino, posicao + destino.position()) < 0) {
+                    throw new IOException("Fim do arquivo no meio do registro " + id);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro lendo o repositorio " + this.nome, e);
+        }
+        return this.codec.ler(ByteBuffer.wrap(registro));
+    }
+
+    // Chamar com a trava de escrita
+    private void descarregar() throws IOException {
+        this.pendente.flip();
+        int tamanho = this.pendente.remaining();
+        escreverTudo(this.pendente, this.noDisco);
+        this.noDisco += tamanho;
+        this.pendente.clear();
+    }
+
+    private void escreverTudo(ByteBuffer buf, long posicao) throws IOException {
+        while (buf.hasRemaining()) {
+            posicao += this.canal.write(buf, posicao);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,55 @@
+package myfood.repositorio;
+
+import java.util.List;
+import java.util.function.Consumer;
+import myfood.colecoes.TabelaPorId;
+
+// O motor de sempre: a TabelaPorId, tudo na heap
+public class RepositorioEmMemoria<T> implements Repositorio<T> {
+
+    private final TabelaPorId<T> tabela = new TabelaPorId<>();
+
+    @Override
+    public T get(int id) {
+        return this.tabela.get(id);
+    }
+
+    @Override
+    public boolean contem(int id) {
+        return this.tabela.contem(id);
+    }
+
+    @Override
+    public void put(int id, T valor) {
+        this.tabela.put(id, valor);
+    }
+
+    @Override
+    public T remove(int id) {
+        return this.tabela.remove(id);
+    }
+
+    @Override
+    public int size() {
+        return this.tabela.size();
+    }
+
+    @Override
+    public void paraCada(Consumer<T> acao) {
+        this.tabela.paraCada(acao);
+    }
+
+    @Override
+    public List<T> valores() {
+        return this.tabela.valores();
+    }
+
+    @Override
+    public void fechar() {
+    }
+
+    @Override
+    public String toString() {
+        return "memoria, entidades=" + size();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,39 @@
+package myfood.repositorio;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+// Escolhe o motor dos repositórios pelas propriedades da JVM:
+//   -Dmyfood.repositorio=memoria|disco   (padrão memoria)
+//   -Dmyfood.dirRepositorio=<pasta>      onde ficam os arquivos de páginas (padrão: pasta temporária)
+//   -Dmyfood.cacheEntidades=<n>          entidades no cache de cada repositório em disco (padrão 100000)
+// O motor em disco só vale pra quem passa um codec (entidade que não muda depois de guardada);
+// o resto fica sempre em memória.
+public final class Repositorios {
+
+    public static final String MEMORIA = "memoria";
+    public static final String DISCO = "disco";
+
+    private static final int CACHE_PADRAO = 100_000;
+
+    private Repositorios() {
+    }
+
+    // Sempre em memória (entidade mutável ou referenciada por outros mapas)
+    public static <T> Repositorio<T> emMemoria() {
+        return new RepositorioEmMemoria<>();
+    }
+
+    public static <T> Repositorio<T> criar(String nome, CodecDeEntidade<T> codec) {
+        if (DISCO.equals(System.getProperty("myfood.repositorio", MEMORIA))) {
+            String diretorio = System.getProperty("myfood.dirRepositorio", System.getProperty("java.io.tmpdir"));
+            try {
+                return new RepositorioEmDisco<>(Paths.get(diretorio), nome, codec,
+                        Integer.getInteger("myfood.cacheEntidades", CACHE_PADRAO));
+            } catch (IOException e) {
+                System.err.println("Erro ao abrir o repositorio em disco de " + nome + ", usando a memoria: " + e.getMessage());
+            }
+        }
+        return new RepositorioEmMemoria<>();
+    }
+}
\ No newline at end of file
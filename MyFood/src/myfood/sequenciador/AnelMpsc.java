@@ -0,0 +1,89 @@
+package myfood.sequenciador;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+// Fila circular de tamanho fixo, sem trava: várias threads colocam, uma só tira.
+//
+// Cada posição tem um número de sequência que diz de quem é a vez:
+//   seq == pos            -> livre pra um produtor que pegou "pos"
+//   seq == pos + 1        -> preenchida, o consumidor pode ler
+//   seq == pos + capacidade -> já lida, livre pra próxima volta
+// Os produtores disputam a cauda com CAS; o consumidor anda a cabeça sozinho.
+public class AnelMpsc<T> {
+
+    private final Object[] itens;
+    private final AtomicLongArray sequencias;
+    private final int mascara;
+    private final AtomicLong cauda = new AtomicLong(); // Próxima posição pros produtores
+    private volatile long cabeca;                       // Só o consumidor escreve
+
+    // Capacidade é arredondada pra potência de 2
+    public AnelMpsc(int capacidade) {
+        int tamanho = Integer.highestOneBit(Math.max(2, capacidade - 1)) << 1;
+        this.itens = new Object[tamanho];
+        this.sequencias = new AtomicLongArray(tamanho);
+        for (int i = 0; i < tamanho; i++) {
+            this.sequencias.set(i, i);
+        }
+        this.mascara = tamanho - 1;
+    }
+
+    // Retorna false se a fila está cheia (quem chamou decide se espera)
+    public boolean oferecer(T item) {
+        long pos = this.cauda.get();
+        int i;
+        while (true) {
+            i = (int) (pos & this.mascara);
+            long diferenca = this.sequencias.get(i) - pos;
+            if (diferenca == 0) {
+                if (this.cauda.compareAndSet(pos, pos + 1)) {
+                    break;
+                }
+                pos = this.cauda.get();
+            } else if (diferenca < 0) {
+                return false; // O consumidor ainda não liberou essa posição
+            } else {
+                pos = this.cauda.get(); // Outro produtor pegou, tenta a próxima
+            }
+        }
+        this.itens[i] = item;
+        this.sequencias.set(i, pos + 1); // Publica (escrita volátil, o item vai junto)
+        return true;
+    }
+
+    // Só o consumidor chama. Passa até "maximo" itens pro consumidor e retorna quantos foram.
+    @SuppressWarnings("unchecked")
+    public int drenar(Consumer<T> consumidor, int maximo) {
+        int n = 0;
+        while (n < maximo) {
+            int i = (int) (this.cabeca & this.mascara);
+            if (this.sequencias.get(i) != this.cabeca + 1) {
+                break; // Vazia (ou o produtor ainda não terminou de escrever)
+            }
+            T item = (T) this.itens[i];
+            this.itens[i] = null;
+            this.sequencias.set(i, this.cabeca + this.itens.length);
+            this.cabeca++;
+            consumidor.accept(item);
+            n++;
+        }
+        return n;
+    }
+
+    // Só o consumidor chama
+    public boolean vazia() {
+        int i = (int) (this.cabeca & this.mascara);
+        return this.sequencias.get(i) != this.cabeca + 1;
+    }
+
+    // Aproximado (pra métricas)
+    public long tamanho() {
+        return Math.max(0, this.cauda.get() - this.cabeca);
+    }
+
+    public int getCapacidade() {
+        return this.itens.length;
+    }
+}
\ No newline at end of file
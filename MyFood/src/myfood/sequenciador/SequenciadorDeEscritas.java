@@ -0,0 +1,217 @@
+package myfood.sequenciador;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.LockSupport;
+
+// Modo "escritor único": as escritas entram num AnelMpsc e uma thread só aplica
+// todas, na ordem em que entraram. Quem chamou recebe um CompletableFuture que é
+// completado com o resultado (ou com o erro de validação) depois que o lote termina.
+//
+// A thread escritora tira até TAMANHO_LOTE escritas de uma vez e segura "travaDoLote"
+// (a barreira de checkpoint da Facade) uma vez por lote, não por escrita.
+// As leituras não passam por aqui: continuam em paralelo nos controladores.
+public class SequenciadorDeEscritas {
+
+    private static final int TAMANHO_LOTE = 256;
+    // Voltas de espera ativa antes de dormir (acordar uma thread parada custa dezenas de µs).
+    // Com um processador só, girar só rouba tempo do escritor, então nem gira.
+    private static final int VOLTAS_ANTES_DE_DORMIR = Runtime.getRuntime().availableProcessors() > 1 ? 2_000 : 0;
+
+    // Uma escrita que pode dar erro de validação
+    public interface Escrita<T> {
+        T executar() throws Exception;
+    }
+
+    // Escrita na fila, com o futuro de quem pediu
+    private static class Pendente {
+        final Escrita<?> escrita;
+        final CompletableFuture<Object> futuro = new CompletableFuture<>();
+        Object resultado;
+        Throwable erro;
+
+        Pendente(Escrita<?> escrita) {
+            this.escrita = escrita;
+        }
+    }
+
+    private final AnelMpsc<Pendente> fila;
+    private final Lock travaDoLote;
+    private final Thread escritor;
+    private final Pendente[] lote = new Pendente[TAMANHO_LOTE];
+    private int tamanhoLote;
+    private volatile boolean dormindo;
+    private volatile boolean rodando = true;
+    // Produtores entre olhar "rodando" e terminar de enfileirar (o parar() espera eles antes de drenar)
+    private final AtomicInteger produtoresNaFila = new AtomicInteger();
+
+    public SequenciadorDeEscritas(int capacidade, Lock travaDoLote) {
+        this.fila = new AnelMpsc<>(capacidade);
+        this.travaDoLote = travaDoLote;
+        this.escritor = new Thread(this::laco, "myfood-escritor");
+        this.escritor.setDaemon(true); // Não segura a JVM aberta
+        this.escritor.start();
+    }
+
+    // --- Produtores ---
+
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> submeter(Escrita<T> escrita) {
+        Pendente p = new Pendente(escrita);
+        if (Thread.currentThread() == this.escritor) {
+            // Escrita disparada de dentro de outra escrita: roda na hora, senão esperaria a si mesma
+            aplicar(p);
+            completar(p);
+            return (CompletableFuture<T>) p.futuro;
+        }
+        // Conta como produtor ANTES de olhar "rodando": ou este produtor vê a parada,
+        // ou o parar() vê o contador e espera ele enfileirar antes da última drenagem
+        // (aplicarFora roda já fora da contagem: o parar() não espera quem não vai enfileirar)
+        this.produtoresNaFila.incrementAndGet();
+        boolean enfileirou = false;
+        try {
+            // Fila cheia: espera o escritor abrir espaço (contrapressão).
+            // Se parou (antes ou durante a espera), ninguém mais vai abrir espaço.
+            int tentativas = 0;
+            while (this.rodando && !(enfileirou = this.fila.oferecer(p))) {
+                if (++tentativas < 100) {
+                    Thread.onSpinWait();
+                } else {
+                    LockSupport.parkNanos(10_000);
+                }
+            }
+        } finally {
+            this.produtoresNaFila.decrementAndGet();
+        }
+        if (!enfileirou) {
+            // Parado: aplica aqui mesmo, com a mesma trava que o escritor usaria
+            aplicarFora(p);
+            return (CompletableFuture<T>) p.futuro;
+        }
+        // O escritor marca "dormindo" antes de olhar a fila de novo, então não perde esse aviso
+        if (this.dormindo) {
+            LockSupport.unpark(this.escritor);
+        }
+        return (CompletableFuture<T>) p.futuro;
+    }
+
+    // Submete e espera, devolvendo o erro original (não o embrulhado pelo futuro)
+    public <T> T executar(Escrita<T> escrita) throws Exception {
+        CompletableFuture<T> futuro = submeter(escrita);
+        // O lote costuma terminar rápido: espera um pouco acordado antes de estacionar no get()
+        for (int i = 0; i < VOLTAS_ANTES_DE_DORMIR && !futuro.isDone(); i++) {
+            Thread.onSpinWait();
+        }
+        try {
+            return futuro.get();
+        } catch (ExecutionException e) {
+            Throwable causa = e.getCause();
+            if (causa instanceof Exception) {
+                throw (Exception) causa;
+            }
+            if (causa instanceof Error) {
+                throw (Error) causa;
+            }
+            throw e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw e;
+        }
+    }
+
+    // Escritas esperando (aproximado, pra métricas)
+    public long getPendentes() {
+        return this.fila.tamanho();
+    }
+
+    // Termina o que já está na fila e para a thread. Depois disso as escritas rodam
+    // na thread de quem chamou (o submeter não recusa nada).
+    public void parar() {
+        this.rodando = false;
+        LockSupport.unpark(this.escritor);
+        try {
+            this.escritor.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        // Quem viu "rodando" antes de parar e enfileirou depois da última volta do escritor.
+        // Espera esses produtores terminarem de enfileirar, senão a escrita ficaria na fila pra sempre.
+        while (this.produtoresNaFila.get() > 0) {
+            Thread.onSpinWait();
+        }
+        this.fila.drenar(this::aplicarFora, Integer.MAX_VALUE);
+    }
+
+    // --- Escritor ---
+
+    private void laco() {
+        int voltasVazia = 0;
+        while (true) {
+            this.tamanhoLote = 0;
+            this.fila.drenar(p -> this.lote[this.tamanhoLote++] = p, TAMANHO_LOTE);
+
+            if (this.tamanhoLote == 0) {
+                if (!this.rodando) {
+                    return;
+                }
+                if (++voltasVazia < VOLTAS_ANTES_DE_DORMIR) {
+                    Thread.onSpinWait();
+                    continue;
+                }
+                voltasVazia = 0;
+                this.dormindo = true;
+                if (this.fila.vazia() && this.rodando) {
+                    LockSupport.park(this);
+                }
+                this.dormindo = false;
+                continue;
+            }
+
+            voltasVazia = 0;
+            // Aplica o lote inteiro segurando a trava uma vez só
+            this.travaDoLote.lock();
+            try {
+                for (int i = 0; i < this.tamanhoLote; i++) {
+                    aplicar(this.lote[i]);
+                }
+            } finally {
+                this.travaDoLote.unlock();
+            }
+
+            // Acorda quem está esperando só depois de soltar a trava
+            for (int i = 0; i < this.tamanhoLote; i++) {
+                completar(this.lote[i]);
+                this.lote[i] = null;
+            }
+        }
+    }
+
+    private void aplicarFora(Pendente p) {
+        this.travaDoLote.lock();
+        try {
+            aplicar(p);
+        } finally {
+            this.travaDoLote.unlock();
+        }
+        completar(p);
+    }
+
+    private static void aplicar(Pendente p) {
+        try {
+            p.resultado = p.escrita.executar();
+        } catch (Throwable t) {
+            p.erro = t;
+        }
+    }
+
+    private static void completar(Pendente p) {
+        if (p.erro != null) {
+            p.futuro.completeExceptionally(p.erro);
+        } else {
+            p.futuro.complete(p.resultado);
+        }
+    }
+}
\ No newline at end of file